@@ -0,0 +1,92 @@
+package io.github.cpetot.archunit;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.methods;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaMethod;
+import com.tngtech.archunit.lang.ArchCondition;
+import io.github.cpetot.archunit.benchmark.SyntheticClasspathState;
+
+/**
+ * Measures the {@link MemoizedCondition} of the library, package-private, against the same condition not memoized,
+ * both evaluated by several rules on <em>all</em> the classes or methods of the synthetic classpath.
+ *
+ * <p>
+ * Each invocation memoizes the condition again, and evaluates the rules in the same {@link ImportScope},
+ * so that the first rule checks each object, and the next ones reuse its events. It shows which conditions are expensive enough to be memoized,
+ * the lookup of the events costing more than checking again the cheap ones.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MemoizedConditionBenchmark {
+
+	@Param({
+		"HAS_A_PUBLIC_EMPTY_CONSTRUCTOR",
+		"BE_A_VOID_WITHOUT_PARAMETER",
+		"NOT_ACCESS_ASSOCIATIONS",
+	})
+	public String condition;
+
+	@Param({"false", "true"})
+	public boolean memoized;
+
+	@Param("2")
+	public int rules;
+
+	@Benchmark
+	public void evaluate(SyntheticClasspathState classpath, Blackhole blackhole) {
+		switch (condition) {
+			case "HAS_A_PUBLIC_EMPTY_CONSTRUCTOR" -> evaluateOnClasses(StandardCodingRules.HAS_A_PUBLIC_EMPTY_CONSTRUCTOR, classpath, blackhole);
+			case "BE_A_VOID_WITHOUT_PARAMETER" -> evaluateOnMethods(StandardCodingRules.BE_A_VOID_WITHOUT_PARAMETER, classpath, blackhole);
+			case "NOT_ACCESS_ASSOCIATIONS" -> evaluateOnMethods(JpaCodingRules.NOT_ACCESS_ASSOCIATIONS, classpath, blackhole);
+			default -> throw new IllegalArgumentException("Unknown condition " + condition);
+		}
+	}
+
+	private void evaluateOnClasses(ArchCondition<JavaClass> classCondition, SyntheticClasspathState classpath, Blackhole blackhole) {
+		ArchCondition<JavaClass> evaluatedCondition = memoized ? MemoizedCondition.memoizedForClasses(plain(classCondition)) : plain(classCondition);
+		// Shares the memoized events between the rules, like a RuleSuite
+		try (ImportScope scope = ImportScope.open(classpath.classes)) {
+			for (int rule = 0; rule < rules; rule++) {
+				blackhole.consume(classes().should(evaluatedCondition).evaluate(classpath.classes));
+			}
+		}
+	}
+
+	private void evaluateOnMethods(ArchCondition<JavaMethod> methodCondition, SyntheticClasspathState classpath, Blackhole blackhole) {
+		ArchCondition<JavaMethod> evaluatedCondition = memoized ? MemoizedCondition.memoizedForMembers(plain(methodCondition)) : plain(methodCondition);
+		// Shares the memoized events between the rules, like a RuleSuite
+		try (ImportScope scope = ImportScope.open(classpath.classes)) {
+			for (int rule = 0; rule < rules; rule++) {
+				blackhole.consume(methods().should(evaluatedCondition).evaluate(classpath.classes));
+			}
+		}
+	}
+
+	/**
+	 * @return the condition of the library, not memoized.
+	 */
+	private static <T> ArchCondition<T> plain(ArchCondition<T> condition) {
+		return condition instanceof MemoizedCondition<T> memoizedCondition ? memoizedCondition.condition() : condition;
+	}
+}
@@ -0,0 +1,85 @@
+package io.github.cpetot.archunit.benchmark;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.methods;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaMethod;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.EvaluationResult;
+
+/**
+ * Measures each public {@link ArchCondition} of the library, applied to <em>all</em> the classes or methods
+ * of the synthetic classpath, without any selection made by a rule.
+ *
+ * <p>
+ * The conditions created by factory methods, like {@code beAccessedOnlyByClassesMetaAnnotatedBy},
+ * are measured through the rules using them in {@link RuleBenchmark}.
+ * </p>
+ *
+ * <p>
+ * The memoization of the conditions is measured by {@link io.github.cpetot.archunit.MemoizedConditionBenchmark}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ConditionBenchmark {
+
+	@Param({
+		"StandardCodingRules.USE_JUNIT_4:class",
+		"StandardCodingRules.USE_JAVA_UTIL_DATE:class",
+		"StandardCodingRules.HAS_A_PUBLIC_EMPTY_CONSTRUCTOR:class",
+		"StandardCodingRules.BE_A_VOID_WITHOUT_PARAMETER:method",
+		"SpringCodingRules.BE_ACCESSED_BY_TRANSACTIONAL_CLASSES_OR_METHODS:class",
+		"SpringCodingRules.BE_ACCESSED_BY_TRANSACTIONAL_CLASSES_OR_METHODS_TRANSITIVELY:class",
+		"SpringCodingRules.NOT_BE_CALLED_IN_LOOPS:class",
+		"JpaCodingRules.FETCH_SINGLE_ASSOCIATIONS_LAZILY:class",
+		"JpaCodingRules.NOT_FETCH_COLLECTIONS_EAGERLY:class",
+		"JpaCodingRules.NOT_GENERATE_IDS_BY_IDENTITY:class",
+		"JpaCodingRules.FETCH_LOBS_LAZILY:class",
+		"JpaCodingRules.NOT_ACCESS_THE_DATABASE:method",
+		"JpaCodingRules.NOT_ACCESS_ASSOCIATIONS:method",
+	})
+	public String condition;
+
+	private ArchRule archRule;
+
+	@Setup(Level.Trial)
+	@SuppressWarnings("unchecked")
+	public void resolveCondition() {
+		int separator = condition.lastIndexOf(':');
+		ArchCondition<?> archCondition = LibraryMembers.constant(condition.substring(0, separator), ArchCondition.class);
+		String target = condition.substring(separator + 1);
+		archRule = switch (target) {
+			case "class" -> classes().should((ArchCondition<JavaClass>) archCondition);
+			case "method" -> methods().should((ArchCondition<JavaMethod>) archCondition);
+			default -> throw new IllegalArgumentException("Unknown condition target " + target);
+		};
+		archRule = archRule.allowEmptyShould(true);
+	}
+
+	@Benchmark
+	public EvaluationResult evaluate(SyntheticClasspathState classpath) {
+		return archRule.evaluate(classpath.classes);
+	}
+}
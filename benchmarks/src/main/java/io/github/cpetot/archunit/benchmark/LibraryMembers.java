@@ -0,0 +1,32 @@
+package io.github.cpetot.archunit.benchmark;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Resolves the public constants of the library from their name, like {@code SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_SERVICE_CLASSES},
+ * so they can be given as JMH parameters.
+ */
+final class LibraryMembers {
+
+	private static final String LIBRARY_PACKAGE = "io.github.cpetot.archunit.";
+
+	private LibraryMembers() {
+	}
+
+	static <T> T constant(String name, Class<T> type) {
+		int separator = name.indexOf('.');
+		if (separator < 0) {
+			throw new IllegalArgumentException("Expected a constant as 'ClassName.FIELD_NAME', got " + name);
+		}
+		try {
+			Field field = Class.forName(LIBRARY_PACKAGE + name.substring(0, separator)).getField(name.substring(separator + 1));
+			if (!Modifier.isStatic(field.getModifiers()) || !type.isAssignableFrom(field.getType())) {
+				throw new IllegalArgumentException(name + " is not a constant of type " + type.getSimpleName());
+			}
+			return type.cast(field.get(null));
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalArgumentException("Unknown constant " + name, e);
+		}
+	}
+}
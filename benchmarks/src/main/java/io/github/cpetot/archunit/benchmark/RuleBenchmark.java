@@ -0,0 +1,63 @@
+package io.github.cpetot.archunit.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.EvaluationResult;
+
+/**
+ * Measures the evaluation of each public {@link ArchRule} of the library on an already imported synthetic classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RuleBenchmark {
+
+	@Param({
+		"StandardCodingRules.NO_CLASSES_SHOULD_USE_JUNIT_4",
+		"StandardCodingRules.NO_CLASSES_SHOULD_USE_JAVA_UTIL_DATE",
+		"SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_TRANSACTIONAL_METHODS_OR_CLASSES",
+		"SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_TRANSACTIONAL_METHODS_OR_CLASSES_TRANSITIVELY",
+		"SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_SERVICE_CLASSES",
+		"SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_SERVICE_OR_CONTROLLER_CLASSES",
+		"SpringCodingRules.REPOSITORIES_ARE_NOT_CALLED_IN_LOOPS",
+		"JpaCodingRules.JPA_ENTITIES_HAVE_PUBLIC_EMPTY_CONSTRUCTOR",
+		"JpaCodingRules.LIFE_CYCLE_ANNOTATIONS_CORRECTLY_DECLARED",
+		"JpaCodingRules.LIFE_CYCLE_CALLBACKS_DO_NOT_ACCESS_THE_DATABASE",
+		"JpaCodingRules.JPA_ENTITIES_FETCH_SINGLE_ASSOCIATIONS_LAZILY",
+		"JpaCodingRules.JPA_ENTITIES_DO_NOT_FETCH_COLLECTIONS_EAGERLY",
+		"JpaCodingRules.JPA_ENTITIES_DO_NOT_GENERATE_IDS_BY_IDENTITY",
+		"JpaCodingRules.JPA_ENTITIES_FETCH_LOBS_LAZILY",
+		"JpaCodingRules.JPA_ENTITIES_EQUALS_AND_HASH_CODE_DO_NOT_ACCESS_ASSOCIATIONS",
+	})
+	public String rule;
+
+	private ArchRule archRule;
+
+	@Setup(Level.Trial)
+	public void resolveRule() {
+		// Allowing empty should, so the benchmark still runs when a parameter is set to 0
+		archRule = LibraryMembers.constant(rule, ArchRule.class).allowEmptyShould(true);
+	}
+
+	@Benchmark
+	public EvaluationResult evaluate(SyntheticClasspathState classpath) {
+		return archRule.evaluate(classpath.classes);
+	}
+}
@@ -0,0 +1,195 @@
+package io.github.cpetot.archunit.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Generates and compiles a synthetic classpath on which the rules can be benchmarked.
+ *
+ * <div>
+ * The generated classes are :
+ * <ul>
+ *     <li>{@code repositories} classes annotated by {@code @Repository},</li>
+ *     <li>{@code services} classes annotated by {@code @Service}, each one calling one of the repositories,</li>
+ *     <li>{@code entities} classes annotated by {@code @Entity}, with a {@code @PrePersist} method.</li>
+ * </ul>
+ * </div>
+ *
+ * <p>
+ * The {@code violationDensity}, between 0 and 1, is the ratio of generated classes breaking one of the rules :
+ * a service without {@code @Transactional} and using {@code java.util.Date}, a repository called by a {@code @Controller},
+ * an entity without public empty constructor and with an invalid lifecycle method, a test using JUnit 4.
+ * The violating classes are spread evenly, so the same parameters always generate the same classpath.
+ * </p>
+ */
+final class SyntheticClasspath {
+
+	private static final String PACKAGE = "io.github.cpetot.archunit.benchmark.generated";
+
+	private SyntheticClasspath() {
+	}
+
+	static Path generate(int repositories, int services, int entities, double violationDensity) {
+		if (violationDensity < 0 || violationDensity > 1) {
+			throw new IllegalArgumentException("The violation density must be between 0 and 1, got " + violationDensity);
+		}
+		try {
+			Path root = Files.createTempDirectory("archunit-rules-benchmark");
+			Path sources = Files.createDirectories(root.resolve("src"));
+			Path classes = Files.createDirectories(root.resolve("classes"));
+
+			List<Path> files = new ArrayList<>();
+			for (int i = 0; i < repositories; i++) {
+				files.add(write(sources, "Repository" + i, repository(i)));
+			}
+			for (int i = 0; i < services; i++) {
+				boolean violating = isViolating(i, violationDensity);
+				files.add(write(sources, "Service" + i, service(i, i % Math.max(repositories, 1), repositories > 0, violating)));
+				if (violating && repositories > 0) {
+					files.add(write(sources, "Controller" + i, controller(i, i % repositories)));
+					files.add(write(sources, "Junit4Test" + i, junit4Test(i)));
+				}
+			}
+			for (int i = 0; i < entities; i++) {
+				files.add(write(sources, "Entity" + i, entity(i, isViolating(i, violationDensity))));
+			}
+
+			compile(files, classes);
+			return classes;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	static void delete(Path classes) {
+		try (Stream<Path> paths = Files.walk(classes.getParent())) {
+			paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * The element {@code index} is violating if it makes the cumulated number of violations go up,
+	 * which spreads evenly {@code index * density} violations.
+	 */
+	private static boolean isViolating(int index, double density) {
+		return Math.floor((index + 1) * density) > Math.floor(index * density);
+	}
+
+	private static String repository(int index) {
+		return """
+			package %1$s;
+
+			@org.springframework.stereotype.Repository
+			public class Repository%2$d {
+
+				public void save() {
+				}
+			}
+			""".formatted(PACKAGE, index);
+	}
+
+	private static String service(int index, int repositoryIndex, boolean hasRepository, boolean violating) {
+		String transactional = violating ? "" : "@org.springframework.transaction.annotation.Transactional";
+		String field = hasRepository ? "private final Repository%d repository = new Repository%d();".formatted(repositoryIndex, repositoryIndex) : "";
+		String call = hasRepository ? "repository.save();" : "";
+		String date = violating ? "java.util.Date now = new java.util.Date();" : "java.time.LocalDate now = java.time.LocalDate.now();";
+		return """
+			package %1$s;
+
+			@org.springframework.stereotype.Service
+			public class Service%2$d {
+
+				%3$s
+
+				%4$s
+				public void run() {
+					%5$s
+					%6$s
+				}
+			}
+			""".formatted(PACKAGE, index, field, transactional, date, call);
+	}
+
+	private static String controller(int index, int repositoryIndex) {
+		return """
+			package %1$s;
+
+			@org.springframework.stereotype.Controller
+			public class Controller%2$d {
+
+				private final Repository%3$d repository = new Repository%3$d();
+
+				public void handle() {
+					repository.save();
+				}
+			}
+			""".formatted(PACKAGE, index, repositoryIndex);
+	}
+
+	private static String junit4Test(int index) {
+		return """
+			package %1$s;
+
+			public class Junit4Test%2$d {
+
+				@org.junit.Test
+				public void test() {
+				}
+			}
+			""".formatted(PACKAGE, index);
+	}
+
+	private static String entity(int index, boolean violating) {
+		String constructor = violating ? "public Entity%d(Long id) {\n\t\tthis.id = id;\n\t}".formatted(index) : "public Entity%d() {\n\t}".formatted(index);
+		String lifeCycle = violating ? "String prePersist() {\n\t\treturn \"\";\n\t}" : "void prePersist() {\n\t}";
+		return """
+			package %1$s;
+
+			@jakarta.persistence.Entity
+			public class Entity%2$d {
+
+				private Long id;
+
+				%3$s
+
+				@jakarta.persistence.PrePersist
+				%4$s
+			}
+			""".formatted(PACKAGE, index, constructor, lifeCycle);
+	}
+
+	private static Path write(Path sources, String simpleName, String content) throws IOException {
+		return Files.writeString(sources.resolve(simpleName + ".java"), content);
+	}
+
+	private static void compile(List<Path> files, Path classes) throws IOException {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		if (compiler == null) {
+			throw new IllegalStateException("No Java compiler available, the benchmarks must be run with a JDK");
+		}
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+			Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromPaths(files);
+			List<String> options = List.of(
+				"-d", classes.toString(),
+				"-classpath", System.getProperty("java.class.path"),
+				"-proc:none"
+			);
+			if (!compiler.getTask(null, fileManager, null, options, null, units).call()) {
+				throw new IllegalStateException("The synthetic classpath could not be compiled");
+			}
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package io.github.cpetot.archunit.benchmark;
+
+import java.nio.file.Path;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+
+/**
+ * The imported synthetic classpath, shared by all the benchmarks of a trial.
+ * The generation and the import are not part of the measurement.
+ *
+ * @see SyntheticClasspath
+ */
+@State(Scope.Benchmark)
+public class SyntheticClasspathState {
+
+	@Param("500")
+	public int repositories;
+
+	@Param("1000")
+	public int services;
+
+	@Param("500")
+	public int entities;
+
+	@Param({"0.0", "0.05"})
+	public double violationDensity;
+
+	public JavaClasses classes;
+
+	private Path classesDirectory;
+
+	@Setup(Level.Trial)
+	public void importClasses() {
+		classesDirectory = SyntheticClasspath.generate(repositories, services, entities, violationDensity);
+		classes = new ClassFileImporter().importPath(classesDirectory);
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteClasses() {
+		SyntheticClasspath.delete(classesDirectory);
+	}
+}
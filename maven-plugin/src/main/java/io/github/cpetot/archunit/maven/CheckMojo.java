@@ -0,0 +1,71 @@
+package io.github.cpetot.archunit.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import io.github.cpetot.archunit.RuleDaemonClient;
+
+/**
+ * Checks the rules on the classes of the module with a running {@link io.github.cpetot.archunit.RuleDaemon RuleDaemon},
+ * instead of forking a test JVM importing the classes from scratch.
+ *
+ * <p>
+ * The build fails if a rule is violated, with the failure report of the rules.
+ * </p>
+ */
+@Mojo(name = "check", defaultPhase = LifecyclePhase.TEST, threadSafe = true)
+public class CheckMojo extends AbstractMojo {
+
+	/**
+	 * The path of the socket the daemon listens on.
+	 */
+	@Parameter(property = "archunit-rules.daemon.socket", required = true)
+	private File socket;
+
+	/**
+	 * The classes declaring the rules as constants, like {@code io.github.cpetot.archunit.SpringCodingRules},
+	 * on the classpath of the daemon.
+	 */
+	@Parameter(required = true)
+	private List<String> rulesHolders;
+
+	/**
+	 * The class directories and jars to check.
+	 */
+	@Parameter(defaultValue = "${project.build.outputDirectory}")
+	private List<File> locations;
+
+	@Parameter(property = "archunit-rules.skip", defaultValue = "false")
+	private boolean skip;
+
+	@Override
+	public void execute() throws MojoExecutionException, MojoFailureException {
+		List<Path> existingLocations = locations.stream().filter(File::exists).map(File::toPath).toList();
+		if (skip || existingLocations.isEmpty()) {
+			getLog().info("Nothing to check");
+			return;
+		}
+		List<String> report;
+		try {
+			report = new RuleDaemonClient(socket.toPath()).check(rulesHolders, existingLocations);
+		} catch (IOException e) {
+			throw new MojoExecutionException("The rule daemon is not reachable on " + socket
+				+ ", start it with : java -cp <classpath> io.github.cpetot.archunit.RuleDaemon " + socket, e);
+		} catch (IllegalStateException e) {
+			throw new MojoExecutionException(e.getMessage(), e);
+		}
+		if (!report.isEmpty()) {
+			throw new MojoFailureException(String.join(System.lineSeparator(), report));
+		}
+		getLog().info("The rules of " + rulesHolders + " are satisfied");
+	}
+}
@@ -0,0 +1,131 @@
+package io.github.cpetot.archunit.maven;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.cpetot.archunit.RuleDaemon;
+import io.github.cpetot.archunit.RuleDaemonClient;
+import io.github.cpetot.archunit.StandardCodingRules;
+import io.github.cpetot.archunit.maven.date.DateExample;
+
+class CheckMojoTest {
+
+	@TempDir
+	Path socketDirectory;
+
+	private static File locationOf(Class<?> type) {
+		try {
+			return Path.of(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toFile();
+		} catch (URISyntaxException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static CheckMojo mojo(Path socket, List<File> locations, boolean skip) throws ReflectiveOperationException {
+		CheckMojo mojo = new CheckMojo();
+		// Set like Maven does from the configuration of the plugin
+		set(mojo, "socket", socket.toFile());
+		set(mojo, "rulesHolders", List.of(StandardCodingRules.class.getName()));
+		set(mojo, "locations", locations);
+		set(mojo, "skip", skip);
+		return mojo;
+	}
+
+	private static void set(CheckMojo mojo, String name, Object value) throws ReflectiveOperationException {
+		Field field = CheckMojo.class.getDeclaredField(name);
+		field.setAccessible(true);
+		field.set(mojo, value);
+	}
+
+	@Nested
+	@DisplayName("when the daemon runs")
+	class WhenTheDaemonRuns {
+
+		private Path socket;
+		private Thread daemonThread;
+
+		@BeforeEach
+		void startDaemon() throws Exception {
+			socket = socketDirectory.resolve("daemon.sock");
+			RuleDaemon daemon = RuleDaemon.listen(socket);
+			daemonThread = new Thread(daemon::run);
+			daemonThread.start();
+		}
+
+		@AfterEach
+		void stopDaemon() throws Exception {
+			new RuleDaemonClient(socket).stop();
+			daemonThread.join(10_000);
+			Assertions.assertThat(daemonThread.isAlive()).isFalse();
+		}
+
+		@Test
+		void should_pass_if_the_rules_are_satisfied() throws Exception {
+			CheckMojo mojo = mojo(socket, List.of(locationOf(CheckMojo.class)), false);
+
+			Assertions.assertThatCode(mojo::execute).doesNotThrowAnyException();
+		}
+
+		@Test
+		void should_fail_with_the_violations_of_the_rules() throws Exception {
+			Path dateDirectory = locationOf(DateExample.class).toPath().resolve(Path.of("io", "github", "cpetot", "archunit", "maven", "date"));
+			CheckMojo mojo = mojo(socket, List.of(dateDirectory.toFile()), false);
+
+			Assertions.assertThatThrownBy(mojo::execute)
+				.isInstanceOf(MojoFailureException.class)
+				.hasMessageContaining("Field <%s.A_DATE> has type <java.util.Date>".formatted(DateExample.class.getName()));
+		}
+
+		@Test
+		void should_fail_if_the_daemon_cannot_find_the_rules() throws Exception {
+			CheckMojo mojo = mojo(socket, List.of(locationOf(CheckMojo.class)), false);
+			set(mojo, "rulesHolders", List.of("org.example.UnknownRules"));
+
+			Assertions.assertThatThrownBy(mojo::execute)
+				.isInstanceOf(MojoExecutionException.class)
+				.hasMessageContaining("The class org.example.UnknownRules is not on the classpath of the daemon");
+		}
+	}
+
+	@Nested
+	@DisplayName("when the daemon does not run")
+	class WhenTheDaemonDoesNotRun {
+
+		@Test
+		void should_fail_if_there_are_classes_to_check() throws Exception {
+			Path socket = socketDirectory.resolve("daemon.sock");
+			CheckMojo mojo = mojo(socket, List.of(locationOf(CheckMojo.class)), false);
+
+			Assertions.assertThatThrownBy(mojo::execute)
+				.isInstanceOf(MojoExecutionException.class)
+				.hasMessageContaining("The rule daemon is not reachable on " + socket.toFile());
+		}
+
+		@Test
+		void should_do_nothing_if_skipped() throws Exception {
+			CheckMojo mojo = mojo(socketDirectory.resolve("daemon.sock"), List.of(locationOf(CheckMojo.class)), true);
+
+			Assertions.assertThatCode(mojo::execute).doesNotThrowAnyException();
+		}
+
+		@Test
+		void should_do_nothing_if_there_are_no_classes() throws Exception {
+			CheckMojo mojo = mojo(socketDirectory.resolve("daemon.sock"), List.of(socketDirectory.resolve("classes").toFile()), false);
+
+			Assertions.assertThatCode(mojo::execute).doesNotThrowAnyException();
+		}
+	}
+}
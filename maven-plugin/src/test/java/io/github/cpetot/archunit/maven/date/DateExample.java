@@ -0,0 +1,8 @@
+package io.github.cpetot.archunit.maven.date;
+
+import java.util.Date;
+
+public final class DateExample {
+
+	public final Date A_DATE = new Date();
+}
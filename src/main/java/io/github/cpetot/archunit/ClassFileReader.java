@@ -0,0 +1,114 @@
+package io.github.cpetot.archunit;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The reading of the start of a class file shared by the scanners of this library : its header and its constant pool.
+ *
+ * <p>
+ * The constants are given to a {@link ConstantVisitor} as positions in the buffer, so that a scanner only decodes
+ * the constants it needs. A constant with an unknown tag cannot be skipped, its length being unknown too :
+ * the reading fails with an {@link IllegalArgumentException}.
+ * </p>
+ *
+ * @see ConstantPoolScanner
+ * @see LoopCallScanner
+ */
+final class ClassFileReader {
+
+	static final int MAGIC_NUMBER = 0xCAFEBABE;
+
+	static final int CONSTANT_UTF8 = 1;
+	static final int CONSTANT_INTEGER = 3;
+	static final int CONSTANT_FLOAT = 4;
+	static final int CONSTANT_LONG = 5;
+	static final int CONSTANT_DOUBLE = 6;
+	static final int CONSTANT_CLASS = 7;
+	static final int CONSTANT_STRING = 8;
+	static final int CONSTANT_FIELDREF = 9;
+	static final int CONSTANT_METHODREF = 10;
+	static final int CONSTANT_INTERFACE_METHODREF = 11;
+	static final int CONSTANT_NAME_AND_TYPE = 12;
+	static final int CONSTANT_METHOD_HANDLE = 15;
+	static final int CONSTANT_METHOD_TYPE = 16;
+	static final int CONSTANT_DYNAMIC = 17;
+	static final int CONSTANT_INVOKE_DYNAMIC = 18;
+	static final int CONSTANT_MODULE = 19;
+	static final int CONSTANT_PACKAGE = 20;
+
+	private ClassFileReader() {
+	}
+
+	/**
+	 * Reads the magic number and the version of the class file, at the start of the buffer.
+	 *
+	 * @return false if the buffer does not start with the magic number of a class file.
+	 */
+	static boolean readHeader(ByteBuffer classFile) {
+		if (classFile.getInt() != MAGIC_NUMBER) {
+			return false;
+		}
+		classFile.getShort(); // minor version
+		classFile.getShort(); // major version
+		return true;
+	}
+
+	/**
+	 * Reads the number of entries of the constant pool, following the header : the constants are numbered from 1 to this number excluded.
+	 */
+	static int readConstantPoolCount(ByteBuffer classFile) {
+		return Short.toUnsignedInt(classFile.getShort());
+	}
+
+	/**
+	 * Reads the constants, following their count, until the visitor stops : the buffer is then positioned after the visited constant.
+	 *
+	 * @param constantPoolCount the count read by {@link #readConstantPoolCount(ByteBuffer)}.
+	 * @return true if all the constants were read, false if the visitor stopped.
+	 * @throws IllegalArgumentException if a constant has an unknown tag.
+	 */
+	static boolean readConstants(ByteBuffer classFile, int constantPoolCount, ConstantVisitor visitor) {
+		for (int i = 1; i < constantPoolCount; i++) {
+			int tag = Byte.toUnsignedInt(classFile.get());
+			int position = classFile.position();
+			int length = switch (tag) {
+				case CONSTANT_UTF8 -> {
+					int utf8Length = Short.toUnsignedInt(classFile.getShort());
+					position += 2;
+					yield utf8Length;
+				}
+				case CONSTANT_CLASS, CONSTANT_STRING, CONSTANT_METHOD_TYPE, CONSTANT_MODULE, CONSTANT_PACKAGE -> 2;
+				case CONSTANT_METHOD_HANDLE -> 3;
+				case CONSTANT_INTEGER, CONSTANT_FLOAT, CONSTANT_FIELDREF, CONSTANT_METHODREF, CONSTANT_INTERFACE_METHODREF,
+					CONSTANT_NAME_AND_TYPE, CONSTANT_DYNAMIC, CONSTANT_INVOKE_DYNAMIC -> 4;
+				case CONSTANT_LONG, CONSTANT_DOUBLE -> 8;
+				default -> throw new IllegalArgumentException("Unknown constant tag " + tag);
+			};
+			classFile.position(position + length);
+			if (!visitor.visit(i, tag, position, length)) {
+				return false;
+			}
+			if (tag == CONSTANT_LONG || tag == CONSTANT_DOUBLE) {
+				i++; // These constants take two entries
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Receives the constants of a class file, in the order of the constant pool.
+	 */
+	@FunctionalInterface
+	interface ConstantVisitor {
+
+		/**
+		 * @param index the index of the constant in the constant pool.
+		 * @param tag the tag of the constant, like {@link #CONSTANT_UTF8}.
+		 * @param position the position of the content of the constant in the buffer, following its tag,
+		 * or following its length for a {@link #CONSTANT_UTF8} constant.
+		 * @param length the length of the content, the number of bytes of the string for a {@link #CONSTANT_UTF8} constant.
+		 * @return false to stop reading the constants.
+		 */
+		boolean visit(int index, int tag, int position, int length);
+	}
+}
@@ -0,0 +1,125 @@
+package io.github.cpetot.archunit;
+
+import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import java.util.List;
+
+import com.tngtech.archunit.PublicAPI;
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.core.importer.Location;
+
+/**
+ * An {@link ImportOption} only importing the classes which refer to some types or packages, found by a scan of the constant pool
+ * of their class files.
+ *
+ * <p>
+ * A rule forbidding some types, like {@link StandardCodingRules#NO_CLASSES_SHOULD_USE_JAVA_UTIL_DATE}, only reports violations
+ * in the classes referring to these types. Scanning the class files is much cheaper than importing them,
+ * so on a large classpath, only importing the classes found by the scan makes such a rule much faster.
+ * The class files of directories are memory-mapped, the class files of jars are read.
+ * </p>
+ *
+ * <div>
+ * Example :
+ * <pre>{@code
+ * &#64;AnalyzeClasses(packages = "org.example", importOptions = ConstantPoolPrefilter.UsingJavaUtilDate.class)
+ * class NoDateTest {
+ *
+ * 	&#64;ArchTest
+ * 	private ArchRule no_date = NO_CLASSES_SHOULD_USE_JAVA_UTIL_DATE.allowEmptyShould(true);
+ * }
+ * }</pre>
+ * </div>
+ *
+ * <p>
+ * The import only contains the matching classes, so it should only be used by the rules forbidding the searched types,
+ * and these rules should allow to be empty, since no class is imported when none refers to the searched types.
+ * </p>
+ */
+public final class ConstantPoolPrefilter implements ImportOption {
+
+	private static final String CLASS_FILE_EXTENSION = ".class";
+
+	private final ConstantPoolScanner scanner;
+
+	private ConstantPoolPrefilter(List<String> typeNames, List<String> packageNames) {
+		this.scanner = new ConstantPoolScanner(typeNames, packageNames);
+	}
+
+	/**
+	 * @param types the searched types.
+	 * @return an import option only importing the classes which may refer to one of the given types.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static ConstantPoolPrefilter referringToTypes(Class<?>... types) {
+		return new ConstantPoolPrefilter(List.of(types).stream().map(Class::getName).toList(), List.of());
+	}
+
+	/**
+	 * @param packageNames the searched packages, like {@code org.junit}, their subpackages being excluded.
+	 * @return an import option only importing the classes which may refer to a class of one of the given packages.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static ConstantPoolPrefilter referringToPackages(String... packageNames) {
+		return new ConstantPoolPrefilter(List.of(), List.of(packageNames));
+	}
+
+	@Override
+	public boolean includes(Location location) {
+		URI uri = location.asURI();
+		if (!uri.toString().endsWith(CLASS_FILE_EXTENSION)) {
+			return true;
+		}
+		try {
+			return scanner.mayReferToSearchedTypes(read(uri));
+		} catch (IOException | RuntimeException e) {
+			// Let the importer report the class files it cannot read
+			return true;
+		}
+	}
+
+	private static ByteBuffer read(URI classFile) throws IOException {
+		if ("file".equals(classFile.getScheme())) {
+			try (FileChannel channel = FileChannel.open(Path.of(classFile), StandardOpenOption.READ)) {
+				return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			}
+		}
+		try (InputStream input = classFile.toURL().openStream()) {
+			return ByteBuffer.wrap(input.readAllBytes());
+		}
+	}
+
+	/**
+	 * Only imports the classes which may use {@link Date}, for {@link StandardCodingRules#NO_CLASSES_SHOULD_USE_JAVA_UTIL_DATE}.
+	 */
+	public static final class UsingJavaUtilDate implements ImportOption {
+
+		private final ImportOption prefilter = referringToTypes(Date.class);
+
+		@Override
+		public boolean includes(Location location) {
+			return prefilter.includes(location);
+		}
+	}
+
+	/**
+	 * Only imports the classes which may use JUnit 4, for {@link StandardCodingRules#NO_CLASSES_SHOULD_USE_JUNIT_4}.
+	 */
+	public static final class UsingJunit4 implements ImportOption {
+
+		private final ImportOption prefilter = referringToPackages("org.junit");
+
+		@Override
+		public boolean includes(Location location) {
+			return prefilter.includes(location);
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package io.github.cpetot.archunit;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * A scanner of the constant pool of a class file, looking for references to some types or packages.
+ *
+ * <p>
+ * Every type a class depends on is named in its constant pool, as a class constant ({@code java/util/Date})
+ * or inside a descriptor or a signature ({@code Ljava/util/Date;}). The scanner compares the bytes of the UTF-8 constants
+ * with the searched internal names, without decoding them nor parsing the rest of the class file.
+ * </p>
+ *
+ * <p>
+ * It may find references which are not dependencies, like a string equal to a searched type name,
+ * but it never misses a dependency : it is meant to be followed by a full import of the matching classes.
+ * </p>
+ */
+final class ConstantPoolScanner {
+
+	private final byte[][] typeNames;
+	private final byte[][] packagePrefixes;
+
+	/**
+	 * @param typeNames the fully qualified names of the searched types, like {@code java.util.Date}.
+	 * @param packageNames the names of the searched packages, like {@code org.junit}, their subpackages being excluded.
+	 */
+	ConstantPoolScanner(List<String> typeNames, List<String> packageNames) {
+		this.typeNames = typeNames.stream()
+			.map(ConstantPoolScanner::internalName)
+			.toArray(byte[][]::new);
+		this.packagePrefixes = packageNames.stream()
+			.map(packageName -> internalName(packageName + "."))
+			.toArray(byte[][]::new);
+	}
+
+	private static byte[] internalName(String name) {
+		return name.replace('.', '/').getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @param classFile the content of a class file.
+	 * @return true if the class file may refer to one of the searched types or packages,
+	 * including when it cannot be read as a class file.
+	 */
+	boolean mayReferToSearchedTypes(ByteBuffer classFile) {
+		try {
+			return scan(classFile);
+		} catch (RuntimeException e) {
+			// Let the importer decide what to do with an invalid class file, or with an unknown constant
+			return true;
+		}
+	}
+
+	private boolean scan(ByteBuffer classFile) {
+		if (!ClassFileReader.readHeader(classFile)) {
+			return true;
+		}
+		int constantPoolCount = ClassFileReader.readConstantPoolCount(classFile);
+		// Stopped at the first matching constant
+		return !ClassFileReader.readConstants(classFile, constantPoolCount,
+			(index, tag, position, length) -> tag != ClassFileReader.CONSTANT_UTF8 || !matches(classFile, position, position + length));
+	}
+
+	private boolean matches(ByteBuffer buffer, int start, int end) {
+		for (byte[] typeName : typeNames) {
+			for (int position = indexOf(buffer, typeName, start, end); position >= 0; position = indexOf(buffer, typeName, position + 1, end)) {
+				int nameEnd = position + typeName.length;
+				if (startsName(buffer, start, position) && (nameEnd == end || endsName(buffer.get(nameEnd)))) {
+					return true;
+				}
+			}
+		}
+		for (byte[] packagePrefix : packagePrefixes) {
+			for (int position = indexOf(buffer, packagePrefix, start, end); position >= 0; position = indexOf(buffer, packagePrefix, position + 1, end)) {
+				if (startsName(buffer, start, position) && isSimpleName(buffer, position + packagePrefix.length, end)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * A name starts a class constant, or follows the {@code L} of a descriptor.
+	 */
+	private static boolean startsName(ByteBuffer buffer, int start, int position) {
+		return position == start || buffer.get(position - 1) == 'L';
+	}
+
+	private static boolean endsName(byte character) {
+		return character == ';' || character == '<';
+	}
+
+	/**
+	 * @return true if the name following a package prefix is a class of this package, not of a subpackage.
+	 */
+	private static boolean isSimpleName(ByteBuffer buffer, int position, int end) {
+		for (int i = position; i < end; i++) {
+			byte character = buffer.get(i);
+			if (character == '/') {
+				return false;
+			}
+			if (endsName(character)) {
+				return i > position;
+			}
+		}
+		return end > position;
+	}
+
+	private static int indexOf(ByteBuffer buffer, byte[] searched, int from, int end) {
+		int last = end - searched.length;
+		for (int position = from; position <= last; position++) {
+			if (regionMatches(buffer, position, searched)) {
+				return position;
+			}
+		}
+		return -1;
+	}
+
+	private static boolean regionMatches(ByteBuffer buffer, int position, byte[] searched) {
+		for (int i = 0; i < searched.length; i++) {
+			if (buffer.get(position + i) != searched[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
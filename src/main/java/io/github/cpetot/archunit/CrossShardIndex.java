@@ -0,0 +1,289 @@
+package io.github.cpetot.archunit;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.tngtech.archunit.core.domain.Dependency;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.domain.JavaCodeUnit;
+import com.tngtech.archunit.core.domain.JavaMethodCall;
+
+/**
+ * The edges between the shards of a sharded evaluation, see {@link RuleSuite#evaluateByShards(List, com.tngtech.archunit.core.importer.ImportOption...)}.
+ *
+ * <p>
+ * Each shard is a package tree, imported on its own. While a shard is imported, the edges from its classes to the classes
+ * of the other shards are recorded with int identifiers : the dependent classes, once per pair of classes,
+ * and the method calls with the full name of the calling code unit. The origins of these edges keep, as bit flags,
+ * the annotations read by the conditions. Nothing else of the shard is kept, so it can be released.
+ * </p>
+ */
+final class CrossShardIndex {
+
+	private final List<String> shardPackages;
+	private final List<Class<? extends Annotation>> annotationTypes;
+
+	private final Map<String, Integer> classIds = new HashMap<>();
+	private final List<String> classNames = new ArrayList<>();
+	private int[] classAnnotations = new int[16];
+	private int[] classMetaAnnotations = new int[16];
+
+	private final Map<String, Integer> codeUnitIds = new HashMap<>();
+	private final List<String> codeUnitNames = new ArrayList<>();
+
+	private final IntArray edgeOrigins = new IntArray();
+	private final IntArray edgeTargets = new IntArray();
+
+	private final IntArray callOrigins = new IntArray();
+	private final IntArray callCodeUnits = new IntArray();
+	private final IntArray callCodeUnitAnnotations = new IntArray();
+	private final IntArray callTargets = new IntArray();
+
+	/**
+	 * The edges and the calls by target, in compressed sparse row format, built once every shard is recorded.
+	 */
+	private int[] edgeOffsets;
+	private int[] edgesByTarget;
+	private int[] callOffsets;
+	private int[] callsByTarget;
+
+	/**
+	 * @param shardPackages the package of each shard, none of them being in another one.
+	 * @param annotationTypes the annotations read on the origins of the edges, at most 32.
+	 */
+	CrossShardIndex(List<String> shardPackages, List<Class<? extends Annotation>> annotationTypes) {
+		if (annotationTypes.size() > Integer.SIZE) {
+			throw new IllegalArgumentException("At most " + Integer.SIZE + " annotations can be read across shards, got " + annotationTypes);
+		}
+		this.shardPackages = List.copyOf(shardPackages);
+		this.annotationTypes = List.copyOf(annotationTypes);
+	}
+
+	/**
+	 * @return the index of the shard containing the given class, or -1 if it belongs to no shard.
+	 */
+	int shardOf(String className) {
+		for (int shard = 0; shard < shardPackages.size(); shard++) {
+			String shardPackage = shardPackages.get(shard);
+			if (shardPackage.isEmpty() || className.startsWith(shardPackage + ".")) {
+				return shard;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Records the edges from the classes of the given shard to the classes of the other shards.
+	 */
+	void record(int shard, JavaClasses shardClasses) {
+		MetaAnnotationIndex metaAnnotations = MetaAnnotationIndex.of(shardClasses);
+		for (JavaClass origin : shardClasses) {
+			Set<JavaClass> targets = new LinkedHashSet<>();
+			for (Dependency dependency : origin.getDirectDependenciesFromSelf()) {
+				targets.add(dependency.getTargetClass());
+			}
+			for (JavaClass target : targets) {
+				if (isInOtherShard(target, shard)) {
+					edgeOrigins.add(originIdOf(origin, metaAnnotations));
+					edgeTargets.add(idOf(target.getName()));
+				}
+			}
+			for (JavaMethodCall call : origin.getMethodCallsFromSelf()) {
+				if (isInOtherShard(call.getTargetOwner(), shard)) {
+					JavaCodeUnit codeUnit = call.getOrigin();
+					callOrigins.add(originIdOf(origin, metaAnnotations));
+					callCodeUnits.add(codeUnitIds.computeIfAbsent(codeUnit.getFullName(), name -> {
+						codeUnitNames.add(name);
+						return codeUnitNames.size() - 1;
+					}));
+					callCodeUnitAnnotations.add(annotationFlags(codeUnit::isAnnotatedWith));
+					callTargets.add(idOf(call.getTargetOwner().getName()));
+				}
+			}
+		}
+	}
+
+	private boolean isInOtherShard(JavaClass target, int shard) {
+		int targetShard = shardOf(target.getName());
+		return targetShard != -1 && targetShard != shard;
+	}
+
+	private int idOf(String className) {
+		return classIds.computeIfAbsent(className, name -> {
+			classNames.add(name);
+			if (classNames.size() > classAnnotations.length) {
+				classAnnotations = Arrays.copyOf(classAnnotations, classAnnotations.length * 2);
+				classMetaAnnotations = Arrays.copyOf(classMetaAnnotations, classMetaAnnotations.length * 2);
+			}
+			return classNames.size() - 1;
+		});
+	}
+
+	private int originIdOf(JavaClass origin, MetaAnnotationIndex metaAnnotations) {
+		int id = idOf(origin.getName());
+		classAnnotations[id] = annotationFlags(origin::isAnnotatedWith);
+		classMetaAnnotations[id] = annotationFlags(annotationType -> metaAnnotations.isMetaAnnotatedWith(origin, annotationType));
+		return id;
+	}
+
+	private int annotationFlags(AnnotationTest test) {
+		int flags = 0;
+		for (int i = 0; i < annotationTypes.size(); i++) {
+			if (test.isAnnotatedWith(annotationTypes.get(i))) {
+				flags |= 1 << i;
+			}
+		}
+		return flags;
+	}
+
+	private boolean hasFlag(int flags, Class<? extends Annotation> annotationType) {
+		int bit = annotationTypes.indexOf(annotationType);
+		if (bit < 0) {
+			throw new IllegalArgumentException("The annotation " + annotationType.getName() + " is not read across shards");
+		}
+		return (flags & (1 << bit)) != 0;
+	}
+
+	/**
+	 * @return the edges from the other shards to the given class, once every shard is recorded.
+	 */
+	Edges edgesTo(String className) {
+		if (edgeOffsets == null) {
+			edgeOffsets = new int[classNames.size() + 1];
+			edgesByTarget = groupByTarget(edgeTargets, edgeOffsets);
+			callOffsets = new int[classNames.size() + 1];
+			callsByTarget = groupByTarget(callTargets, callOffsets);
+		}
+		Integer id = classIds.get(className);
+		return new Edges(id == null ? -1 : id);
+	}
+
+	private static int[] groupByTarget(IntArray targets, int[] offsets) {
+		for (int i = 0; i < targets.size(); i++) {
+			offsets[targets.get(i) + 1]++;
+		}
+		for (int i = 0; i < offsets.length - 1; i++) {
+			offsets[i + 1] += offsets[i];
+		}
+		int[] positions = Arrays.copyOf(offsets, offsets.length - 1);
+		int[] grouped = new int[targets.size()];
+		for (int i = 0; i < targets.size(); i++) {
+			grouped[positions[targets.get(i)]++] = i;
+		}
+		return grouped;
+	}
+
+	/**
+	 * The edges from the other shards to a class.
+	 */
+	final class Edges {
+
+		private final int target;
+
+		private Edges(int target) {
+			this.target = target;
+		}
+
+		/**
+		 * @return the classes depending on the class.
+		 */
+		List<Origin> originClasses() {
+			List<Origin> origins = new ArrayList<>();
+			if (target >= 0) {
+				for (int i = edgeOffsets[target]; i < edgeOffsets[target + 1]; i++) {
+					origins.add(new Origin(edgeOrigins.get(edgesByTarget[i]), -1, 0));
+				}
+			}
+			return origins;
+		}
+
+		/**
+		 * @return the code units calling a method of the class.
+		 */
+		List<Origin> methodCalls() {
+			List<Origin> origins = new ArrayList<>();
+			if (target >= 0) {
+				for (int i = callOffsets[target]; i < callOffsets[target + 1]; i++) {
+					int call = callsByTarget[i];
+					origins.add(new Origin(callOrigins.get(call), callCodeUnits.get(call), callCodeUnitAnnotations.get(call)));
+				}
+			}
+			return origins;
+		}
+	}
+
+	/**
+	 * The origin of an edge from another shard : a class, or a code unit calling a method.
+	 */
+	final class Origin {
+
+		private final int classId;
+		private final int codeUnitId;
+		private final int codeUnitAnnotations;
+
+		private Origin(int classId, int codeUnitId, int codeUnitAnnotations) {
+			this.classId = classId;
+			this.codeUnitId = codeUnitId;
+			this.codeUnitAnnotations = codeUnitAnnotations;
+		}
+
+		String getClassName() {
+			return classNames.get(classId);
+		}
+
+		/**
+		 * @return the full name of the calling code unit.
+		 */
+		String getCodeUnitName() {
+			return codeUnitNames.get(codeUnitId);
+		}
+
+		boolean isClassAnnotatedWith(Class<? extends Annotation> annotationType) {
+			return hasFlag(classAnnotations[classId], annotationType);
+		}
+
+		boolean isClassMetaAnnotatedWith(Class<? extends Annotation> annotationType) {
+			return hasFlag(classMetaAnnotations[classId], annotationType);
+		}
+
+		boolean isCodeUnitAnnotatedWith(Class<? extends Annotation> annotationType) {
+			return hasFlag(codeUnitAnnotations, annotationType);
+		}
+	}
+
+	@FunctionalInterface
+	private interface AnnotationTest {
+		boolean isAnnotatedWith(Class<? extends Annotation> annotationType);
+	}
+
+	/**
+	 * A growable array of ints, without boxing.
+	 */
+	private static final class IntArray {
+
+		private int[] values = new int[16];
+		private int size;
+
+		void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		int get(int index) {
+			return values[index];
+		}
+
+		int size() {
+			return size;
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package io.github.cpetot.archunit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import com.tngtech.archunit.core.domain.JavaCall;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaCodeUnit;
+import com.tngtech.archunit.core.domain.JavaMethod;
+import com.tngtech.archunit.core.domain.JavaModifier;
+import com.tngtech.archunit.core.domain.JavaPackage;
+
+/**
+ * The code units of an import which can reach the database, by calling a database accessor directly or through other code units of the import.
+ *
+ * <p>
+ * The call graph links each code unit to the code units it calls, and each method to the methods overriding it,
+ * like {@link TransactionalReachability}. The calls leaving the import are not followed, except the calls to a database accessor.
+ * A single breadth first search, from the code units calling a database accessor and following the calls backwards,
+ * gives each code unit the next code unit of one of its shortest paths to the database. It is computed once per {@link ImportScope} of the import.
+ * </p>
+ */
+final class DatabaseAccessReachability {
+
+	private static final int NONE = -1;
+
+	private final Map<JavaCodeUnit, Integer> ids = new IdentityHashMap<>();
+	private final JavaCodeUnit[] codeUnits;
+	/**
+	 * For each code unit, its first call to a database accessor, if any.
+	 */
+	private final JavaCall<?>[] databaseCalls;
+	/**
+	 * For each code unit, the next code unit of its path to the database, or {@link #NONE}.
+	 */
+	private final int[] nextSteps;
+
+	private DatabaseAccessReachability(JavaPackage defaultPackage, Predicate<JavaClass> isDatabaseAccessor) {
+		codeUnits = defaultPackage.getClassesInPackageTree().stream()
+			.flatMap(javaClass -> javaClass.getCodeUnits().stream())
+			.toArray(JavaCodeUnit[]::new);
+		for (int i = 0; i < codeUnits.length; i++) {
+			ids.put(codeUnits[i], i);
+		}
+		databaseCalls = new JavaCall<?>[codeUnits.length];
+		List<List<Integer>> callers = new ArrayList<>(codeUnits.length);
+		for (int i = 0; i < codeUnits.length; i++) {
+			callers.add(new ArrayList<>());
+		}
+		for (int caller = 0; caller < codeUnits.length; caller++) {
+			for (JavaCall<?> call : codeUnits[caller].getCallsFromSelf()) {
+				if (databaseCalls[caller] == null && isDatabaseAccessor.test(call.getTargetOwner())) {
+					databaseCalls[caller] = call;
+				}
+				Integer callee = call.getTarget().resolveMember().map(ids::get).orElse(null);
+				if (callee != null) {
+					callers.get(callee).add(caller);
+				}
+			}
+			if (codeUnits[caller] instanceof JavaMethod method && isOverridable(method)) {
+				addOverrides(callers, caller, method);
+			}
+		}
+		nextSteps = findNextSteps(callers);
+	}
+
+	/**
+	 * @param isDatabaseAccessor tells if the calls to a class access the database.
+	 * @return a cache of the reachability of the database from the code units of each import.
+	 */
+	static ImportScopedCache<DatabaseAccessReachability> cache(Predicate<JavaClass> isDatabaseAccessor) {
+		return new ImportScopedCache<>("database access reachability",
+			defaultPackage -> new DatabaseAccessReachability(defaultPackage, isDatabaseAccessor));
+	}
+
+	/**
+	 * @param codeUnit a code unit of the import.
+	 * @return the code units leading to the database from the given one, this one first,
+	 * and the last one calling a database accessor, or nothing if the code unit cannot reach the database.
+	 */
+	Optional<List<JavaCodeUnit>> findPathToDatabase(JavaCodeUnit codeUnit) {
+		Integer id = ids.get(codeUnit);
+		if (id == null || (databaseCalls[id] == null && nextSteps[id] == NONE)) {
+			return Optional.empty();
+		}
+		List<JavaCodeUnit> path = new ArrayList<>();
+		int step = id;
+		while (databaseCalls[step] == null) {
+			path.add(codeUnits[step]);
+			step = nextSteps[step];
+		}
+		path.add(codeUnits[step]);
+		return Optional.of(path);
+	}
+
+	/**
+	 * @param codeUnit the last code unit of a path to the database.
+	 * @return its call to a database accessor.
+	 */
+	JavaCall<?> databaseCallOf(JavaCodeUnit codeUnit) {
+		return databaseCalls[ids.get(codeUnit)];
+	}
+
+	private static boolean isOverridable(JavaMethod method) {
+		return !method.getModifiers().contains(JavaModifier.STATIC) && !method.getModifiers().contains(JavaModifier.PRIVATE);
+	}
+
+	private void addOverrides(List<List<Integer>> callers, int method, JavaMethod overridden) {
+		String[] parameterTypes = overridden.getRawParameterTypes().stream()
+			.map(JavaClass::getName)
+			.toArray(String[]::new);
+		for (JavaClass subclass : overridden.getOwner().getAllSubclasses()) {
+			subclass.tryGetMethod(overridden.getName(), parameterTypes)
+				.map(ids::get)
+				.ifPresent(override -> callers.get(override).add(method));
+		}
+	}
+
+	/**
+	 * Breadth first search from the code units calling a database accessor, following the calls backwards.
+	 *
+	 * @return for each code unit, the code unit it calls on one of its shortest paths to the database, or {@link #NONE}.
+	 */
+	private int[] findNextSteps(List<List<Integer>> callers) {
+		int[] steps = new int[codeUnits.length];
+		Arrays.fill(steps, NONE);
+		boolean[] reached = new boolean[codeUnits.length];
+		int[] queue = new int[codeUnits.length];
+		int head = 0;
+		int tail = 0;
+		for (int i = 0; i < codeUnits.length; i++) {
+			if (databaseCalls[i] != null) {
+				reached[i] = true;
+				queue[tail++] = i;
+			}
+		}
+		while (head < tail) {
+			int callee = queue[head++];
+			for (int caller : callers.get(callee)) {
+				if (!reached[caller]) {
+					reached[caller] = true;
+					steps[caller] = callee;
+					queue[tail++] = caller;
+				}
+			}
+		}
+		return steps;
+	}
+}
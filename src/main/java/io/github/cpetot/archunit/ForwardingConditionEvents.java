@@ -0,0 +1,44 @@
+package io.github.cpetot.archunit;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import com.tngtech.archunit.lang.ConditionEvent;
+import com.tngtech.archunit.lang.ConditionEvents;
+
+/**
+ * Events forwarding everything to other events, the subclasses intercepting the added events.
+ */
+abstract class ForwardingConditionEvents implements ConditionEvents {
+
+	private final ConditionEvents events;
+
+	ForwardingConditionEvents(ConditionEvents events) {
+		this.events = events;
+	}
+
+	@Override
+	public void add(ConditionEvent event) {
+		events.add(event);
+	}
+
+	@Override
+	public Optional<String> getInformationAboutNumberOfViolations() {
+		return events.getInformationAboutNumberOfViolations();
+	}
+
+	@Override
+	public void setInformationAboutNumberOfViolations(String informationAboutNumberOfViolations) {
+		events.setInformationAboutNumberOfViolations(informationAboutNumberOfViolations);
+	}
+
+	@Override
+	public Collection<ConditionEvent> getViolating() {
+		return events.getViolating();
+	}
+
+	@Override
+	public boolean containViolation() {
+		return events.containViolation();
+	}
+}
@@ -0,0 +1,173 @@
+package io.github.cpetot.archunit;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.tngtech.archunit.base.DescribedPredicate;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.EvaluationResult;
+import com.tngtech.archunit.lang.Priority;
+
+/**
+ * The rules which can be evaluated together, in a single pass over the classes they select.
+ *
+ * <p>
+ * A rule declared with {@link #fusable(DescribedPredicate, IncomingEdgesCondition)} is an ordinary rule,
+ * but a {@link RuleSuite} groups such rules by selection : the classes are selected once for the group,
+ * and the edges of each selected class are fetched once, then given to the condition of each rule.
+ * The results are still reported per rule, with the same events as if each rule was evaluated on its own,
+ * and so are the {@link JfrEvents.ConditionEvaluation} and {@link JfrEvents.ConditionCheck} events of their conditions.
+ * </p>
+ *
+ * <p>
+ * The rules derived from a fusable rule, with {@link ArchRule#because(String)} for instance, are not fusable anymore.
+ * </p>
+ */
+final class FusedRules {
+
+	private static final Map<ArchRule, Fusable> FUSABLE_RULES = Collections.synchronizedMap(new IdentityHashMap<>());
+
+	private FusedRules() {
+	}
+
+	/**
+	 * @param selection the classes to check, shared by the rules which can be fused with this one.
+	 * @param condition the condition the selected classes should satisfy.
+	 * @return the rule {@code classes().that(selection).should(condition)}, {@link RecordedRule recorded}.
+	 */
+	static ArchRule fusable(DescribedPredicate<? super JavaClass> selection, IncomingEdgesCondition condition) {
+		ArchRule rule = RecordedRule.recorded(classes().that(selection).should(MeteredCondition.metered(condition)));
+		FUSABLE_RULES.put(rule, new Fusable(selection, condition));
+		return rule;
+	}
+
+	/**
+	 * @return the indexes of the given rules, grouped by the rules to evaluate together, in the order of their first rule.
+	 */
+	static List<List<Integer>> group(List<ArchRule> rules) {
+		Map<Object, List<Integer>> groups = new LinkedHashMap<>();
+		for (int i = 0; i < rules.size(); i++) {
+			Fusable fusable = FUSABLE_RULES.get(rules.get(i));
+			Object key = fusable != null ? new SelectionKey(fusable.selection()) : new Object();
+			groups.computeIfAbsent(key, selection -> new ArrayList<>()).add(i);
+		}
+		return new ArrayList<>(groups.values());
+	}
+
+	/**
+	 * @return the condition of the given rule, or {@code null} if it is not fusable.
+	 */
+	static IncomingEdgesCondition conditionOf(ArchRule rule) {
+		Fusable fusable = FUSABLE_RULES.get(rule);
+		return fusable == null ? null : fusable.condition();
+	}
+
+	/**
+	 * @return the selection of the given rule, or {@code null} if it is not fusable.
+	 */
+	static DescribedPredicate<? super JavaClass> selectionOf(ArchRule rule) {
+		Fusable fusable = FUSABLE_RULES.get(rule);
+		return fusable == null ? null : fusable.selection();
+	}
+
+	/**
+	 * @param rules rules grouped by {@link #group(List)}.
+	 * @param budget the spending of the violation budget of the suite, or {@code null} if it is unlimited.
+	 * @return the results of the rules, in the same order.
+	 */
+	static List<EvaluationResult> evaluate(List<ArchRule> rules, JavaClasses classes, ViolationBudget.Spending budget) {
+		if (rules.size() == 1 || budget != null && budget.isExhausted()) {
+			return rules.stream().map(rule -> evaluate(rule, classes, budget)).toList();
+		}
+		DescribedPredicate<? super JavaClass> selection = FUSABLE_RULES.get(rules.get(0)).selection();
+		List<JavaClass> selectedClasses = new ArrayList<>();
+		for (JavaClass javaClass : classes) {
+			if (selection.test(javaClass)) {
+				selectedClasses.add(javaClass);
+			}
+		}
+		if (selectedClasses.isEmpty()) {
+			// Let each rule decide if it may be empty
+			return rules.stream().map(rule -> evaluate(rule, classes, budget)).toList();
+		}
+
+		List<IncomingEdgesCondition> conditions = rules.stream().map(rule -> FUSABLE_RULES.get(rule).condition()).toList();
+		List<ConditionEvents> events = new ArrayList<>();
+		List<ViolationBudget.RuleSpending> ruleBudgets = new ArrayList<>();
+		List<ConditionEvents> countedEvents = new ArrayList<>();
+		List<JfrEvents.ConditionEvaluation> evaluationEvents = new ArrayList<>();
+		try {
+			for (IncomingEdgesCondition condition : conditions) {
+				evaluationEvents.add(MeteredCondition.beginEvaluation(selectedClasses.size()));
+				condition.init(selectedClasses);
+				ConditionEvents ruleEvents = ConditionEvents.Factory.create();
+				ViolationBudget.RuleSpending ruleBudget = budget == null ? null : budget.forRule();
+				events.add(ruleEvents);
+				ruleBudgets.add(ruleBudget);
+				countedEvents.add(ruleBudget == null ? ruleEvents : ruleBudget.counting(ruleEvents));
+			}
+			for (JavaClass javaClass : selectedClasses) {
+				IncomingEdges edges = new IncomingEdges(javaClass);
+				for (int i = 0; i < conditions.size(); i++) {
+					ViolationBudget.RuleSpending ruleBudget = ruleBudgets.get(i);
+					if (ruleBudget != null && ruleBudget.isExhausted()) {
+						ruleBudget.skip(events.get(i));
+					} else {
+						JfrEvents.ConditionCheck checkEvent = MeteredCondition.beginCheck();
+						try {
+							conditions.get(i).check(javaClass, edges, countedEvents.get(i));
+						} finally {
+							MeteredCondition.endCheck(checkEvent, conditions.get(i).getDescription(), javaClass);
+						}
+					}
+				}
+			}
+		} catch (RuntimeException | Error e) {
+			// The evaluation of the rules fails, and finish will not be called
+			conditions.forEach(IncomingEdgesCondition::abort);
+			throw e;
+		}
+		List<EvaluationResult> results = new ArrayList<>();
+		for (int i = 0; i < rules.size(); i++) {
+			try {
+				conditions.get(i).finish(countedEvents.get(i));
+			} finally {
+				MeteredCondition.endEvaluation(evaluationEvents.get(i), conditions.get(i).getDescription(), events.get(i));
+			}
+			results.add(new EvaluationResult(rules.get(i), events.get(i), Priority.MEDIUM));
+		}
+		return results;
+	}
+
+	private static EvaluationResult evaluate(ArchRule rule, JavaClasses classes, ViolationBudget.Spending budget) {
+		return budget == null ? rule.evaluate(classes) : budget.evaluate(rule, () -> rule.evaluate(classes));
+	}
+
+	private record Fusable(DescribedPredicate<? super JavaClass> selection, IncomingEdgesCondition condition) {
+	}
+
+	/**
+	 * Identifies a selection by the identity of its predicate, the predicates not being comparable.
+	 */
+	private record SelectionKey(DescribedPredicate<?> selection) {
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof SelectionKey key && key.selection == selection;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(selection);
+		}
+	}
+}
@@ -0,0 +1,374 @@
+package io.github.cpetot.archunit;
+
+import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+import com.tngtech.archunit.PublicAPI;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.EvaluationResult;
+import com.tngtech.archunit.library.freeze.FreezingArchRule;
+import com.tngtech.archunit.library.freeze.ViolationLineMatcher;
+import com.tngtech.archunit.library.freeze.ViolationStore;
+
+/**
+ * A {@link ViolationStore} keeping a 64 bits hash of each violation, instead of its text, in a binary file per rule.
+ *
+ * <p>
+ * The violations are normalized before being hashed, the line numbers and the numbers of the lambdas being ignored
+ * like with the default {@link ViolationLineMatcher}. The hashes are sorted, and the file is memory-mapped,
+ * so that a violation is looked up by a binary search. The new violations are appended to the file,
+ * which is only rewritten, sorted again, when violations are removed or too many were appended.
+ * </p>
+ *
+ * <p>
+ * {@link FreezingArchRule} compares each violation to each stored one. For a large baseline, the rules should rather be
+ * frozen with {@link #freeze(ArchRule)}, checking each violation with a single lookup. The store can still be used by
+ * {@link FreezingArchRule}, with the {@link #hashMatcher() matcher of the hashes} :
+ * </p>
+ *
+ * <div>
+ * <pre>{@code
+ * // With a lookup per violation
+ * &#64;ArchTest
+ * private ArchRule no_date = new HashedViolationStore(Path.of("archunit_store")).freeze(NO_CLASSES_SHOULD_USE_JAVA_UTIL_DATE);
+ *
+ * // With FreezingArchRule
+ * &#64;ArchTest
+ * private ArchRule no_date = FreezingArchRule.freeze(NO_CLASSES_SHOULD_USE_JAVA_UTIL_DATE)
+ * 	.persistIn(new HashedViolationStore(Path.of("archunit_store")))
+ * 	.associateViolationLinesVia(HashedViolationStore.hashMatcher());
+ * }</pre>
+ * </div>
+ *
+ * <p>
+ * It can also be configured in {@code archunit.properties}, with {@code freeze.store=io.github.cpetot.archunit.HashedViolationStore}
+ * and the directory of the files in {@code freeze.store.path}, {@code archunit_store} by default.
+ * </p>
+ */
+public final class HashedViolationStore implements ViolationStore {
+
+	static final String PATH_PROPERTY = "path";
+	private static final String DEFAULT_PATH = "archunit_store";
+
+	private static final int MAGIC_NUMBER = 0x41555256; // AURV
+	private static final int FORMAT_VERSION = 1;
+	private static final int HEADER_BYTES = 3 * Integer.BYTES;
+
+	/**
+	 * The number of appended hashes above which the file is sorted again, when they are also more than a quarter of the sorted ones.
+	 */
+	private static final int MAX_APPENDED_HASHES = 1024;
+
+	private static final Pattern LINE_NUMBER = Pattern.compile("\\.java:\\d+\\)");
+	private static final Pattern LAMBDA_NUMBER = Pattern.compile("(lambda\\$[\\w$]+?\\$)\\d+");
+
+	private Path directory;
+
+	/**
+	 * Creates a store configured by {@link #initialize(Properties)}, as done by ArchUnit for the store of {@code archunit.properties}.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public HashedViolationStore() {
+		this(Path.of(DEFAULT_PATH));
+	}
+
+	/**
+	 * @param directory the directory of the files of the rules, created if it does not exist.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public HashedViolationStore(Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Uses the directory of the {@code path} property, if any, instead of the directory given at creation.
+	 */
+	@Override
+	public void initialize(Properties properties) {
+		directory = Path.of(properties.getProperty(PATH_PROPERTY, directory.toString()));
+	}
+
+	@Override
+	public boolean contains(ArchRule rule) {
+		return Files.isRegularFile(fileOf(rule));
+	}
+
+	/**
+	 * Stores the violations of the rule, by appending the new ones if no stored violation was removed.
+	 */
+	@Override
+	public void save(ArchRule rule, List<String> violations) {
+		long[] hashes = violations.stream().mapToLong(HashedViolationStore::hashOf).sorted().distinct().toArray();
+		Path file = fileOf(rule);
+		if (!contains(rule)) {
+			write(file, hashes);
+			return;
+		}
+		Hashes stored = read(file);
+		long[] appended = Arrays.stream(hashes).filter(hash -> !stored.contains(hash)).toArray();
+		if (stored.size() + appended.length == hashes.length && !stored.needsCompaction(appended.length)) {
+			append(file, appended);
+		} else {
+			write(file, hashes);
+		}
+	}
+
+	/**
+	 * @return the hexadecimal hashes of the stored violations, their text not being stored.
+	 */
+	@Override
+	public List<String> getViolations(ArchRule rule) {
+		if (!contains(rule)) {
+			return List.of();
+		}
+		List<String> violations = new ArrayList<>();
+		for (long hash : read(fileOf(rule)).toArray()) {
+			violations.add(HexFormat.of().toHexDigits(hash));
+		}
+		return violations;
+	}
+
+	/**
+	 * @return a matcher of the violations with the stored hashes, for {@link FreezingArchRule#associateViolationLinesVia(ViolationLineMatcher)}.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static ViolationLineMatcher hashMatcher() {
+		return new HashMatcher();
+	}
+
+	/**
+	 * Freezes the violations of a rule, like {@link FreezingArchRule}, but looking each violation up in the sorted hashes.
+	 *
+	 * <p>
+	 * The first evaluation stores the violations and succeeds. The next ones only report the violations which are not stored,
+	 * and remove the solved violations from the store.
+	 * </p>
+	 *
+	 * @param rule the rule to freeze.
+	 * @return the frozen rule.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public ArchRule freeze(ArchRule rule) {
+		return new FrozenRule(rule, this);
+	}
+
+	EvaluationResult evaluateFrozen(ArchRule rule, JavaClasses classes) {
+		EvaluationResult result = rule.evaluate(classes);
+		List<String> violations = result.getFailureReport().getDetails();
+		if (!contains(rule)) {
+			save(rule, violations);
+			return result.filterDescriptionsMatching(violation -> false);
+		}
+		Hashes stored = read(fileOf(rule));
+		long[] actualHashes = violations.stream().mapToLong(HashedViolationStore::hashOf).sorted().distinct().toArray();
+		long solvedViolations = Arrays.stream(stored.toArray()).filter(hash -> Arrays.binarySearch(actualHashes, hash) < 0).count();
+		if (solvedViolations > 0) {
+			write(fileOf(rule), Arrays.stream(stored.toArray()).filter(hash -> Arrays.binarySearch(actualHashes, hash) >= 0).toArray());
+		}
+		return result.filterDescriptionsMatching(violation -> !stored.contains(hashOf(violation)));
+	}
+
+	private Path fileOf(ArchRule rule) {
+		return directory.resolve(HexFormat.of().toHexDigits(hashOf(rule.getDescription())) + ".hashes");
+	}
+
+	/**
+	 * @return the first 64 bits of the SHA-256 of the normalized violation.
+	 */
+	static long hashOf(String violation) {
+		String normalized = LAMBDA_NUMBER.matcher(LINE_NUMBER.matcher(violation.replace("\r\n", "\n")).replaceAll(".java:0)"))
+			.replaceAll("$10");
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is a standard algorithm of the JDK", e);
+		}
+		return ByteBuffer.wrap(digest.digest(normalized.getBytes(StandardCharsets.UTF_8))).getLong();
+	}
+
+	private static Hashes read(Path file) {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC_NUMBER || buffer.getInt() != FORMAT_VERSION) {
+				throw new IOException("Not a violation hash file : " + file);
+			}
+			int sortedCount = buffer.getInt();
+			LongBuffer sorted = buffer.slice(HEADER_BYTES, sortedCount * Long.BYTES).asLongBuffer();
+			LongBuffer appendedBuffer = buffer.slice(HEADER_BYTES + sortedCount * Long.BYTES,
+				(buffer.limit() - HEADER_BYTES - sortedCount * Long.BYTES) / Long.BYTES * Long.BYTES).asLongBuffer();
+			long[] appended = new long[appendedBuffer.remaining()];
+			appendedBuffer.get(appended);
+			Arrays.sort(appended);
+			return new Hashes(sorted, appended);
+		} catch (IOException e) {
+			throw new UncheckedIOException("The violations cannot be read from " + file, e);
+		}
+	}
+
+	private static void write(Path file, long[] sortedHashes) {
+		try {
+			Files.createDirectories(file.toAbsolutePath().getParent());
+			Path temporaryFile = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+			try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+				output.writeInt(MAGIC_NUMBER);
+				output.writeInt(FORMAT_VERSION);
+				output.writeInt(sortedHashes.length);
+				for (long hash : sortedHashes) {
+					output.writeLong(hash);
+				}
+			}
+			Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new UncheckedIOException("The violations cannot be written to " + file, e);
+		}
+	}
+
+	private static void append(Path file, long[] hashes) {
+		if (hashes.length == 0) {
+			return;
+		}
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.APPEND)))) {
+			for (long hash : hashes) {
+				output.writeLong(hash);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("The violations cannot be appended to " + file, e);
+		}
+	}
+
+	/**
+	 * The stored hashes of a rule : the sorted ones, memory-mapped, and the appended ones, sorted in memory.
+	 */
+	private record Hashes(LongBuffer sorted, long[] appended) {
+
+		boolean contains(long hash) {
+			return binarySearch(sorted, hash) || Arrays.binarySearch(appended, hash) >= 0;
+		}
+
+		private static boolean binarySearch(LongBuffer sorted, long hash) {
+			int low = 0;
+			int high = sorted.limit() - 1;
+			while (low <= high) {
+				int middle = (low + high) >>> 1;
+				long middleHash = sorted.get(middle);
+				if (middleHash < hash) {
+					low = middle + 1;
+				} else if (middleHash > hash) {
+					high = middle - 1;
+				} else {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		int size() {
+			return sorted.limit() + appended.length;
+		}
+
+		boolean needsCompaction(int newlyAppended) {
+			int appendedCount = appended.length + newlyAppended;
+			return appendedCount > MAX_APPENDED_HASHES && appendedCount > sorted.limit() / 4;
+		}
+
+		long[] toArray() {
+			long[] hashes = new long[size()];
+			sorted.get(0, hashes, 0, sorted.limit());
+			System.arraycopy(appended, 0, hashes, sorted.limit(), appended.length);
+			Arrays.sort(hashes);
+			return hashes;
+		}
+	}
+
+	/**
+	 * A matcher hashing each violation once, {@link FreezingArchRule} comparing a violation to all the stored hashes in turn.
+	 */
+	private static final class HashMatcher implements ViolationLineMatcher {
+
+		private volatile HashedViolation last;
+
+		@Override
+		public boolean matches(String violation, String storedHash) {
+			HashedViolation hashed = last;
+			if (hashed == null || !hashed.violation().equals(violation)) {
+				hashed = new HashedViolation(violation, HexFormat.of().toHexDigits(hashOf(violation)));
+				last = hashed;
+			}
+			return hashed.hash().equals(storedHash);
+		}
+	}
+
+	private record HashedViolation(String violation, String hash) {
+	}
+
+	/**
+	 * A rule frozen by {@link #freeze(ArchRule)}.
+	 */
+	private static final class FrozenRule implements ArchRule {
+
+		private final ArchRule delegate;
+		private final HashedViolationStore store;
+
+		private FrozenRule(ArchRule delegate, HashedViolationStore store) {
+			this.delegate = delegate;
+			this.store = store;
+		}
+
+		@Override
+		public void check(JavaClasses classes) {
+			Assertions.assertNoViolation(evaluate(classes));
+		}
+
+		@Override
+		public EvaluationResult evaluate(JavaClasses classes) {
+			return store.evaluateFrozen(delegate, classes);
+		}
+
+		@Override
+		public ArchRule because(String reason) {
+			return new FrozenRule(delegate.because(reason), store);
+		}
+
+		@Override
+		public ArchRule allowEmptyShould(boolean allowEmptyShould) {
+			return new FrozenRule(delegate.allowEmptyShould(allowEmptyShould), store);
+		}
+
+		@Override
+		public ArchRule as(String newDescription) {
+			return new FrozenRule(delegate.as(newDescription), store);
+		}
+
+		@Override
+		public String getDescription() {
+			return delegate.getDescription();
+		}
+
+		@Override
+		public String toString() {
+			return getDescription();
+		}
+	}
+}
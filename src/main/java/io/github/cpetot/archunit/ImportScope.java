@@ -0,0 +1,125 @@
+package io.github.cpetot.archunit;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.domain.JavaPackage;
+
+/**
+ * The lifetime of the values computed for an import of classes by the {@link ImportScopedCache ImportScopedCaches},
+ * like its {@link MetaAnnotationIndex} : they are shared while the scope is open, and released when it is closed.
+ *
+ * <p>
+ * A scope is opened by a {@link RuleSuite} for its evaluation, by a {@link ShardedEvaluation} for each shard,
+ * and by each condition reading such values between its {@code init} and its {@code finish}, so that a rule evaluated
+ * on its own also computes them once. The scopes of the same import are nested : the values are shared by all of them,
+ * and released when the outermost one is closed.
+ * Nothing of an import is kept once its scopes are closed.
+ * </p>
+ */
+final class ImportScope implements AutoCloseable {
+
+	/**
+	 * The open scopes, by the default package of their import, a {@link JavaPackage} being only equal to itself.
+	 * They are read without lock, for each requested value, and only changed while holding the lock of the map.
+	 */
+	private static final Map<JavaPackage, ImportScope> OPEN_SCOPES = new ConcurrentHashMap<>();
+
+	private final JavaPackage defaultPackage;
+	private final Map<ImportScopedCache<?>, Object> values = new ConcurrentHashMap<>();
+	/**
+	 * The number of times the scope is opened and not closed yet, guarded by {@link #OPEN_SCOPES}.
+	 */
+	private int openCount;
+
+	private ImportScope(JavaPackage defaultPackage) {
+		this.defaultPackage = defaultPackage;
+	}
+
+	/**
+	 * Opens the scope of the import, to be closed once the import is evaluated.
+	 */
+	static ImportScope open(JavaClasses classes) {
+		return open(classes.getDefaultPackage());
+	}
+
+	static ImportScope open(JavaPackage defaultPackage) {
+		synchronized (OPEN_SCOPES) {
+			ImportScope scope = OPEN_SCOPES.computeIfAbsent(defaultPackage, ImportScope::new);
+			scope.openCount++;
+			return scope;
+		}
+	}
+
+	/**
+	 * @return the open scope of the import, or {@code null} if the import has no open scope.
+	 */
+	static ImportScope current(JavaPackage defaultPackage) {
+		return OPEN_SCOPES.get(defaultPackage);
+	}
+
+	@SuppressWarnings("unchecked")
+	<V> V computeIfAbsent(ImportScopedCache<V> cache, Function<JavaPackage, V> valueFactory) {
+		V value = (V) values.get(cache);
+		if (value != null) {
+			return value;
+		}
+		// Not computeIfAbsent, since a value may be computed from the value of another cache
+		synchronized (values) {
+			value = (V) values.get(cache);
+			if (value == null) {
+				value = valueFactory.apply(defaultPackage);
+				values.put(cache, value);
+			}
+			return value;
+		}
+	}
+
+	@Override
+	public void close() {
+		synchronized (OPEN_SCOPES) {
+			openCount--;
+			if (openCount > 0) {
+				return;
+			}
+			OPEN_SCOPES.remove(defaultPackage);
+		}
+		values.clear();
+	}
+
+	/**
+	 * The scopes opened by a condition between its {@code init} and its {@code finish}, by thread,
+	 * the same condition being possibly evaluated by several threads.
+	 *
+	 * <p>
+	 * The {@code finish} of a condition is not called if the evaluation fails : the scope must then be closed by the condition,
+	 * or is closed at its next {@code init} on the same thread.
+	 * </p>
+	 */
+	static final class OfCondition {
+
+		private final ThreadLocal<ImportScope> scopes = new ThreadLocal<>();
+
+		/**
+		 * Opens the scope of the import of the checked objects, if there are any.
+		 */
+		<T> void open(Collection<T> allObjectsToTest, Function<? super T, JavaClass> classOf) {
+			close();
+			allObjectsToTest.stream().findFirst()
+				.map(object -> ImportScope.open(ImportScopedCache.defaultPackageOf(classOf.apply(object))))
+				.ifPresent(scopes::set);
+		}
+
+		void close() {
+			ImportScope scope = scopes.get();
+			if (scope != null) {
+				scopes.remove();
+				scope.close();
+			}
+		}
+	}
+}
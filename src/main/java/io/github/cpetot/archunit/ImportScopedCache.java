@@ -0,0 +1,81 @@
+package io.github.cpetot.archunit;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.domain.JavaPackage;
+
+/**
+ * A cache holding one value per import of classes, computed the first time it is requested while the import has an open {@link ImportScope}.
+ *
+ * <p>
+ * An import is identified by its default package : every class of the import, and every class resolved
+ * while importing it, belongs to the same package tree, so the value can be found from any {@link JavaClass}
+ * given to a condition, without any access to the {@link JavaClasses}.
+ * </p>
+ *
+ * <p>
+ * The values usually reference the classes of the import : they are held by the scope of the import, and released with it.
+ * Outside any scope, a value is computed again at each request.
+ * </p>
+ *
+ * @param <V> the type of the cached values.
+ */
+final class ImportScopedCache<V> {
+
+	private final String name;
+	private final Function<JavaPackage, V> valueFactory;
+
+	/**
+	 * @param name the name of the values, for the {@link JfrEvents.ImportPhase} events recorded while computing them.
+	 * @param valueFactory computes the value of an import, from its default package.
+	 */
+	ImportScopedCache(String name, Function<JavaPackage, V> valueFactory) {
+		this.name = name;
+		this.valueFactory = valueFactory;
+	}
+
+	V get(JavaClasses classes) {
+		return get(classes.getDefaultPackage());
+	}
+
+	V get(JavaClass anyClassOfTheImport) {
+		return get(defaultPackageOf(anyClassOfTheImport));
+	}
+
+	V get(JavaPackage defaultPackage) {
+		ImportScope scope = ImportScope.current(defaultPackage);
+		return scope == null ? compute(defaultPackage) : scope.computeIfAbsent(this, this::compute);
+	}
+
+	/**
+	 * @return the value of the import, or nothing if the import has no open scope.
+	 */
+	Optional<V> find(JavaClass anyClassOfTheImport) {
+		ImportScope scope = ImportScope.current(defaultPackageOf(anyClassOfTheImport));
+		return scope == null ? Optional.empty() : Optional.of(scope.computeIfAbsent(this, this::compute));
+	}
+
+	private V compute(JavaPackage defaultPackage) {
+		JfrEvents.ImportPhase event = new JfrEvents.ImportPhase();
+		event.begin();
+		V value = valueFactory.apply(defaultPackage);
+		event.end();
+		if (event.shouldCommit()) {
+			event.phase = name;
+			event.classes = defaultPackage.getClassesInPackageTree().size();
+			event.commit();
+		}
+		return value;
+	}
+
+	static JavaPackage defaultPackageOf(JavaClass javaClass) {
+		JavaPackage javaPackage = javaClass.getPackage();
+		while (javaPackage.getParent().isPresent()) {
+			javaPackage = javaPackage.getParent().get();
+		}
+		return javaPackage;
+	}
+}
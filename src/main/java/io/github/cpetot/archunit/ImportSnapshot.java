@@ -0,0 +1,232 @@
+package io.github.cpetot.archunit;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaPackage;
+
+/**
+ * A binary snapshot of the {@link MetaAnnotationIndex} the conditions of this library build for an import.
+ *
+ * <p>
+ * It is enabled by the system property {@value #DIRECTORY_PROPERTY}, giving the directory of the snapshots,
+ * like {@code target/archunit-rules-snapshots}. The snapshot of an import is written the first time the import is checked,
+ * in a file named by the fingerprint of the imported class files, and is then memory-mapped by the next test classes,
+ * test JVMs and modules checking the same class files : their conditions read the annotations
+ * from the page cache, instead of walking the annotations of every class again.
+ * </p>
+ *
+ * <p>
+ * The classes are still imported by ArchUnit, the rules being evaluated on its {@link JavaClass JavaClasses} :
+ * the classes and members of the snapshot are identified by their names in the import.
+ * The fingerprint is computed from the names, the locations, the sizes and the modification times of the class files,
+ * so a changed class file gives a new snapshot. The old snapshots are never deleted, the directory being meant to be cleaned with the build.
+ * </p>
+ */
+final class ImportSnapshot {
+
+	static final String DIRECTORY_PROPERTY = "archunit-rules.snapshot.directory";
+
+	private static final int MAGIC_NUMBER = 0x41555253; // AURS
+	private static final int FORMAT_VERSION = 2;
+
+	private static final ImportScopedCache<ImportSnapshot> SNAPSHOTS = new ImportScopedCache<>("import snapshot",
+		defaultPackage -> loadOrWrite(Path.of(System.getProperty(DIRECTORY_PROPERTY)), defaultPackage));
+
+	private final JavaPackage defaultPackage;
+	private final boolean loaded;
+	private ByteBuffer metaAnnotationIndexSection;
+	private MetaAnnotationIndex metaAnnotationIndex;
+
+	private ImportSnapshot(JavaPackage defaultPackage, ByteBuffer metaAnnotationIndexSection) {
+		this.defaultPackage = defaultPackage;
+		this.loaded = true;
+		this.metaAnnotationIndexSection = metaAnnotationIndexSection;
+	}
+
+	private ImportSnapshot(JavaPackage defaultPackage, MetaAnnotationIndex metaAnnotationIndex) {
+		this.defaultPackage = defaultPackage;
+		this.loaded = false;
+		this.metaAnnotationIndex = metaAnnotationIndex;
+	}
+
+	/**
+	 * @return true if the snapshots are enabled by the system property {@value #DIRECTORY_PROPERTY}.
+	 */
+	static boolean isEnabled() {
+		String directory = System.getProperty(DIRECTORY_PROPERTY);
+		return directory != null && !directory.isBlank();
+	}
+
+	/**
+	 * @return the snapshot of the import, read from the directory of the snapshots, or written in it if it does not exist yet.
+	 */
+	static ImportSnapshot of(JavaPackage defaultPackage) {
+		return SNAPSHOTS.get(defaultPackage);
+	}
+
+	static ImportSnapshot loadOrWrite(Path directory, JavaPackage defaultPackage) {
+		Path file = directory.resolve("import-" + fingerprintOf(defaultPackage) + ".snapshot");
+		if (Files.isRegularFile(file)) {
+			try {
+				return load(file, defaultPackage);
+			} catch (IOException e) {
+				// Not readable, written again
+			}
+		}
+		ImportSnapshot snapshot = new ImportSnapshot(defaultPackage, new MetaAnnotationIndex(defaultPackage));
+		snapshot.write(file);
+		return snapshot;
+	}
+
+	private static ImportSnapshot load(Path file, JavaPackage defaultPackage) throws IOException {
+		ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		if (buffer.remaining() < 8 || buffer.getInt() != MAGIC_NUMBER || buffer.getInt() != FORMAT_VERSION) {
+			throw new IOException("Not an import snapshot : " + file);
+		}
+		return new ImportSnapshot(defaultPackage, buffer.slice());
+	}
+
+	private void write(Path file) {
+		try {
+			Files.createDirectories(file.toAbsolutePath().getParent());
+			// Written then moved, the snapshot of an import being possibly written by several JVMs at the same time
+			Path temporaryFile = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+			try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+				output.writeInt(MAGIC_NUMBER);
+				output.writeInt(FORMAT_VERSION);
+				metaAnnotationIndex.writeTo(output);
+			}
+			Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new UncheckedIOException("The import snapshot cannot be written to " + file, e);
+		}
+	}
+
+	/**
+	 * @return true if the snapshot was read from a file written before, false if it was just written.
+	 */
+	boolean isLoaded() {
+		return loaded;
+	}
+
+	synchronized MetaAnnotationIndex metaAnnotationIndex() {
+		if (metaAnnotationIndex == null) {
+			metaAnnotationIndex = MetaAnnotationIndex.readFrom(metaAnnotationIndexSection, defaultPackage);
+			metaAnnotationIndexSection = null;
+		}
+		return metaAnnotationIndex;
+	}
+
+	/**
+	 * @return a hash of the names, the locations, the sizes and the modification times of the class files of the import.
+	 */
+	static String fingerprintOf(JavaPackage defaultPackage) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is a standard algorithm of the JDK", e);
+		}
+		digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(0, FORMAT_VERSION));
+		List<JavaClass> classes = defaultPackage.getClassesInPackageTree().stream()
+			.sorted(Comparator.comparing(JavaClass::getName))
+			.toList();
+		Map<Path, String> archiveStates = new HashMap<>();
+		for (JavaClass javaClass : classes) {
+			digest.update(javaClass.getName().getBytes(StandardCharsets.UTF_8));
+			javaClass.getSource().ifPresent(source -> {
+				digest.update(source.getUri().toString().getBytes(StandardCharsets.UTF_8));
+				digest.update(stateOf(source.getUri(), archiveStates).getBytes(StandardCharsets.UTF_8));
+			});
+		}
+		StringBuilder fingerprint = new StringBuilder();
+		byte[] hash = digest.digest();
+		for (int i = 0; i < 16; i++) {
+			fingerprint.append(String.format("%02x", hash[i]));
+		}
+		return fingerprint.toString();
+	}
+
+	/**
+	 * @return the size and the modification time of the class file, or of the archive containing it.
+	 */
+	private static String stateOf(URI uri, Map<Path, String> archiveStates) {
+		try {
+			return switch (uri.getScheme()) {
+				case "file" -> stateOf(Path.of(uri));
+				case "jar" -> {
+					String archive = uri.getRawSchemeSpecificPart();
+					Path archivePath = Path.of(URI.create(archive.substring(0, archive.indexOf("!/"))));
+					yield archiveStates.computeIfAbsent(archivePath, ImportSnapshot::stateOf);
+				}
+				case "jrt" -> Runtime.version().toString();
+				default -> "";
+			};
+		} catch (RuntimeException e) {
+			return "";
+		}
+	}
+
+	private static String stateOf(Path file) {
+		try {
+			return Files.size(file) + ":" + Files.getLastModifiedTime(file).toMillis();
+		} catch (IOException e) {
+			return "";
+		}
+	}
+
+	static void writeStrings(DataOutputStream output, String[] values) throws IOException {
+		for (String value : values) {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			output.writeInt(bytes.length);
+			output.write(bytes);
+		}
+	}
+
+	static String[] readStrings(ByteBuffer buffer, int count) {
+		String[] values = new String[count];
+		for (int i = 0; i < count; i++) {
+			byte[] bytes = new byte[buffer.getInt()];
+			buffer.get(bytes);
+			values[i] = new String(bytes, StandardCharsets.UTF_8);
+		}
+		return values;
+	}
+
+	static void writeInts(DataOutputStream output, IntBuffer values) throws IOException {
+		for (int i = 0; i < values.limit(); i++) {
+			output.writeInt(values.get(i));
+		}
+	}
+
+	/**
+	 * @return a view of the next ints of the buffer, without copying them.
+	 */
+	static IntBuffer readInts(ByteBuffer buffer, int count) {
+		IntBuffer values = buffer.slice(buffer.position(), count * Integer.BYTES).asIntBuffer();
+		buffer.position(buffer.position() + count * Integer.BYTES);
+		return values;
+	}
+}
@@ -0,0 +1,54 @@
+package io.github.cpetot.archunit;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.tngtech.archunit.core.domain.Dependency;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaMethodCall;
+
+/**
+ * The edges of a class checked by the access conditions, fetched at most once whatever the number of conditions reading them.
+ *
+ * <p>
+ * The edges are read from the class, ArchUnit indexing the dependencies to the classes once per import.
+ * Each edge list is read the first time it is requested.
+ * An instance is used by one thread, for one class.
+ * </p>
+ */
+final class IncomingEdges {
+
+	private final JavaClass javaClass;
+	private Collection<JavaClass> originClasses;
+	private List<JavaMethodCall> methodCalls;
+
+	IncomingEdges(JavaClass javaClass) {
+		this.javaClass = javaClass;
+	}
+
+	/**
+	 * @return the classes depending directly on the class.
+	 */
+	Collection<JavaClass> originClasses() {
+		if (originClasses == null) {
+			originClasses = javaClass.getDirectDependenciesToSelf().stream()
+				.map(Dependency::getOriginClass)
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+		}
+		return originClasses;
+	}
+
+	/**
+	 * @return the method calls from the class, then the method calls to the class.
+	 */
+	List<JavaMethodCall> methodCalls() {
+		if (methodCalls == null) {
+			methodCalls = new ArrayList<>(javaClass.getMethodCallsFromSelf());
+			methodCalls.addAll(javaClass.getMethodCallsToSelf());
+		}
+		return methodCalls;
+	}
+}
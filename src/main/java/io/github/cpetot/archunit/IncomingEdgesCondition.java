@@ -0,0 +1,61 @@
+package io.github.cpetot.archunit;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ConditionEvents;
+
+/**
+ * A condition on a class checking only the edges of this class, so that several such conditions can share
+ * the same {@link IncomingEdges} when they are evaluated on the same classes.
+ *
+ * <p>
+ * The edges come from the whole import : such a condition can only be evaluated by shards
+ * if it is a {@link ShardableCondition}, checked by a fusable rule.
+ * The values computed for the import, like its {@link MetaAnnotationIndex}, are kept in an {@link ImportScope}
+ * from the initialization of the condition to its end.
+ * </p>
+ *
+ * @see FusedRules
+ */
+abstract class IncomingEdgesCondition extends ArchCondition<JavaClass> {
+
+	private final ImportScope.OfCondition scopes = new ImportScope.OfCondition();
+
+	IncomingEdgesCondition(String description, Object... args) {
+		super(description, args);
+	}
+
+	@Override
+	public void init(Collection<JavaClass> allObjectsToTest) {
+		ShardedEvaluation.checkNotEvaluatedOnAShard(this);
+		scopes.open(allObjectsToTest, Function.identity());
+	}
+
+	@Override
+	public final void check(JavaClass javaClass, ConditionEvents events) {
+		try {
+			check(javaClass, new IncomingEdges(javaClass), events);
+		} catch (RuntimeException | Error e) {
+			// The evaluation of the rule fails, and finish will not be called
+			scopes.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public void finish(ConditionEvents events) {
+		scopes.close();
+	}
+
+	/**
+	 * Closes the scope opened by {@link #init(Collection)}, when the evaluation fails.
+	 */
+	void abort() {
+		scopes.close();
+	}
+
+	abstract void check(JavaClass javaClass, IncomingEdges edges, ConditionEvents events);
+}
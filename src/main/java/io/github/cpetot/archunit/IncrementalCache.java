@@ -0,0 +1,386 @@
+package io.github.cpetot.archunit;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.tngtech.archunit.base.DescribedPredicate;
+import com.tngtech.archunit.core.domain.Dependency;
+import com.tngtech.archunit.core.domain.JavaAccess;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.domain.JavaMember;
+import com.tngtech.archunit.core.domain.Source;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.EvaluationResult;
+import com.tngtech.archunit.lang.Priority;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+import com.tngtech.archunit.lang.ViolationHandler;
+
+/**
+ * The on-disk state of an incremental evaluation of rules : for each class, the hash of its class file,
+ * and for each rule, the violations attributed to each class.
+ *
+ * <p>
+ * A violation is attributed to the class where the offending code is : the origin of a dependency or of an access,
+ * the owner of a member, or the class itself.
+ * Most rules of this library only report violations depending on that class and on the classes it directly depends on.
+ * So when some classes have changed, only the violations of the changed classes and of their direct dependents can change,
+ * and they are found again by evaluating the rules on these classes, and on the classes they directly depend on.
+ * The violations of the other classes are read from the cache.
+ * </p>
+ *
+ * <p>
+ * A rule is always fully evaluated when some classes have changed or have been removed if one of its conditions follows the calls through the whole import,
+ * like {@link SpringCodingRules#BE_ACCESSED_BY_TRANSACTIONAL_CLASSES_OR_METHODS_TRANSITIVELY} or {@link JpaCodingRules#NOT_ACCESS_THE_DATABASE}
+ * (see {@link #checkNotEvaluatedOnChangedClasses(ArchCondition)}),
+ * or if it reports a violation which cannot be attributed to an imported class.
+ * </p>
+ *
+ * @see RuleSuite#withIncrementalCache(Path)
+ */
+final class IncrementalCache {
+
+	private static final int MAGIC_NUMBER = 0x41555243; // AURC
+	private static final int FORMAT_VERSION = 1;
+
+	/**
+	 * Whether the rule in progress on the current thread is only evaluated on the changed classes.
+	 */
+	private static final ThreadLocal<Boolean> EVALUATING_CHANGED_CLASSES = new ThreadLocal<>();
+
+	private final Path cacheFile;
+	private final Map<String, Long> previousHashes;
+	private final Map<String, RuleEntry> previousRules;
+	private final Map<String, RuleEntry> currentRules = new ConcurrentHashMap<>();
+
+	private IncrementalCache(Path cacheFile, Map<String, Long> previousHashes, Map<String, RuleEntry> previousRules) {
+		this.cacheFile = cacheFile;
+		this.previousHashes = previousHashes;
+		this.previousRules = previousRules;
+	}
+
+	/**
+	 * @return the cache stored in the given file, or an empty cache if the file does not exist or has an unknown format.
+	 */
+	static IncrementalCache load(Path cacheFile) {
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+			if (input.readInt() != MAGIC_NUMBER || input.readInt() != FORMAT_VERSION) {
+				return empty(cacheFile);
+			}
+			int classCount = input.readInt();
+			List<String> classNames = new ArrayList<>(classCount);
+			Map<String, Long> hashes = new HashMap<>();
+			for (int i = 0; i < classCount; i++) {
+				String className = input.readUTF();
+				classNames.add(className);
+				hashes.put(className, input.readLong());
+			}
+			int ruleCount = input.readInt();
+			Map<String, RuleEntry> rules = new HashMap<>();
+			for (int i = 0; i < ruleCount; i++) {
+				String ruleDescription = readString(input);
+				int violationCount = input.readInt();
+				Map<String, List<String>> violationsByClass = new HashMap<>();
+				for (int j = 0; j < violationCount; j++) {
+					String className = classNames.get(input.readInt());
+					violationsByClass.computeIfAbsent(className, name -> new ArrayList<>()).add(readString(input));
+				}
+				rules.put(ruleDescription, new RuleEntry(violationsByClass));
+			}
+			return new IncrementalCache(cacheFile, hashes, rules);
+		} catch (NoSuchFileException e) {
+			return empty(cacheFile);
+		} catch (IOException | RuntimeException e) {
+			// A corrupted cache only costs a full evaluation
+			return empty(cacheFile);
+		}
+	}
+
+	private static IncrementalCache empty(Path cacheFile) {
+		return new IncrementalCache(cacheFile, Map.of(), Map.of());
+	}
+
+	/**
+	 * To be called at the initialization of a condition whose events on a class depend on classes it does not directly depend on,
+	 * so that the rules checking it are fully evaluated.
+	 *
+	 * @param condition a condition reading the whole import.
+	 */
+	static void checkNotEvaluatedOnChangedClasses(ArchCondition<?> condition) {
+		if (EVALUATING_CHANGED_CLASSES.get() != null) {
+			throw new WholeImportNeeded();
+		}
+	}
+
+	/**
+	 * Compares the classes of the import with the previous ones.
+	 */
+	Changes detectChanges(JavaClasses classes) {
+		Map<String, Long> hashes = new LinkedHashMap<>();
+		Set<JavaClass> changedClasses = new HashSet<>();
+		for (JavaClass javaClass : classes) {
+			Optional<Long> hash = hashOf(javaClass);
+			hash.ifPresent(value -> hashes.put(javaClass.getName(), value));
+			if (hash.isEmpty() || !hash.get().equals(previousHashes.get(javaClass.getName()))) {
+				changedClasses.add(javaClass);
+			}
+		}
+
+		Set<String> dirtyClasses = new HashSet<>();
+		for (JavaClass changedClass : changedClasses) {
+			dirtyClasses.add(changedClass.getName());
+			for (Dependency dependency : changedClass.getDirectDependenciesToSelf()) {
+				if (classes.contain(dependency.getOriginClass().getName())) {
+					dirtyClasses.add(dependency.getOriginClass().getName());
+				}
+			}
+		}
+		Set<String> classesToEvaluate = new HashSet<>(dirtyClasses);
+		for (String dirtyClass : dirtyClasses) {
+			for (Dependency dependency : classes.get(dirtyClass).getDirectDependenciesFromSelf()) {
+				if (classes.contain(dependency.getTargetClass().getName())) {
+					classesToEvaluate.add(dependency.getTargetClass().getName());
+				}
+			}
+		}
+		boolean classesRemoved = previousHashes.keySet().stream().anyMatch(className -> !classes.contain(className));
+		return new Changes(hashes, dirtyClasses, classesToEvaluate, classesRemoved);
+	}
+
+	/**
+	 * Evaluates the rule on the changed classes, or on all the classes if there is no usable previous result.
+	 */
+	EvaluationResult evaluate(ArchRule rule, JavaClasses classes, Changes changes) {
+		RuleEntry previousEntry = previousRules.get(rule.getDescription());
+		if (previousEntry == null) {
+			return evaluateFully(rule, classes);
+		}
+
+		Map<String, List<String>> violationsByClass = new HashMap<>();
+		previousEntry.violationsByClass().forEach((className, violations) -> {
+			if (classes.contain(className) && !changes.dirtyClasses().contains(className)) {
+				violationsByClass.put(className, violations);
+			}
+		});
+		// A removed class changes the paths through the whole import, even if no imported class has changed
+		if (!changes.classesToEvaluate().isEmpty() || changes.classesRemoved()) {
+			JavaClasses classesToEvaluate = classes.that(DescribedPredicate.describe(
+				"changed or depending on a changed class",
+				javaClass -> changes.classesToEvaluate().contains(javaClass.getName())
+			));
+			Optional<Map<String, List<String>>> changedViolations = evaluateOnChangedClasses(rule, classesToEvaluate)
+				.flatMap(changedResult -> attributeViolations(changedResult, classes));
+			if (changedViolations.isEmpty()) {
+				return evaluateFully(rule, classes);
+			}
+			changedViolations.get().forEach((className, violations) -> {
+				// The violations of the other classes are already known
+				if (changes.dirtyClasses().contains(className)) {
+					violationsByClass.put(className, violations);
+				}
+			});
+		}
+
+		currentRules.put(rule.getDescription(), new RuleEntry(violationsByClass));
+		return toResult(rule, classes, violationsByClass);
+	}
+
+	/**
+	 * @return the result of the rule on the given classes, or nothing if the rule needs the whole import.
+	 */
+	private static Optional<EvaluationResult> evaluateOnChangedClasses(ArchRule rule, JavaClasses classesToEvaluate) {
+		EVALUATING_CHANGED_CLASSES.set(Boolean.TRUE);
+		try {
+			// The rule may select nothing among the changed classes, but not among all the classes
+			return Optional.of(rule.allowEmptyShould(true).evaluate(classesToEvaluate));
+		} catch (WholeImportNeeded e) {
+			return Optional.empty();
+		} finally {
+			EVALUATING_CHANGED_CLASSES.remove();
+		}
+	}
+
+	private EvaluationResult evaluateFully(ArchRule rule, JavaClasses classes) {
+		EvaluationResult result = rule.evaluate(classes);
+		attributeViolations(result, classes)
+			.ifPresent(violationsByClass -> currentRules.put(rule.getDescription(), new RuleEntry(violationsByClass)));
+		return result;
+	}
+
+	/**
+	 * Writes the hashes of the classes, and the violations of the rules evaluated since the cache was loaded.
+	 */
+	void save(Changes changes) {
+		Map<String, Integer> classIndexes = new HashMap<>();
+		changes.hashes().keySet().forEach(className -> classIndexes.put(className, classIndexes.size()));
+		try {
+			Files.createDirectories(cacheFile.toAbsolutePath().getParent());
+			Path temporaryFile = Files.createTempFile(cacheFile.toAbsolutePath().getParent(), cacheFile.getFileName().toString(), ".tmp");
+			try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+				output.writeInt(MAGIC_NUMBER);
+				output.writeInt(FORMAT_VERSION);
+				output.writeInt(changes.hashes().size());
+				for (Map.Entry<String, Long> hash : changes.hashes().entrySet()) {
+					output.writeUTF(hash.getKey());
+					output.writeLong(hash.getValue());
+				}
+				output.writeInt(currentRules.size());
+				for (Map.Entry<String, RuleEntry> rule : currentRules.entrySet()) {
+					writeString(output, rule.getKey());
+					// The violations of a class without hash are found again at each evaluation
+					Map<String, List<String>> violationsByClass = new HashMap<>(rule.getValue().violationsByClass());
+					violationsByClass.keySet().retainAll(classIndexes.keySet());
+					output.writeInt(violationsByClass.values().stream().mapToInt(List::size).sum());
+					for (Map.Entry<String, List<String>> violations : violationsByClass.entrySet()) {
+						for (String violation : violations.getValue()) {
+							output.writeInt(classIndexes.get(violations.getKey()));
+							writeString(output, violation);
+						}
+					}
+				}
+			}
+			Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new UncheckedIOException("The incremental cache cannot be written to " + cacheFile, e);
+		}
+	}
+
+	/**
+	 * @return the violations by class they are attributed to, or nothing if one of them cannot be attributed to an imported class with a known hash.
+	 */
+	private static Optional<Map<String, List<String>>> attributeViolations(EvaluationResult result, JavaClasses classes) {
+		Map<String, List<String>> violationsByClass = new HashMap<>();
+		boolean[] attributable = {true};
+		result.handleViolations((ViolationHandler<Object>) (correspondingObjects, message) -> {
+			String className = correspondingObjects.stream().findFirst()
+				.map(IncrementalCache::attributedClassName)
+				.orElse(null);
+			if (className == null || !classes.contain(className)) {
+				attributable[0] = false;
+			} else {
+				violationsByClass.computeIfAbsent(className, name -> new ArrayList<>()).add(message);
+			}
+		});
+		return attributable[0] ? Optional.of(violationsByClass) : Optional.empty();
+	}
+
+	private static String attributedClassName(Object correspondingObject) {
+		if (correspondingObject instanceof JavaClass javaClass) {
+			return javaClass.getName();
+		}
+		if (correspondingObject instanceof Dependency dependency) {
+			return dependency.getOriginClass().getName();
+		}
+		if (correspondingObject instanceof JavaAccess<?> access) {
+			return access.getOriginOwner().getName();
+		}
+		if (correspondingObject instanceof JavaMember member) {
+			return member.getOwner().getName();
+		}
+		return null;
+	}
+
+	private static EvaluationResult toResult(ArchRule rule, JavaClasses classes, Map<String, List<String>> violationsByClass) {
+		ConditionEvents events = ConditionEvents.Factory.create();
+		new TreeMap<>(violationsByClass).forEach((className, violations) -> {
+			JavaClass javaClass = classes.get(className);
+			violations.forEach(violation -> events.add(SimpleConditionEvent.violated(javaClass, violation)));
+		});
+		return new EvaluationResult(rule, events, Priority.MEDIUM);
+	}
+
+	/**
+	 * The hash of the class file : the MD5 sum computed by ArchUnit if it is enabled, else the MD5 sum of the file read again.
+	 */
+	private static Optional<Long> hashOf(JavaClass javaClass) {
+		Optional<Source> source = javaClass.getSource();
+		if (source.isEmpty()) {
+			return Optional.empty();
+		}
+		byte[] md5 = source.get().getMd5sum().asBytes();
+		if (md5.length < Long.BYTES) {
+			md5 = md5Of(source.get().getUri());
+		}
+		return Optional.ofNullable(md5).map(IncrementalCache::toLong);
+	}
+
+	private static byte[] md5Of(URI uri) {
+		try (InputStream input = uri.toURL().openStream()) {
+			return MessageDigest.getInstance("MD5").digest(input.readAllBytes());
+		} catch (IOException | IllegalArgumentException e) {
+			// No hash, so considered as changed
+			return null;
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("MD5 is a standard algorithm of the JDK", e);
+		}
+	}
+
+	private static long toLong(byte[] bytes) {
+		long value = 0;
+		for (int i = 0; i < Long.BYTES; i++) {
+			value = (value << 8) | (bytes[i] & 0xFF);
+		}
+		return value;
+	}
+
+	private static void writeString(DataOutputStream output, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+
+	private static String readString(DataInputStream input) throws IOException {
+		byte[] bytes = new byte[input.readInt()];
+		input.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @param hashes             the hash of each imported class.
+	 * @param dirtyClasses       the changed classes and their direct dependents, whose violations must be found again.
+	 * @param classesToEvaluate  the dirty classes, and the classes they directly depend on.
+	 * @param classesRemoved     whether some classes of the previous import are no longer imported.
+	 */
+	record Changes(Map<String, Long> hashes, Set<String> dirtyClasses, Set<String> classesToEvaluate, boolean classesRemoved) {
+	}
+
+	private record RuleEntry(Map<String, List<String>> violationsByClass) {
+	}
+
+	/**
+	 * Stops the evaluation of a rule on the changed classes, without any stack trace since it is always caught.
+	 */
+	private static final class WholeImportNeeded extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		WholeImportNeeded() {
+			super(null, null, false, false);
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package io.github.cpetot.archunit;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * The Java Flight Recorder events emitted by this library, to find the cost of its rules in a recording.
+ *
+ * <p>
+ * When no recording is running, the events are disabled and are neither filled nor committed :
+ * the JIT compiler also removes their allocation.
+ * </p>
+ */
+final class JfrEvents {
+
+	private static final String CATEGORY = "ArchUnit Rules";
+
+	private JfrEvents() {
+	}
+
+	/**
+	 * The evaluation of a rule by a {@link RuleSuite}, or of a {@link RecordedRule rule of this library} on its own.
+	 */
+	@Name("io.github.cpetot.archunit.RuleEvaluation")
+	@Label("Rule Evaluation")
+	@Description("Evaluation of a rule of a rule suite, or of a rule of archunit-rules on its own")
+	@Category(CATEGORY)
+	@StackTrace(false)
+	static final class RuleEvaluation extends Event {
+
+		@Label("Rule")
+		String rule;
+
+		@Label("Imported Classes")
+		int importedClasses;
+
+		@Label("Violations")
+		@Description("The number of lines of the failure report of the rule")
+		int violations;
+
+		@Label("Rules Evaluated Together")
+		@Description("The number of rules evaluated in the same pass over the classes, sharing this duration")
+		int fusedRules;
+	}
+
+	/**
+	 * The evaluation of a condition of this library on all the objects selected by its rule, whatever evaluates the rule.
+	 */
+	@Name("io.github.cpetot.archunit.ConditionEvaluation")
+	@Label("Condition Evaluation")
+	@Description("Evaluation of a condition of archunit-rules on all the objects selected by its rule")
+	@Category(CATEGORY)
+	@StackTrace(false)
+	static final class ConditionEvaluation extends Event {
+
+		@Label("Condition")
+		String condition;
+
+		@Label("Checked Objects")
+		int checkedObjects;
+
+		@Label("Violations")
+		int violations;
+	}
+
+	/**
+	 * A slow check of a single object by a condition of this library.
+	 */
+	@Name("io.github.cpetot.archunit.ConditionCheck")
+	@Label("Condition Check")
+	@Description("Check of a single object by a condition of archunit-rules, recorded above the threshold")
+	@Category(CATEGORY)
+	@Threshold("1 ms")
+	static final class ConditionCheck extends Event {
+
+		@Label("Condition")
+		String condition;
+
+		@Label("Checked Object")
+		String checkedObject;
+	}
+
+	/**
+	 * The computation of a structure shared by the conditions of an import, like an index or a graph.
+	 */
+	@Name("io.github.cpetot.archunit.ImportPhase")
+	@Label("Import Phase")
+	@Description("Computation of an index or a graph shared by the conditions checking an import")
+	@Category(CATEGORY)
+	@StackTrace(false)
+	static final class ImportPhase extends Event {
+
+		@Label("Phase")
+		String phase;
+
+		@Label("Classes")
+		int classes;
+	}
+}
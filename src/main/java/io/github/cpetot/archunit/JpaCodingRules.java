@@ -3,24 +3,74 @@ package io.github.cpetot.archunit;
 import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
 import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
 import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.methods;
+import static io.github.cpetot.archunit.MeteredCondition.metered;
+import static io.github.cpetot.archunit.RecordedRule.recorded;
 import static io.github.cpetot.archunit.StandardCodingRules.BE_A_VOID_WITHOUT_PARAMETER;
 import static io.github.cpetot.archunit.StandardCodingRules.HAS_A_PUBLIC_EMPTY_CONSTRUCTOR;
 import static io.github.cpetot.archunit.StandardCodingRules.areAnnotatedByAny;
 
+import java.lang.annotation.Annotation;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import jakarta.persistence.Basic;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OneToOne;
 import jakarta.persistence.PostPersist;
 import jakarta.persistence.PostUpdate;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 
 import com.tngtech.archunit.PublicAPI;
+import com.tngtech.archunit.base.DescribedPredicate;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaCodeUnit;
+import com.tngtech.archunit.core.domain.JavaEnumConstant;
+import com.tngtech.archunit.core.domain.JavaField;
+import com.tngtech.archunit.core.domain.JavaFieldAccess;
+import com.tngtech.archunit.core.domain.JavaMember;
+import com.tngtech.archunit.core.domain.JavaMethod;
+import com.tngtech.archunit.core.domain.JavaMethodCall;
+import com.tngtech.archunit.lang.ArchCondition;
 import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvents;
 
 /**
  * JpaCodingRules provides a set of general {@link ArchRule ArchRules} for coding that might be useful in the projects using JPA.
  */
 public final class JpaCodingRules {
 
+	private static final String FETCH_PROPERTY = "fetch";
+	private static final String STRATEGY_PROPERTY = "strategy";
+	/**
+	 * The Spring classes are named, this class being usable without Spring.
+	 */
+	private static final String SPRING_REPOSITORY_ANNOTATION = "org.springframework.stereotype.Repository";
+	private static final String SPRING_DATA_REPOSITORY = "org.springframework.data.repository.Repository";
+	private static final List<Class<? extends Annotation>> ASSOCIATION_MAPPINGS =
+		List.of(OneToMany.class, ManyToMany.class, ManyToOne.class, OneToOne.class, ElementCollection.class);
+	private static final DescribedPredicate<JavaMethod> ARE_EQUALS_OR_HASH_CODE = DescribedPredicate.describe(
+		"are equals(Object) or hashCode()",
+		method -> (method.getName().equals("equals") && method.getRawParameterTypes().size() == 1
+			&& method.getRawParameterTypes().get(0).isEquivalentTo(Object.class))
+			|| (method.getName().equals("hashCode") && method.getRawParameterTypes().isEmpty())
+	);
+
 	private JpaCodingRules() {
 	}
 
@@ -72,8 +122,92 @@ public final class JpaCodingRules {
 	 */
 	@PublicAPI(usage = ACCESS)
 	public static final ArchRule JPA_ENTITIES_HAVE_PUBLIC_EMPTY_CONSTRUCTOR =
-		classes().that().areAnnotatedWith(Entity.class)
-			.should(HAS_A_PUBLIC_EMPTY_CONSTRUCTOR);
+		recorded(classes().that().areAnnotatedWith(Entity.class)
+			.should(metered(HAS_A_PUBLIC_EMPTY_CONSTRUCTOR)));
+
+	/**
+	 * A condition that checks that all of the fields or getters of the class annotated by {@link ManyToOne} or {@link OneToOne}
+	 * explicitly declare {@code fetch = FetchType.LAZY}, these mappings being eager by default.
+	 * A mapping without any {@code fetch} is reported, including the mappings inherited from a {@link MappedSuperclass}.
+	 *
+	 * <div>
+	 * Matching examples :
+	 * <pre>{@code
+	 * &#64;ManyToOne(fetch = FetchType.LAZY)
+	 * private Customer customer;
+	 * }</pre>
+	 * </div>
+	 *
+	 * <div>
+	 * Not matching examples :
+	 * <pre>{@code
+	 * // Eager by default
+	 * &#64;ManyToOne
+	 * private Customer customer;
+	 *
+	 * &#64;OneToOne(fetch = FetchType.EAGER)
+	 * public Invoice getInvoice() {
+	 *   return invoice;
+	 * }
+	 * }</pre>
+	 * </div>
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static final ArchCondition<JavaClass> FETCH_SINGLE_ASSOCIATIONS_LAZILY = fetchSingleAssociationsLazily();
+
+	private static ArchCondition<JavaClass> fetchSingleAssociationsLazily() {
+		List<Class<? extends Annotation>> singleMappings = List.of(ManyToOne.class, OneToOne.class);
+		return new ArchCondition<>("fetch single associations lazily") {
+			@Override
+			public void check(JavaClass javaClass, ConditionEvents events) {
+				mappedMembersOf(javaClass).forEach(member -> singleMappings.forEach(mapping -> {
+					if (member.isAnnotatedWith(mapping.getName())
+						&& explicitFetchTypeOf(member, mapping).filter(fetchType -> isEnumConstant(fetchType, FetchType.LAZY)).isEmpty()) {
+						events.add(LazyConditionEvent.violated(
+							member, "%s of entity %s is annotated by @%s without fetch = LAZY", describe(member), javaClass, mapping.getSimpleName()
+						));
+					}
+				}));
+			}
+		};
+	}
+
+	/**
+	 * A rule that checks that the associations of the classes annotated by {@link Entity}, mapped by {@link ManyToOne} or {@link OneToOne},
+	 * are explicitly fetched lazily.
+	 *
+	 * <p>
+	 * These mappings are eager by default in JPA : each of them adds a join, or an additional query, to every load of the entity.
+	 * </p>
+	 *
+	 * <div>
+	 * Valid examples :
+	 * <pre>{@code
+	 * &#64;Entity
+	 * public class Order {
+	 *   &#64;ManyToOne(fetch = FetchType.LAZY)
+	 *   private Customer customer;
+	 * }
+	 * }</pre>
+	 * </div>
+	 *
+	 * <div>
+	 * Invalid examples :
+	 * <pre>{@code
+	 * &#64;Entity
+	 * public class Order {
+	 *   &#64;ManyToOne
+	 *   private Customer customer;
+	 * }
+	 * }</pre>
+	 * </div>
+	 *
+	 * @see #FETCH_SINGLE_ASSOCIATIONS_LAZILY
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static final ArchRule JPA_ENTITIES_FETCH_SINGLE_ASSOCIATIONS_LAZILY =
+		recorded(classes().that().areAnnotatedWith(Entity.class)
+			.should(metered(FETCH_SINGLE_ASSOCIATIONS_LAZILY)));
 
 	/**
 	 * A rule that checks that all of the methods annotated by {@link PrePersist}, {@link PreUpdate}, {@link PostPersist} or {@link PostUpdate}
@@ -119,6 +253,580 @@ public final class JpaCodingRules {
 	 */
 	@PublicAPI(usage = ACCESS)
 	public static final ArchRule LIFE_CYCLE_ANNOTATIONS_CORRECTLY_DECLARED =
-		methods().that(areAnnotatedByAny(PrePersist.class, PreUpdate.class, PostPersist.class, PostUpdate.class))
-			.should(BE_A_VOID_WITHOUT_PARAMETER);
+		recorded(methods().that(areAnnotatedByAny(PrePersist.class, PreUpdate.class, PostPersist.class, PostUpdate.class))
+			.should(metered(BE_A_VOID_WITHOUT_PARAMETER)));
+
+	/**
+	 * A condition that checks that the code unit cannot reach the database : it does not call, directly or through the code units it calls,
+	 * a class annotated by Spring {@code @Repository}, an {@link EntityManager} or a Spring Data {@code Repository}.
+	 *
+	 * <p>
+	 * Only the calls between the imported classes are followed, a call to a method possibly running any of its overrides.
+	 * The code units reaching the database are computed once per evaluation of the condition, or of the {@link RuleSuite} checking it.
+	 * </p>
+	 *
+	 * <div>
+	 * Not matching examples :
+	 * <pre>{@code
+	 * public void audit() {
+	 *   auditHelper.save(this); // auditHelper calling an EntityManager
+	 * }
+	 * }</pre>
+	 * </div>
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static final ArchCondition<JavaCodeUnit> NOT_ACCESS_THE_DATABASE = notAccessTheDatabase();
+
+	private static ArchCondition<JavaCodeUnit> notAccessTheDatabase() {
+		return new ArchCondition<>("not access the database, directly or not") {
+			private final ImportScopedCache<DatabaseAccessReachability> reachabilities =
+				DatabaseAccessReachability.cache(JpaCodingRules::isDatabaseAccessor);
+			private final ImportScope.OfCondition scopes = new ImportScope.OfCondition();
+
+			@Override
+			public void init(Collection<JavaCodeUnit> allObjectsToTest) {
+				// The calls are followed through the whole import
+				ShardedEvaluation.checkNotEvaluatedOnAShard(this);
+				IncrementalCache.checkNotEvaluatedOnChangedClasses(this);
+				scopes.open(allObjectsToTest, JavaCodeUnit::getOwner);
+			}
+
+			@Override
+			public void check(JavaCodeUnit codeUnit, ConditionEvents events) {
+				try {
+					DatabaseAccessReachability reachability = reachabilities.get(codeUnit.getOwner());
+					reachability.findPathToDatabase(codeUnit).ifPresent(path -> events.add(LazyConditionEvent.violated(
+						codeUnit, "%s %s accesses the database by calling %s, through %s",
+						codeUnit instanceof JavaMethod ? "Method" : "Constructor",
+						codeUnit,
+						reachability.databaseCallOf(path.get(path.size() - 1)).getTarget(),
+						path.stream().map(JavaCodeUnit::getFullName).collect(Collectors.joining(" -> "))
+					)));
+				} catch (RuntimeException | Error e) {
+					// The evaluation of the rule fails, and finish will not be called
+					scopes.close();
+					throw e;
+				}
+			}
+
+			@Override
+			public void finish(ConditionEvents events) {
+				scopes.close();
+			}
+		};
+	}
+
+	private static boolean isDatabaseAccessor(JavaClass javaClass) {
+		return javaClass.isAnnotatedWith(SPRING_REPOSITORY_ANNOTATION)
+			|| javaClass.isAssignableTo(EntityManager.class)
+			|| javaClass.isAssignableTo(SPRING_DATA_REPOSITORY);
+	}
+
+	/**
+	 * A rule that checks that the methods annotated by {@link PrePersist}, {@link PreUpdate}, {@link PostPersist} or {@link PostUpdate}
+	 * do not access the database, neither directly nor through the methods they call.
+	 *
+	 * <p>
+	 * These callbacks run during each flush : the queries they run are hidden, and multiply with the number of flushed entities.
+	 * It complements {@link #LIFE_CYCLE_ANNOTATIONS_CORRECTLY_DECLARED}, which only checks their signatures.
+	 * </p>
+	 *
+	 * <div>
+	 * Valid examples :
+	 * <pre>{@code
+	 * &#64;Entity
+	 * public class MyEntity {
+	 *   &#64;PrePersist
+	 *   public void beforePersist() {
+	 *     this.createdAt = Instant.now();
+	 *   }
+	 * }
+	 * }</pre>
+	 * </div>
+	 *
+	 * <div>
+	 * Invalid examples :
+	 * <pre>{@code
+	 * &#64;EntityListeners(AuditListener.class)
+	 * public class MyEntity {
+	 * }
+	 *
+	 * public class AuditListener {
+	 *   &#64;PostPersist
+	 *   public void afterPersist(Object entity) {
+	 *     auditRepository.save(new AuditEvent(entity)); // A Spring Data repository
+	 *   }
+	 * }
+	 * }</pre>
+	 * </div>
+	 *
+	 * @see #NOT_ACCESS_THE_DATABASE
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static final ArchRule LIFE_CYCLE_CALLBACKS_DO_NOT_ACCESS_THE_DATABASE =
+		recorded(methods().that(areAnnotatedByAny(PrePersist.class, PreUpdate.class, PostPersist.class, PostUpdate.class))
+			.should(metered(NOT_ACCESS_THE_DATABASE)));
+
+	/**
+	 * A condition that checks that none of the fields or getters of the class is annotated by {@link OneToMany}, {@link ManyToMany}
+	 * or {@link ElementCollection} with {@code fetch = FetchType.EAGER}.
+	 * Only an explicit {@code fetch = FetchType.EAGER} is reported, these mappings being lazy by default,
+	 * on the fields and getters of the class as on those inherited from its {@link MappedSuperclass mapped superclasses}.
+	 *
+	 * <div>
+	 * Matching examples :
+	 * <pre>{@code
+	 * &#64;OneToMany(mappedBy = "order")
+	 * private List<OrderLine> lines;
+	 *
+	 * &#64;ElementCollection(fetch = FetchType.LAZY)
+	 * public List<String> getTags() {
+	 *   return tags;
+	 * }
+	 * }</pre>
+	 * </div>
+	 *
+	 * <div>
+	 * Not matching examples :
+	 * <pre>{@code
+	 * &#64;ManyToMany(fetch = FetchType.EAGER)
+	 * private Set<Category> categories;
+	 * }</pre>
+	 * </div>
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static final ArchCondition<JavaClass> NOT_FETCH_COLLECTIONS_EAGERLY = notFetchCollectionsEagerly();
+
+	private static ArchCondition<JavaClass> notFetchCollectionsEagerly() {
+		List<Class<? extends Annotation>> collectionMappings = List.of(OneToMany.class, ManyToMany.class, ElementCollection.class);
+		return new ArchCondition<>("not fetch collections eagerly") {
+			@Override
+			public void check(JavaClass javaClass, ConditionEvents events) {
+				mappedMembersOf(javaClass).forEach(member -> collectionMappings.forEach(mapping -> {
+					if (explicitFetchTypeOf(member, mapping).filter(fetchType -> isEnumConstant(fetchType, FetchType.EAGER)).isPresent()) {
+						events.add(LazyConditionEvent.violated(
+							member, "%s of entity %s is annotated by @%s with fetch = EAGER", describe(member), javaClass, mapping.getSimpleName()
+						));
+					}
+				}));
+			}
+		};
+	}
+
+	/**
+	 * A rule that checks that the collections of the classes annotated by {@link Entity}, mapped by {@link OneToMany}, {@link ManyToMany}
+	 * or {@link ElementCollection}, are not fetched eagerly.
+	 *
+	 * <p>
+	 * An eager collection is loaded with each entity, by a join or by an additional query,
+	 * even if it is not used, and usually multiplies the rows read by the queries of the entity.
+	 * </p>
+	 *
+	 * <div>
+	 * Valid examples :
+	 * <pre>{@code
+	 * &#64;Entity
+	 * public class Order {
+	 *   &#64;OneToMany(mappedBy = "order")
+	 *   private List<OrderLine> lines;
+	 * }
+	 * }</pre>
+	 * </div>
+	 *
+	 * <div>
+	 * Invalid examples :
+	 * <pre>{@code
+	 * &#64;Entity
+	 * public class Order {
+	 *   &#64;OneToMany(mappedBy = "order", fetch = FetchType.EAGER)
+	 *   private List<OrderLine> lines;
+	 * }
+	 * }</pre>
+	 * </div>
+	 *
+	 * @see #NOT_FETCH_COLLECTIONS_EAGERLY
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static final ArchRule JPA_ENTITIES_DO_NOT_FETCH_COLLECTIONS_EAGERLY =
+		recorded(classes().that().areAnnotatedWith(Entity.class)
+			.should(metered(NOT_FETCH_COLLECTIONS_EAGERLY)));
+
+	/**
+	 * A condition that checks that none of the fields or getters of the class annotated by {@link Id}
+	 * is annotated by {@link GeneratedValue} with {@code strategy = GenerationType.IDENTITY}.
+	 * The id may be declared by a {@link MappedSuperclass} of the entity, and the other strategies, like {@code SEQUENCE}, are accepted.
+	 *
+	 * <div>
+	 * Matching examples :
+	 * <pre>{@code
+	 * &#64;Id
+	 * &#64;GeneratedValue(strategy = GenerationType.SEQUENCE)
+	 * private Long id;
+	 * }</pre>
+	 * </div>
+	 *
+	 * <div>
+	 * Not matching examples :
+	 * <pre>{@code
+	 * &#64;Id
+	 * &#64;GeneratedValue(strategy = GenerationType.IDENTITY)
+	 * private Long id;
+	 * }</pre>
+	 * </div>
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static final ArchCondition<JavaClass> NOT_GENERATE_IDS_BY_IDENTITY = notGenerateIdsByIdentity();
+
+	private static ArchCondition<JavaClass> notGenerateIdsByIdentity() {
+		return new ArchCondition<>("not generate ids by identity") {
+			@Override
+			public void check(JavaClass javaClass, ConditionEvents events) {
+				mappedMembersOf(javaClass)
+					.filter(member -> member.isAnnotatedWith(Id.class.getName()))
+					.filter(member -> member.tryGetAnnotationOfType(GeneratedValue.class.getName())
+						.flatMap(annotation -> annotation.tryGetExplicitlyDeclaredProperty(STRATEGY_PROPERTY))
+						.filter(strategy -> isEnumConstant(strategy, GenerationType.IDENTITY))
+						.isPresent())
+					.forEach(member -> events.add(LazyConditionEvent.violated(
+						member, "%s of entity %s is generated with strategy = IDENTITY, disabling the JDBC batch inserts", describe(member), javaClass
+					)));
+			}
+		};
+	}
+
+	/**
+	 * A rule that checks that the ids of the classes annotated by {@link Entity} are not generated with {@code GenerationType.IDENTITY}.
+	 *
+	 * <p>
+	 * With an identity column, the id of an entity is only known once it is inserted :
+	 * Hibernate then inserts the entities one by one, without JDBC batching, which makes the bulk inserts much slower.
+	 * Use {@link #jpaEntitiesDoNotGenerateIdsByIdentityExcept(Class[])} for the entities inserted one at a time.
+	 * </p>
+	 *
+	 * <div>
+	 * Valid examples :
+	 * <pre>{@code
+	 * &#64;Entity
+	 * public class Order {
+	 *   &#64;Id
+	 *   &#64;GeneratedValue(strategy = GenerationType.SEQUENCE)
+	 *   private Long id;
+	 * }
+	 * }</pre>
+	 * </div>
+	 *
+	 * <div>
+	 * Invalid examples :
+	 * <pre>{@code
+	 * &#64;Entity
+	 * public class Order {
+	 *   &#64;Id
+	 *   &#64;GeneratedValue(strategy = GenerationType.IDENTITY)
+	 *   private Long id;
+	 * }
+	 * }</pre>
+	 * </div>
+	 *
+	 * @see #NOT_GENERATE_IDS_BY_IDENTITY
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static final ArchRule JPA_ENTITIES_DO_NOT_GENERATE_IDS_BY_IDENTITY =
+		recorded(classes().that().areAnnotatedWith(Entity.class)
+			.should(metered(NOT_GENERATE_IDS_BY_IDENTITY)));
+
+	/**
+	 * Same rule as {@link #JPA_ENTITIES_DO_NOT_GENERATE_IDS_BY_IDENTITY}, ignoring the given entities.
+	 *
+	 * <div>
+	 * Example :
+	 * <pre>{@code
+	 * &#64;ArchTest
+	 * private ArchRule ids_are_not_generated_by_identity = jpaEntitiesDoNotGenerateIdsByIdentityExcept(AuditLog.class, Settings.class);
+	 * }</pre>
+	 * </div>
+	 *
+	 * @param allowedEntities the entities whose ids can be generated by identity, like the entities rarely inserted.
+	 * @return the rule.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static ArchRule jpaEntitiesDoNotGenerateIdsByIdentityExcept(Class<?>... allowedEntities) {
+		return recorded(classes().that().areAnnotatedWith(Entity.class).and().doNotBelongToAnyOf(allowedEntities)
+			.should(metered(NOT_GENERATE_IDS_BY_IDENTITY)));
+	}
+
+	/**
+	 * A condition that checks that all of the fields or getters of the class annotated by {@link Lob}
+	 * are also annotated by {@link Basic} with {@code fetch = FetchType.LAZY}, or else belong to a separate entity,
+	 * only referenced by the {@link OneToOne} associations with {@code fetch = FetchType.LAZY} of the imported entities.
+	 * The large objects declared by the {@link MappedSuperclass mapped superclasses} of the class are checked as well.
+	 *
+	 * <div>
+	 * Matching examples :
+	 * <pre>{@code
+	 * &#64;Lob
+	 * &#64;Basic(fetch = FetchType.LAZY)
+	 * private byte[] picture;
+	 *
+	 * // In a separate entity, referenced by a @OneToOne(fetch = FetchType.LAZY) association
+	 * &#64;Lob
+	 * private String content;
+	 * }</pre>
+	 * </div>
+	 *
+	 * <div>
+	 * Not matching examples :
+	 * <pre>{@code
+	 * &#64;Lob
+	 * private byte[] picture;
+	 * }</pre>
+	 * </div>
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static final ArchCondition<JavaClass> FETCH_LOBS_LAZILY = fetchLobsLazily();
+
+	private static ArchCondition<JavaClass> fetchLobsLazily() {
+		return new ArchCondition<>("fetch large objects lazily") {
+			@Override
+			public void check(JavaClass javaClass, ConditionEvents events) {
+				if (isOnlyReferencedLazily(javaClass)) {
+					return;
+				}
+				mappedMembersOf(javaClass)
+					.filter(member -> member.isAnnotatedWith(Lob.class.getName()))
+					.filter(member -> explicitFetchTypeOf(member, Basic.class).filter(fetchType -> isEnumConstant(fetchType, FetchType.LAZY)).isEmpty())
+					.forEach(member -> events.add(LazyConditionEvent.violated(
+						member, "%s of type %s of entity %s is annotated by @Lob without @Basic(fetch = LAZY), outside of an entity only referenced by lazy @OneToOne",
+						describe(member), typeNameOf(member), javaClass
+					)));
+			}
+		};
+	}
+
+	/**
+	 * @return {@code true} if the class is the type of at least one association of the imported entities or mapped superclasses,
+	 * all of them lazy {@link OneToOne}. The other fields and getters, like the getter of a field mapping the association, are ignored.
+	 */
+	private static boolean isOnlyReferencedLazily(JavaClass javaClass) {
+		List<JavaMember> references = Stream.concat(
+				javaClass.getFieldsWithTypeOfSelf().stream(),
+				javaClass.getMethodsWithReturnTypeOfSelf().stream()
+			)
+			.filter(reference -> reference.getOwner().isAnnotatedWith(Entity.class) || reference.getOwner().isAnnotatedWith(MappedSuperclass.class))
+			.filter(reference -> associationOf(reference).isPresent())
+			.toList();
+		return !references.isEmpty() && references.stream()
+			.allMatch(reference -> explicitFetchTypeOf(reference, OneToOne.class).filter(fetchType -> isEnumConstant(fetchType, FetchType.LAZY)).isPresent());
+	}
+
+	/**
+	 * @return the name of the type of the field or getter, like {@code byte[]} for an array.
+	 */
+	private static String typeNameOf(JavaMember member) {
+		JavaClass type = member instanceof JavaField field ? field.getRawType() : ((JavaMethod) member).getRawReturnType();
+		StringBuilder dimensions = new StringBuilder();
+		while (type.isArray()) {
+			dimensions.append("[]");
+			type = type.getComponentType();
+		}
+		return type.getName() + dimensions;
+	}
+
+	/**
+	 * A rule that checks that the fields or getters of the classes annotated by {@link Entity}, annotated by {@link Lob},
+	 * are fetched lazily : annotated by {@code @Basic(fetch = FetchType.LAZY)}, or moved to a separate entity
+	 * referenced by a {@code @OneToOne(fetch = FetchType.LAZY)} association.
+	 *
+	 * <p>
+	 * The large objects are otherwise loaded with each entity, even if only its other columns are used.
+	 * The lazy loading of a basic attribute needs the bytecode enhancement of the entities with Hibernate,
+	 * the separate entity does not.
+	 * </p>
+	 *
+	 * <div>
+	 * Valid examples :
+	 * <pre>{@code
+	 * &#64;Entity
+	 * public class Document {
+	 *   &#64;Lob
+	 *   &#64;Basic(fetch = FetchType.LAZY)
+	 *   private byte[] content;
+	 * }
+	 *
+	 * &#64;Entity
+	 * public class Document {
+	 *   &#64;OneToOne(fetch = FetchType.LAZY)
+	 *   private DocumentContent content;
+	 * }
+	 *
+	 * &#64;Entity
+	 * public class DocumentContent {
+	 *   &#64;Lob
+	 *   private byte[] bytes;
+	 * }
+	 * }</pre>
+	 * </div>
+	 *
+	 * <div>
+	 * Invalid examples :
+	 * <pre>{@code
+	 * &#64;Entity
+	 * public class Document {
+	 *   &#64;Lob
+	 *   private byte[] content;
+	 * }
+	 * }</pre>
+	 * </div>
+	 *
+	 * @see #FETCH_LOBS_LAZILY
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static final ArchRule JPA_ENTITIES_FETCH_LOBS_LAZILY =
+		recorded(classes().that().areAnnotatedWith(Entity.class)
+			.should(metered(FETCH_LOBS_LAZILY)));
+
+	/**
+	 * A condition that checks that the method does not read the associations of the entities,
+	 * the fields or getters annotated by {@link OneToMany}, {@link ManyToMany}, {@link ManyToOne}, {@link OneToOne} or {@link ElementCollection} :
+	 * neither by accessing such a field, nor by calling such a getter, or a method of the import accessing such a field.
+	 *
+	 * <div>
+	 * Not matching examples :
+	 * <pre>{@code
+	 * &#64;Override
+	 * public int hashCode() {
+	 *   return Objects.hash(id, getLines()); // getLines() returning a @OneToMany field
+	 * }
+	 * }</pre>
+	 * </div>
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static final ArchCondition<JavaMethod> NOT_ACCESS_ASSOCIATIONS = notAccessAssociations();
+
+	private static ArchCondition<JavaMethod> notAccessAssociations() {
+		return new ArchCondition<>("not access the associations") {
+			@Override
+			public void check(JavaMethod method, ConditionEvents events) {
+				for (JavaFieldAccess fieldAccess : method.getFieldAccesses()) {
+					fieldAccess.getTarget().resolveMember()
+						.filter(field -> associationOf(field).isPresent())
+						.ifPresent(field -> events.add(LazyConditionEvent.violated(
+							fieldAccess, "Method %s accesses the association %s annotated by @%s in %s",
+							method, field, associationOf(field).get().getSimpleName(), fieldAccess.getSourceCodeLocation()
+						)));
+				}
+				for (JavaMethodCall methodCall : method.getMethodCallsFromSelf()) {
+					methodCall.getTarget().resolveMember()
+						.flatMap(JpaCodingRules::accessedAssociationOf)
+						.ifPresent(association -> events.add(LazyConditionEvent.violated(
+							methodCall, "Method %s calls %s, accessing the association %s annotated by @%s, in %s",
+							method, methodCall.getTarget(), association, associationOf(association).get().getSimpleName(),
+							methodCall.getSourceCodeLocation()
+						)));
+				}
+			}
+		};
+	}
+
+	/**
+	 * @return the association mapped by the given getter, or the first association field it accesses, if any.
+	 */
+	private static Optional<JavaMember> accessedAssociationOf(JavaMethod method) {
+		if (associationOf(method).isPresent()) {
+			return Optional.of(method);
+		}
+		return method.getFieldAccesses().stream()
+			.flatMap(fieldAccess -> fieldAccess.getTarget().resolveMember().stream())
+			.filter(field -> associationOf(field).isPresent())
+			.map(JavaMember.class::cast)
+			.findFirst();
+	}
+
+	/**
+	 * @return the annotation mapping the member as an association, if any.
+	 */
+	private static Optional<Class<? extends Annotation>> associationOf(JavaMember member) {
+		return ASSOCIATION_MAPPINGS.stream()
+			.filter(mapping -> member.isAnnotatedWith(mapping.getName()))
+			.findFirst();
+	}
+
+	/**
+	 * A rule that checks that the {@code equals(Object)} and {@code hashCode()} methods of the classes annotated by {@link Entity}
+	 * do not read their associations, neither directly nor by calling their getters.
+	 *
+	 * <p>
+	 * Reading a lazy association loads it : adding entities to a {@code HashSet}, or comparing them, then runs a query for each entity.
+	 * Use the id, or a business key, instead.
+	 * </p>
+	 *
+	 * <div>
+	 * Valid examples :
+	 * <pre>{@code
+	 * &#64;Entity
+	 * public class Order {
+	 *   &#64;Override
+	 *   public boolean equals(Object other) {
+	 *     return other instanceof Order order && id != null && id.equals(order.id);
+	 *   }
+	 *
+	 *   &#64;Override
+	 *   public int hashCode() {
+	 *     return getClass().hashCode();
+	 *   }
+	 * }
+	 * }</pre>
+	 * </div>
+	 *
+	 * <div>
+	 * Invalid examples :
+	 * <pre>{@code
+	 * &#64;Entity
+	 * public class Order {
+	 *   &#64;ManyToOne(fetch = FetchType.LAZY)
+	 *   private Customer customer;
+	 *
+	 *   &#64;Override
+	 *   public int hashCode() {
+	 *     return Objects.hash(id, customer);
+	 *   }
+	 * }
+	 * }</pre>
+	 * </div>
+	 *
+	 * @see #NOT_ACCESS_ASSOCIATIONS
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static final ArchRule JPA_ENTITIES_EQUALS_AND_HASH_CODE_DO_NOT_ACCESS_ASSOCIATIONS =
+		recorded(methods().that(ARE_EQUALS_OR_HASH_CODE).and().areDeclaredInClassesThat().areAnnotatedWith(Entity.class)
+			.should(metered(NOT_ACCESS_ASSOCIATIONS)));
+
+	/**
+	 * @return the fields and the methods of the class and of its imported {@link MappedSuperclass mapped superclasses},
+	 * the getters being annotated instead of the fields for the property access.
+	 * The members of an entity superclass are left to the check of this entity.
+	 */
+	private static Stream<JavaMember> mappedMembersOf(JavaClass javaClass) {
+		return Stream.iterate(javaClass, Objects::nonNull,
+				mappedClass -> mappedClass.getRawSuperclass().filter(superclass -> superclass.isAnnotatedWith(MappedSuperclass.class)).orElse(null)
+			)
+			.flatMap(mappedClass -> Stream.concat(mappedClass.getFields().stream(), mappedClass.getMethods().stream()));
+	}
+
+	/**
+	 * @return the fetch type explicitly declared on the given mapping annotation of the member, if any.
+	 */
+	private static Optional<Object> explicitFetchTypeOf(JavaMember member, Class<? extends Annotation> mapping) {
+		return member.tryGetAnnotationOfType(mapping.getName())
+			.flatMap(annotation -> annotation.tryGetExplicitlyDeclaredProperty(FETCH_PROPERTY));
+	}
+
+	private static boolean isEnumConstant(Object value, Enum<?> constant) {
+		return value instanceof JavaEnumConstant enumConstant
+			&& enumConstant.name().equals(constant.name())
+			&& enumConstant.getDeclaringClass().isEquivalentTo(constant.getDeclaringClass());
+	}
+
+	private static String describe(JavaMember member) {
+		return member instanceof JavaField ? "Field " + member.getName() : "Getter " + member.getName() + "()";
+	}
 }
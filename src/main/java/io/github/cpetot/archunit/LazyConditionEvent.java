@@ -0,0 +1,90 @@
+package io.github.cpetot.archunit;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.tngtech.archunit.core.domain.properties.HasName;
+import com.tngtech.archunit.lang.ConditionEvent;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+
+/**
+ * A {@link ConditionEvent} similar to {@link SimpleConditionEvent}, but which keeps the message format and its arguments,
+ * and only builds the message when it is read, i.e. when a report is rendered.
+ *
+ * <p>
+ * Most of the satisfied events are never read, so the conditions checking many objects should use it
+ * to avoid building a message for each of them.
+ * </p>
+ *
+ * <p>
+ * The arguments having a name, like {@link com.tngtech.archunit.core.domain.JavaClass JavaClass} or
+ * {@link com.tngtech.archunit.core.domain.JavaMethod JavaMethod}, are rendered with their full name.
+ * </p>
+ */
+final class LazyConditionEvent implements ConditionEvent {
+
+	private final Object correspondingObject;
+	private final boolean conditionSatisfied;
+	private final String messageFormat;
+	private final Object[] messageArguments;
+
+	private LazyConditionEvent(Object correspondingObject, boolean conditionSatisfied, String messageFormat, Object[] messageArguments) {
+		this.correspondingObject = correspondingObject;
+		this.conditionSatisfied = conditionSatisfied;
+		this.messageFormat = messageFormat;
+		this.messageArguments = messageArguments;
+	}
+
+	static ConditionEvent satisfied(Object correspondingObject, String messageFormat, Object... messageArguments) {
+		return new LazyConditionEvent(correspondingObject, true, messageFormat, messageArguments);
+	}
+
+	static ConditionEvent violated(Object correspondingObject, String messageFormat, Object... messageArguments) {
+		return new LazyConditionEvent(correspondingObject, false, messageFormat, messageArguments);
+	}
+
+	@Override
+	public boolean isViolation() {
+		return !conditionSatisfied;
+	}
+
+	@Override
+	public ConditionEvent invert() {
+		return new LazyConditionEvent(correspondingObject, !conditionSatisfied, messageFormat, messageArguments);
+	}
+
+	@Override
+	public List<String> getDescriptionLines() {
+		return Collections.singletonList(getMessage());
+	}
+
+	@Override
+	public void handleWith(Handler handler) {
+		handler.handle(Collections.singleton(correspondingObject), getMessage());
+	}
+
+	String getMessage() {
+		Object[] renderedArguments = new Object[messageArguments.length];
+		for (int i = 0; i < messageArguments.length; i++) {
+			renderedArguments[i] = render(messageArguments[i]);
+		}
+		return String.format(messageFormat, renderedArguments);
+	}
+
+	private static Object render(Object argument) {
+		if (argument instanceof HasName.AndFullName withFullName) {
+			return withFullName.getFullName();
+		}
+		if (argument instanceof HasName withName) {
+			return withName.getName();
+		}
+		return argument;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "{correspondingObject=" + correspondingObject
+			+ ", conditionSatisfied=" + conditionSatisfied
+			+ ", message=" + getMessage() + "}";
+	}
+}
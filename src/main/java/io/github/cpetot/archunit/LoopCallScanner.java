@@ -0,0 +1,457 @@
+package io.github.cpetot.archunit;
+
+import static io.github.cpetot.archunit.ClassFileReader.CONSTANT_CLASS;
+import static io.github.cpetot.archunit.ClassFileReader.CONSTANT_DYNAMIC;
+import static io.github.cpetot.archunit.ClassFileReader.CONSTANT_FIELDREF;
+import static io.github.cpetot.archunit.ClassFileReader.CONSTANT_INTERFACE_METHODREF;
+import static io.github.cpetot.archunit.ClassFileReader.CONSTANT_INVOKE_DYNAMIC;
+import static io.github.cpetot.archunit.ClassFileReader.CONSTANT_METHODREF;
+import static io.github.cpetot.archunit.ClassFileReader.CONSTANT_METHOD_HANDLE;
+import static io.github.cpetot.archunit.ClassFileReader.CONSTANT_METHOD_TYPE;
+import static io.github.cpetot.archunit.ClassFileReader.CONSTANT_MODULE;
+import static io.github.cpetot.archunit.ClassFileReader.CONSTANT_NAME_AND_TYPE;
+import static io.github.cpetot.archunit.ClassFileReader.CONSTANT_PACKAGE;
+import static io.github.cpetot.archunit.ClassFileReader.CONSTANT_STRING;
+import static io.github.cpetot.archunit.ClassFileReader.CONSTANT_UTF8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.tngtech.archunit.core.domain.JavaAccess;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.Source;
+
+/**
+ * A scanner of the bytecode of a class file, finding the method calls repeated for each element of a collection :
+ * the calls inside a loop, and the calls inside a lambda, or the method references, passed to {@code forEach} or {@code map}.
+ *
+ * <p>
+ * ArchUnit does not keep the bytecode offsets of the accesses, so the class file of the origin of an access is read again.
+ * A loop is the range of bytecode between a backward branch and its target, as compiled for the {@code for},
+ * {@code while} and {@code do} statements. A lambda is passed to {@code forEach} or {@code map} if the first method
+ * called after its creation is one of these methods of a {@code java.util} type, like {@link java.util.stream.Stream#map}
+ * or {@link Iterable#forEach}. The calls are identified by their target and their line number, like the accesses of ArchUnit.
+ * </p>
+ *
+ * <p>
+ * The class files are scanned at most once per {@link ImportScope} of the import, when an access from them is checked.
+ * A class file without line numbers gives no call. A class file which cannot be read or scanned
+ * gives every access from it, repeated in {@code a class file which cannot be scanned}, with the reason :
+ * whether such a call is in a loop is unknown, and an access which is not reported would not be checked at all.
+ * </p>
+ */
+final class LoopCallScanner {
+
+	private static final int IFEQ = 0x99;
+	private static final int GOTO = 0xa7;
+	private static final int JSR = 0xa8;
+	private static final int RET = 0xa9;
+	private static final int TABLESWITCH = 0xaa;
+	private static final int LOOKUPSWITCH = 0xab;
+	private static final int INVOKEVIRTUAL = 0xb6;
+	private static final int INVOKEINTERFACE = 0xb9;
+	private static final int INVOKEDYNAMIC = 0xba;
+	private static final int WIDE = 0xc4;
+	private static final int IINC = 0x84;
+	private static final int IFNULL = 0xc6;
+	private static final int IFNONNULL = 0xc7;
+	private static final int GOTO_W = 0xc8;
+	private static final int JSR_W = 0xc9;
+
+	/**
+	 * The length of each instruction, {@code 0} for the instructions of variable length.
+	 */
+	private static final int[] INSTRUCTION_LENGTHS = instructionLengths();
+
+	private static final String LAMBDA_METAFACTORY = "java/lang/invoke/LambdaMetafactory";
+	private static final Set<String> ELEMENT_METHODS = Set.of("forEach", "forEachOrdered", "map", "flatMap");
+	/**
+	 * The suffixes of the collections and the maps of {@code java.util}, like {@code Collection}, {@code ArrayList} or {@code HashMap}.
+	 */
+	private static final List<String> ELEMENT_METHOD_OWNER_SUFFIXES = List.of("Collection", "List", "Set", "Queue", "Deque", "Map");
+	private static final String LOOP = "a loop";
+
+	private static final ImportScopedCache<Map<JavaClass, ScannedClass>> LOOP_CALLS =
+		new ImportScopedCache<>("loop calls", defaultPackage -> new ConcurrentHashMap<>());
+
+	private final ByteBuffer classFile;
+	private int[] firstIndexes;
+	private int[] secondIndexes;
+	private String[] strings;
+	private final List<MethodCode> methods = new ArrayList<>();
+	private final List<Integer> bootstrapMethods = new ArrayList<>();
+	private final Map<String, String> loopCalls = new HashMap<>();
+
+	private LoopCallScanner(ByteBuffer classFile) {
+		this.classFile = classFile;
+	}
+
+	/**
+	 * @param access an access of an imported class.
+	 * @return where the access is repeated, like {@code a loop}, or nothing if it is not in a loop.
+	 */
+	static Optional<String> placeOf(JavaAccess<?> access) {
+		JavaClass originClass = access.getOriginOwner();
+		ScannedClass scannedClass = LOOP_CALLS.get(originClass).computeIfAbsent(originClass, LoopCallScanner::scan);
+		if (scannedClass.failure() != null) {
+			return Optional.of("a class file which cannot be scanned (" + scannedClass.failure() + ")");
+		}
+		return Optional.ofNullable(scannedClass.loopCalls().get(keyOf(access.getTargetOwner().getName(), access.getTarget().getName(), access.getLineNumber())));
+	}
+
+	private static ScannedClass scan(JavaClass javaClass) {
+		Optional<URI> uri = javaClass.getSource().map(Source::getUri);
+		if (uri.isEmpty()) {
+			return new ScannedClass(Map.of(), "no class file");
+		}
+		try (InputStream input = uri.get().toURL().openStream()) {
+			return new ScannedClass(scan(ByteBuffer.wrap(input.readAllBytes())), null);
+		} catch (IOException | RuntimeException e) {
+			return new ScannedClass(Map.of(), e.toString());
+		}
+	}
+
+	/**
+	 * @param classFile the content of a class file.
+	 * @return the calls inside a loop, by {@link #keyOf(String, String, int) key}, with the place they are repeated in.
+	 * @throws IllegalArgumentException if the content is not a class file.
+	 */
+	static Map<String, String> scan(ByteBuffer classFile) {
+		LoopCallScanner scanner = new LoopCallScanner(classFile);
+		scanner.readClassFile();
+		scanner.findLoopCalls();
+		return scanner.loopCalls;
+	}
+
+	private static String keyOf(String ownerName, String methodName, int lineNumber) {
+		return ownerName + "." + methodName + ":" + lineNumber;
+	}
+
+	private void readClassFile() {
+		if (!ClassFileReader.readHeader(classFile)) {
+			throw new IllegalArgumentException("Not a class file");
+		}
+		readConstantPool();
+		skip(6); // access flags, this class, super class
+		skip(2 * unsignedShort()); // interfaces
+		int fieldCount = unsignedShort();
+		for (int i = 0; i < fieldCount; i++) {
+			skip(6); // access flags, name, descriptor
+			skipAttributes();
+		}
+		int methodCount = unsignedShort();
+		for (int i = 0; i < methodCount; i++) {
+			readMethod();
+		}
+		int attributeCount = unsignedShort();
+		for (int i = 0; i < attributeCount; i++) {
+			String name = strings[unsignedShort()];
+			int length = classFile.getInt();
+			int end = classFile.position() + length;
+			if ("BootstrapMethods".equals(name)) {
+				int bootstrapMethodCount = unsignedShort();
+				for (int j = 0; j < bootstrapMethodCount; j++) {
+					bootstrapMethods.add(classFile.position());
+					skip(2);
+					skip(2 * unsignedShort());
+				}
+			}
+			classFile.position(end);
+		}
+	}
+
+	private void readConstantPool() {
+		int constantPoolCount = ClassFileReader.readConstantPoolCount(classFile);
+		firstIndexes = new int[constantPoolCount];
+		secondIndexes = new int[constantPoolCount];
+		strings = new String[constantPoolCount];
+		ClassFileReader.readConstants(classFile, constantPoolCount, (index, tag, position, length) -> {
+			switch (tag) {
+				case CONSTANT_UTF8 -> strings[index] = new String(classFile.array(), position, length, StandardCharsets.UTF_8);
+				case CONSTANT_CLASS, CONSTANT_STRING, CONSTANT_METHOD_TYPE, CONSTANT_MODULE, CONSTANT_PACKAGE -> firstIndexes[index] = unsignedShort(position);
+				case CONSTANT_METHOD_HANDLE -> {
+					firstIndexes[index] = Byte.toUnsignedInt(classFile.get(position)); // reference kind
+					secondIndexes[index] = unsignedShort(position + 1);
+				}
+				case CONSTANT_FIELDREF, CONSTANT_METHODREF, CONSTANT_INTERFACE_METHODREF, CONSTANT_NAME_AND_TYPE,
+					CONSTANT_DYNAMIC, CONSTANT_INVOKE_DYNAMIC -> {
+					firstIndexes[index] = unsignedShort(position);
+					secondIndexes[index] = unsignedShort(position + 2);
+				}
+				default -> {
+					// A number, never read by the scanner
+				}
+			}
+			return true;
+		});
+	}
+
+	private void readMethod() {
+		skip(2); // access flags
+		String name = strings[unsignedShort()];
+		String descriptor = strings[unsignedShort()];
+		int attributeCount = unsignedShort();
+		for (int i = 0; i < attributeCount; i++) {
+			String attributeName = strings[unsignedShort()];
+			int length = classFile.getInt();
+			int end = classFile.position() + length;
+			if ("Code".equals(attributeName)) {
+				skip(4); // max stack, max locals
+				int codeLength = classFile.getInt();
+				MethodCode method = new MethodCode(name + descriptor, classFile.position(), codeLength, new ArrayList<>());
+				skip(codeLength);
+				skip(8 * unsignedShort()); // exception table
+				int codeAttributeCount = unsignedShort();
+				for (int j = 0; j < codeAttributeCount; j++) {
+					String codeAttributeName = strings[unsignedShort()];
+					int codeAttributeEnd = classFile.getInt() + classFile.position();
+					if ("LineNumberTable".equals(codeAttributeName)) {
+						int lineCount = unsignedShort();
+						for (int k = 0; k < lineCount; k++) {
+							method.lines().add(new int[] {unsignedShort(), unsignedShort()});
+						}
+						method.lines().sort((first, second) -> Integer.compare(first[0], second[0]));
+					}
+					classFile.position(codeAttributeEnd);
+				}
+				methods.add(method);
+			}
+			classFile.position(end);
+		}
+	}
+
+	private void skipAttributes() {
+		int attributeCount = unsignedShort();
+		for (int i = 0; i < attributeCount; i++) {
+			skip(2);
+			skip(classFile.getInt());
+		}
+	}
+
+	private void findLoopCalls() {
+		Map<String, String> lambdasPassedToElementMethods = new HashMap<>();
+		for (MethodCode method : methods) {
+			List<Instruction> invocations = new ArrayList<>();
+			List<int[]> loops = new ArrayList<>();
+			readInstructions(method, invocations, loops);
+			for (int i = 0; i < invocations.size(); i++) {
+				Instruction invocation = invocations.get(i);
+				if (invocation.opcode() == INVOKEDYNAMIC) {
+					findElementMethod(invocations, i).ifPresent(elementMethod -> addLambda(method, invocation, elementMethod, lambdasPassedToElementMethods));
+				} else if (loops.stream().anyMatch(loop -> loop[0] <= invocation.offset() && invocation.offset() <= loop[1])) {
+					addCall(method, invocation.offset(), invocation.constant(), LOOP);
+				}
+			}
+		}
+		for (MethodCode method : methods) {
+			String place = lambdasPassedToElementMethods.get(method.nameAndDescriptor());
+			if (place != null) {
+				List<Instruction> invocations = new ArrayList<>();
+				readInstructions(method, invocations, new ArrayList<>());
+				invocations.stream()
+					.filter(invocation -> invocation.opcode() != INVOKEDYNAMIC)
+					.forEach(invocation -> loopCalls.putIfAbsent(keyOf(method, invocation.offset(), invocation.constant()), place));
+			}
+		}
+	}
+
+	/**
+	 * @return the method the lambda created by the given invokedynamic is passed to, if it is called for each element.
+	 */
+	private Optional<String> findElementMethod(List<Instruction> invocations, int lambdaIndex) {
+		if (!isLambdaMetafactory(invocations.get(lambdaIndex).constant())) {
+			return Optional.empty();
+		}
+		for (int i = lambdaIndex + 1; i < invocations.size(); i++) {
+			Instruction invocation = invocations.get(i);
+			if (invocation.opcode() != INVOKEDYNAMIC) {
+				String owner = ownerOf(invocation.constant());
+				String name = nameOf(invocation.constant());
+				if (isElementMethodOwner(owner) && ELEMENT_METHODS.contains(name)) {
+					return Optional.of(owner.replace('/', '.') + "." + name);
+				}
+				return Optional.empty();
+			}
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * @return {@code true} for the streams, the iterables, the collections and the maps, calling a lambda for each element,
+	 * unlike {@code Optional.map} calling it once at most.
+	 */
+	private static boolean isElementMethodOwner(String owner) {
+		if (owner.startsWith("java/util/stream/")) {
+			return owner.endsWith("Stream");
+		}
+		return owner.equals("java/lang/Iterable")
+			|| owner.startsWith("java/util/") && ELEMENT_METHOD_OWNER_SUFFIXES.stream().anyMatch(owner::endsWith);
+	}
+
+	private boolean isLambdaMetafactory(int invokeDynamic) {
+		int bootstrapMethod = bootstrapMethods.get(firstIndexes[invokeDynamic]);
+		int handle = Short.toUnsignedInt(classFile.getShort(bootstrapMethod));
+		return LAMBDA_METAFACTORY.equals(ownerOf(secondIndexes[handle]));
+	}
+
+	/**
+	 * Records the lambda, to scan its calls once every method is read, or the method reference as a call.
+	 */
+	private void addLambda(MethodCode method, Instruction invokeDynamic, String elementMethod, Map<String, String> lambdas) {
+		int bootstrapMethod = bootstrapMethods.get(firstIndexes[invokeDynamic.constant()]);
+		if (Short.toUnsignedInt(classFile.getShort(bootstrapMethod + 2)) < 2) {
+			return;
+		}
+		int implementation = Short.toUnsignedInt(classFile.getShort(bootstrapMethod + 6));
+		int implementationMethod = secondIndexes[implementation];
+		String implementationName = nameOf(implementationMethod);
+		if (implementationName.startsWith("lambda$")) {
+			lambdas.putIfAbsent(implementationName + descriptorOf(implementationMethod), "a lambda passed to " + elementMethod);
+		} else {
+			addCall(method, invokeDynamic.offset(), implementationMethod, "a method reference passed to " + elementMethod);
+		}
+	}
+
+	private void addCall(MethodCode method, int offset, int methodConstant, String place) {
+		loopCalls.putIfAbsent(keyOf(method, offset, methodConstant), place);
+	}
+
+	private String keyOf(MethodCode method, int offset, int methodConstant) {
+		return keyOf(ownerOf(methodConstant).replace('/', '.'), nameOf(methodConstant), method.lineOf(offset));
+	}
+
+	private String ownerOf(int memberConstant) {
+		return strings[firstIndexes[firstIndexes[memberConstant]]];
+	}
+
+	private String nameOf(int memberConstant) {
+		return strings[firstIndexes[secondIndexes[memberConstant]]];
+	}
+
+	private String descriptorOf(int memberConstant) {
+		return strings[secondIndexes[secondIndexes[memberConstant]]];
+	}
+
+	/**
+	 * Reads the invocations of the method, and its loops as ranges of offsets, from the target of a backward branch to the branch.
+	 */
+	private void readInstructions(MethodCode method, List<Instruction> invocations, List<int[]> loops) {
+		int start = method.codeStart();
+		int offset = 0;
+		while (offset < method.codeLength()) {
+			int opcode = Byte.toUnsignedInt(classFile.get(start + offset));
+			if (opcode >= INVOKEVIRTUAL && opcode <= INVOKEDYNAMIC) {
+				invocations.add(new Instruction(opcode, offset, Short.toUnsignedInt(classFile.getShort(start + offset + 1))));
+			}
+			int branchOffset = 0;
+			if ((opcode >= IFEQ && opcode <= GOTO) || opcode == IFNULL || opcode == IFNONNULL) {
+				branchOffset = classFile.getShort(start + offset + 1);
+			} else if (opcode == GOTO_W) {
+				branchOffset = classFile.getInt(start + offset + 1);
+			}
+			if (branchOffset < 0) {
+				loops.add(new int[] {offset + branchOffset, offset});
+			}
+			offset += lengthOf(opcode, start, offset);
+		}
+	}
+
+	private int lengthOf(int opcode, int start, int offset) {
+		if (opcode == TABLESWITCH || opcode == LOOKUPSWITCH) {
+			int padding = 3 - offset % 4;
+			int operands = start + offset + 1 + padding;
+			if (opcode == TABLESWITCH) {
+				int low = classFile.getInt(operands + 4);
+				int high = classFile.getInt(operands + 8);
+				return 1 + padding + 12 + 4 * (high - low + 1);
+			}
+			return 1 + padding + 8 + 8 * classFile.getInt(operands + 4);
+		}
+		if (opcode == WIDE) {
+			return Byte.toUnsignedInt(classFile.get(start + offset + 1)) == IINC ? 6 : 4;
+		}
+		int length = INSTRUCTION_LENGTHS[opcode];
+		if (length == 0) {
+			throw new IllegalArgumentException("Unknown opcode " + opcode);
+		}
+		return length;
+	}
+
+	private static int[] instructionLengths() {
+		int[] lengths = new int[256];
+		for (int opcode = 0; opcode <= JSR_W; opcode++) {
+			lengths[opcode] = 1;
+		}
+		for (int opcode : new int[] {0x10, 0x12, 0x15, 0x16, 0x17, 0x18, 0x19, 0x36, 0x37, 0x38, 0x39, 0x3a, RET, 0xbc}) {
+			lengths[opcode] = 2;
+		}
+		for (int opcode : new int[] {0x11, 0x13, 0x14, IINC, GOTO, JSR, 0xb2, 0xb3, 0xb4, 0xb5, 0xb6, 0xb7, 0xb8, 0xbb, 0xbd, 0xc0, 0xc1, IFNULL, IFNONNULL}) {
+			lengths[opcode] = 3;
+		}
+		for (int opcode = IFEQ; opcode < GOTO; opcode++) {
+			lengths[opcode] = 3;
+		}
+		lengths[0xc5] = 4; // multianewarray
+		lengths[INVOKEINTERFACE] = 5;
+		lengths[INVOKEDYNAMIC] = 5;
+		lengths[GOTO_W] = 5;
+		lengths[JSR_W] = 5;
+		lengths[TABLESWITCH] = 0;
+		lengths[LOOKUPSWITCH] = 0;
+		lengths[WIDE] = 0;
+		return lengths;
+	}
+
+	private int unsignedShort() {
+		return Short.toUnsignedInt(classFile.getShort());
+	}
+
+	private int unsignedShort(int position) {
+		return Short.toUnsignedInt(classFile.getShort(position));
+	}
+
+	private void skip(int length) {
+		classFile.position(classFile.position() + length);
+	}
+
+	/**
+	 * @param loopCalls the calls inside a loop, by {@link #keyOf(String, String, int) key}, with the place they are repeated in.
+	 * @param failure why the class file cannot be read or scanned, or {@code null} if it is scanned.
+	 */
+	private record ScannedClass(Map<String, String> loopCalls, String failure) {
+	}
+
+	/**
+	 * @param opcode an invocation opcode.
+	 * @param constant the index of the invoked method, or of the invokedynamic constant.
+	 */
+	private record Instruction(int opcode, int offset, int constant) {
+	}
+
+	/**
+	 * @param lines the line number table, as pairs of start offset and line number sorted by offset.
+	 */
+	private record MethodCode(String nameAndDescriptor, int codeStart, int codeLength, List<int[]> lines) {
+
+		int lineOf(int offset) {
+			int line = 0;
+			for (int[] entry : lines) {
+				if (entry[0] > offset) {
+					break;
+				}
+				line = entry[1];
+			}
+			return line;
+		}
+	}
+}
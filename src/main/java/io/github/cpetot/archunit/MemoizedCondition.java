@@ -0,0 +1,144 @@
+package io.github.cpetot.archunit;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaMember;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ConditionEvent;
+import com.tngtech.archunit.lang.ConditionEvents;
+
+/**
+ * A condition remembering the events it added for each checked object, so that the rules sharing the condition
+ * check each object only once.
+ *
+ * <p>
+ * The events are remembered per import, in an {@link ImportScopedCache}, by identity of the checked object,
+ * as long as the {@link ImportScope} of the import is open : during the evaluation of a {@link RuleSuite},
+ * or else during the evaluation of each rule,
+ * in a concurrent map so that the rules evaluated in parallel do not wait for each other.
+ * Beyond {@value #DEFAULT_CAPACITY} objects per import, the next objects are checked each time without being remembered,
+ * so that the remembered ones are still found instead of being replaced one after another.
+ * The events being immutable, they are added as is to the events of each rule.
+ * </p>
+ *
+ * <p>
+ * Looking the events up costs more than checking a simple condition, like {@link StandardCodingRules#BE_A_VOID_WITHOUT_PARAMETER} :
+ * a condition is only worth memoizing if {@code MemoizedConditionBenchmark}, in the benchmarks, measures a win for it.
+ * None of the conditions of this library is memoized yet, the ones measured being within the noise or slower.
+ * </p>
+ *
+ * <p>
+ * Only the conditions checking each object on its own can be memoized, without any state between {@link #init(java.util.Collection)}
+ * and {@link #finish(ConditionEvents)}.
+ * </p>
+ *
+ * @param <T> the type of the checked objects.
+ */
+final class MemoizedCondition<T> extends ArchCondition<T> {
+
+	static final int DEFAULT_CAPACITY = 10_000;
+
+	private final ArchCondition<T> condition;
+	private final Function<T, JavaClass> classOf;
+	private final int capacity;
+	private final ImportScopedCache<Map<IdentityKey, List<ConditionEvent>>> memoizedEvents;
+	private final ImportScope.OfCondition scopes = new ImportScope.OfCondition();
+
+	MemoizedCondition(ArchCondition<T> condition, Function<T, JavaClass> classOf, int capacity) {
+		super("%s", condition.getDescription());
+		this.condition = condition;
+		this.classOf = classOf;
+		this.capacity = capacity;
+		this.memoizedEvents = new ImportScopedCache<>("memoized events", defaultPackage -> new ConcurrentHashMap<>());
+	}
+
+	/**
+	 * @return the given condition on classes, memoized.
+	 */
+	static ArchCondition<JavaClass> memoizedForClasses(ArchCondition<JavaClass> condition) {
+		return new MemoizedCondition<>(condition, Function.identity(), DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @return the given condition on members, like methods, memoized.
+	 */
+	static <M extends JavaMember> ArchCondition<M> memoizedForMembers(ArchCondition<M> condition) {
+		return new MemoizedCondition<>(condition, JavaMember::getOwner, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @return the memoized condition, checking the objects each time.
+	 */
+	ArchCondition<T> condition() {
+		return condition;
+	}
+
+	@Override
+	public void init(Collection<T> allObjectsToTest) {
+		condition.init(allObjectsToTest);
+		scopes.open(allObjectsToTest, classOf);
+	}
+
+	@Override
+	public void check(T item, ConditionEvents events) {
+		try {
+			checkOnce(item, events);
+		} catch (RuntimeException | Error e) {
+			// The evaluation of the rule fails, and finish will not be called
+			scopes.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public void finish(ConditionEvents events) {
+		try {
+			condition.finish(events);
+		} finally {
+			scopes.close();
+		}
+	}
+
+	private void checkOnce(T item, ConditionEvents events) {
+		Map<IdentityKey, List<ConditionEvent>> importEvents = memoizedEvents.get(classOf.apply(item));
+		IdentityKey key = new IdentityKey(item);
+		List<ConditionEvent> itemEvents = importEvents.get(key);
+		if (itemEvents != null) {
+			itemEvents.forEach(events::add);
+			return;
+		}
+		List<ConditionEvent> recordedEvents = new ArrayList<>();
+		condition.check(item, new ForwardingConditionEvents(events) {
+			@Override
+			public void add(ConditionEvent event) {
+				recordedEvents.add(event);
+				super.add(event);
+			}
+		});
+		if (importEvents.size() < capacity) {
+			importEvents.put(key, List.copyOf(recordedEvents));
+		}
+	}
+
+	/**
+	 * Identifies a checked object by its identity, whatever its {@code equals} method.
+	 */
+	private record IdentityKey(Object item) {
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof IdentityKey key && key.item == item;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(item);
+		}
+	}
+}
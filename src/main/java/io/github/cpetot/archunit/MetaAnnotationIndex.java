@@ -0,0 +1,192 @@
+package io.github.cpetot.archunit;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.tngtech.archunit.core.domain.JavaAnnotation;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.domain.JavaMember;
+import com.tngtech.archunit.core.domain.JavaPackage;
+import com.tngtech.archunit.core.domain.properties.HasAnnotations;
+import com.tngtech.archunit.core.domain.properties.HasName;
+
+/**
+ * An index of the annotations carried by the classes and members of an import, directly or through meta-annotations.
+ *
+ * <p>
+ * It is built once per {@link ImportScope} of the import : each annotation type is mapped to the {@link BitSet} of the classes and members carrying it,
+ * and the meta-annotations of each annotation type are resolved only once.
+ * Checking if a class or a member is meta-annotated is then a lookup, instead of a walk of the meta-annotations tree.
+ * It can also be read from the {@link ImportSnapshot} of the import, the classes and members being identified by their full names.
+ * </p>
+ *
+ * @see HasAnnotations#isMetaAnnotatedWith(Class)
+ */
+final class MetaAnnotationIndex {
+
+	private static final ImportScopedCache<MetaAnnotationIndex> INDEXES = new ImportScopedCache<>("meta-annotation index",
+		defaultPackage -> ImportSnapshot.isEnabled() ? ImportSnapshot.of(defaultPackage).metaAnnotationIndex() : new MetaAnnotationIndex(defaultPackage));
+
+	private final Map<Object, Integer> elementIds = new IdentityHashMap<>();
+	private final List<String> elementNames = new ArrayList<>();
+	private final Map<String, BitSet> elementsByAnnotation = new HashMap<>();
+	private final Map<String, Set<String>> metaAnnotationsByAnnotation = new HashMap<>();
+
+	MetaAnnotationIndex(JavaPackage defaultPackage) {
+		for (JavaClass javaClass : defaultPackage.getClassesInPackageTree()) {
+			index(javaClass);
+			for (JavaMember member : javaClass.getMembers()) {
+				index(member);
+			}
+		}
+	}
+
+	/**
+	 * Reads an index written by {@link #writeTo(DataOutputStream)}.
+	 */
+	private MetaAnnotationIndex(ByteBuffer buffer, JavaPackage defaultPackage) {
+		Map<String, Integer> idsByName = new HashMap<>();
+		for (String elementName : ImportSnapshot.readStrings(buffer, buffer.getInt())) {
+			idsByName.put(elementName, elementNames.size());
+			elementNames.add(elementName);
+		}
+		int annotationCount = buffer.getInt();
+		for (int i = 0; i < annotationCount; i++) {
+			String annotationName = ImportSnapshot.readStrings(buffer, 1)[0];
+			IntBuffer elements = ImportSnapshot.readInts(buffer, buffer.getInt());
+			BitSet elementSet = new BitSet(elementNames.size());
+			for (int element = 0; element < elements.limit(); element++) {
+				elementSet.set(elements.get(element));
+			}
+			elementsByAnnotation.put(annotationName, elementSet);
+		}
+		for (JavaClass javaClass : defaultPackage.getClassesInPackageTree()) {
+			identify(javaClass, idsByName);
+			for (JavaMember member : javaClass.getMembers()) {
+				identify(member, idsByName);
+			}
+		}
+	}
+
+	static MetaAnnotationIndex readFrom(ByteBuffer buffer, JavaPackage defaultPackage) {
+		return new MetaAnnotationIndex(buffer, defaultPackage);
+	}
+
+	static MetaAnnotationIndex of(JavaClasses classes) {
+		return INDEXES.get(classes);
+	}
+
+	static MetaAnnotationIndex of(JavaClass anyClassOfTheImport) {
+		return INDEXES.get(anyClassOfTheImport);
+	}
+
+	/**
+	 * @return the index of the import, or nothing if the import has no open {@link ImportScope} to share it.
+	 */
+	static Optional<MetaAnnotationIndex> find(JavaClass anyClassOfTheImport) {
+		return INDEXES.find(anyClassOfTheImport);
+	}
+
+	boolean isMetaAnnotatedWith(HasAnnotations<?> element, Class<? extends Annotation> annotationType) {
+		Integer elementId = elementIds.get(element);
+		if (elementId == null) {
+			// Not part of the import this index was built for
+			return element.isMetaAnnotatedWith(annotationType);
+		}
+		BitSet elements = elementsByAnnotation.get(annotationType.getName());
+		return elements != null && elements.get(elementId);
+	}
+
+	boolean isMetaAnnotatedWithAny(HasAnnotations<?> element, Class<? extends Annotation>[] annotationTypes) {
+		for (Class<? extends Annotation> annotationType : annotationTypes) {
+			if (isMetaAnnotatedWith(element, annotationType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void identify(HasName.AndFullName element, Map<String, Integer> idsByName) {
+		Integer elementId = idsByName.get(element.getFullName());
+		if (elementId != null) {
+			elementIds.put(element, elementId);
+		}
+	}
+
+	/**
+	 * Writes the index for {@link #readFrom(ByteBuffer, JavaPackage)}.
+	 */
+	void writeTo(DataOutputStream output) throws IOException {
+		output.writeInt(elementNames.size());
+		ImportSnapshot.writeStrings(output, elementNames.toArray(new String[0]));
+		output.writeInt(elementsByAnnotation.size());
+		for (Map.Entry<String, BitSet> annotation : elementsByAnnotation.entrySet()) {
+			ImportSnapshot.writeStrings(output, new String[] {annotation.getKey()});
+			int[] elements = annotation.getValue().stream().toArray();
+			output.writeInt(elements.length);
+			ImportSnapshot.writeInts(output, IntBuffer.wrap(elements));
+		}
+	}
+
+	private <E extends HasAnnotations<?> & HasName.AndFullName> void index(E element) {
+		int elementId = elementIds.size();
+		elementIds.put(element, elementId);
+		elementNames.add(element.getFullName());
+		for (JavaAnnotation<?> annotation : element.getAnnotations()) {
+			JavaClass annotationType = annotation.getRawType();
+			mark(annotationType.getName(), elementId);
+			for (String metaAnnotation : metaAnnotationsOf(annotationType)) {
+				mark(metaAnnotation, elementId);
+			}
+		}
+	}
+
+	private void mark(String annotationName, int elementId) {
+		elementsByAnnotation.computeIfAbsent(annotationName, name -> new BitSet()).set(elementId);
+	}
+
+	/**
+	 * @return the names of all the annotations found on the given annotation type, recursively.
+	 */
+	private Set<String> metaAnnotationsOf(JavaClass annotationType) {
+		Set<String> metaAnnotations = metaAnnotationsByAnnotation.get(annotationType.getName());
+		if (metaAnnotations != null) {
+			return metaAnnotations;
+		}
+		metaAnnotations = new HashSet<>();
+		Set<String> visited = new HashSet<>();
+		Deque<JavaClass> toVisit = new ArrayDeque<>();
+		toVisit.push(annotationType);
+		visited.add(annotationType.getName());
+		while (!toVisit.isEmpty()) {
+			for (JavaAnnotation<JavaClass> metaAnnotation : toVisit.pop().getAnnotations()) {
+				JavaClass metaAnnotationType = metaAnnotation.getRawType();
+				String name = metaAnnotationType.getName();
+				metaAnnotations.add(name);
+				Set<String> alreadyResolved = metaAnnotationsByAnnotation.get(name);
+				if (alreadyResolved != null) {
+					metaAnnotations.addAll(alreadyResolved);
+				} else if (visited.add(name)) {
+					toVisit.push(metaAnnotationType);
+				}
+			}
+		}
+		metaAnnotationsByAnnotation.put(annotationType.getName(), metaAnnotations);
+		return metaAnnotations;
+	}
+}
@@ -0,0 +1,156 @@
+package io.github.cpetot.archunit;
+
+import java.util.Collection;
+
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ConditionEvents;
+
+/**
+ * The condition of a rule of this library, reporting the objects it checks and the events it adds
+ * to the {@link RuleMeter} of the evaluation, if the rule is measured.
+ *
+ * <p>
+ * It is the outermost condition of the rule, so that it counts the events as reported by the rule.
+ * When the rule is not measured, it only delegates to the wrapped condition.
+ * </p>
+ *
+ * <p>
+ * It also records the {@link JfrEvents.ConditionEvaluation} and {@link JfrEvents.ConditionCheck} events of the condition,
+ * whatever evaluates the rule, and drops the event of an evaluation failing before its end.
+ * </p>
+ *
+ * <p>
+ * When the rule is evaluated with a {@link ViolationBudget}, it stops checking the objects once the budget is exhausted,
+ * and drops the violations above it.
+ * </p>
+ *
+ * @param <T> the type of the checked objects.
+ */
+final class MeteredCondition<T> extends ArchCondition<T> {
+
+	private final ArchCondition<T> condition;
+	/**
+	 * The event of the evaluation in progress on the current thread, the same rule being possibly evaluated by several threads.
+	 */
+	private final ThreadLocal<JfrEvents.ConditionEvaluation> evaluationEvent = new ThreadLocal<>();
+
+	private MeteredCondition(ArchCondition<T> condition) {
+		super("%s", condition.getDescription());
+		this.condition = condition;
+	}
+
+	static <T> ArchCondition<T> metered(ArchCondition<T> condition) {
+		return new MeteredCondition<>(condition);
+	}
+
+	@Override
+	public void init(Collection<T> allObjectsToTest) {
+		RuleMeter meter = RuleMeter.current();
+		if (meter != null) {
+			meter.instrumented();
+		}
+		ViolationBudget.RuleSpending budget = ViolationBudget.current();
+		if (budget != null) {
+			budget.instrumented();
+		}
+		JfrEvents.ConditionEvaluation event = beginEvaluation(allObjectsToTest.size());
+		if (event != null) {
+			evaluationEvent.set(event);
+		}
+		boolean initialized = false;
+		try {
+			condition.init(allObjectsToTest);
+			initialized = true;
+		} finally {
+			if (!initialized) {
+				evaluationEvent.remove();
+			}
+		}
+	}
+
+	@Override
+	public void check(T item, ConditionEvents events) {
+		ViolationBudget.RuleSpending budget = ViolationBudget.current();
+		if (budget != null && budget.isExhausted()) {
+			budget.skip(events);
+			return;
+		}
+		RuleMeter meter = RuleMeter.current();
+		if (meter != null) {
+			meter.checked();
+		}
+		JfrEvents.ConditionCheck event = beginCheck();
+		boolean checked = false;
+		try {
+			condition.check(item, counted(events, meter, budget));
+			checked = true;
+		} finally {
+			if (!checked) {
+				// The evaluation of the rule fails, and finish will not be called
+				evaluationEvent.remove();
+			}
+			endCheck(event, getDescription(), item);
+		}
+	}
+
+	@Override
+	public void finish(ConditionEvents events) {
+		JfrEvents.ConditionEvaluation event = evaluationEvent.get();
+		evaluationEvent.remove();
+		try {
+			condition.finish(counted(events, RuleMeter.current(), ViolationBudget.current()));
+		} finally {
+			endEvaluation(event, getDescription(), events);
+		}
+	}
+
+	/**
+	 * @return the started event of the evaluation of a condition, or {@code null} if it is not recorded.
+	 */
+	static JfrEvents.ConditionEvaluation beginEvaluation(int checkedObjects) {
+		JfrEvents.ConditionEvaluation event = new JfrEvents.ConditionEvaluation();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.checkedObjects = checkedObjects;
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * @param event the event returned by {@link #beginEvaluation(int)}.
+	 */
+	static void endEvaluation(JfrEvents.ConditionEvaluation event, String condition, ConditionEvents events) {
+		if (event != null) {
+			event.end();
+			if (event.shouldCommit()) {
+				event.condition = condition;
+				event.violations = events.getViolating().size();
+				event.commit();
+			}
+		}
+	}
+
+	static JfrEvents.ConditionCheck beginCheck() {
+		JfrEvents.ConditionCheck event = new JfrEvents.ConditionCheck();
+		event.begin();
+		return event;
+	}
+
+	static void endCheck(JfrEvents.ConditionCheck event, String condition, Object checkedObject) {
+		event.end();
+		if (event.shouldCommit()) {
+			event.condition = condition;
+			event.checkedObject = String.valueOf(checkedObject);
+			event.commit();
+		}
+	}
+
+	/**
+	 * @return the given events, counted by the meter, then by the budget which drops the violations above it.
+	 */
+	private static ConditionEvents counted(ConditionEvents events, RuleMeter meter, ViolationBudget.RuleSpending budget) {
+		ConditionEvents countedEvents = meter == null ? events : meter.counting(events);
+		return budget == null ? countedEvents : budget.counting(countedEvents);
+	}
+}
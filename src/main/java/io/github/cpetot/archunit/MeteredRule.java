@@ -0,0 +1,89 @@
+package io.github.cpetot.archunit;
+
+import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
+
+import java.util.function.Consumer;
+
+import com.tngtech.archunit.PublicAPI;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.EvaluationResult;
+
+/**
+ * A rule measuring its evaluation, and giving its {@link RuleMetrics} to a listener each time it is evaluated.
+ *
+ * <p>
+ * It measures any rule, evaluated on its own or in a {@link RuleSuite}, without changing its result.
+ * To measure all the rules of a suite, see {@link RuleSuite#withMetricsListener(RuleMetricsListener)}.
+ * </p>
+ *
+ * <div>
+ * Example :
+ * <pre>{@code
+ * &#64;AnalyzeClasses(packages = "org.example")
+ * class MyCodingRulesTest {
+ *
+ * 	&#64;ArchTest
+ * 	private ArchRule no_junit_4 = MeteredRule.of(NO_CLASSES_SHOULD_USE_JUNIT_4, metrics -> LOGGER.info("{}", metrics));
+ * }
+ * }</pre>
+ * </div>
+ */
+@PublicAPI(usage = ACCESS)
+public final class MeteredRule implements ArchRule {
+
+	private final ArchRule rule;
+	private final Consumer<? super RuleMetrics> listener;
+
+	private MeteredRule(ArchRule rule, Consumer<? super RuleMetrics> listener) {
+		this.rule = rule;
+		this.listener = listener;
+	}
+
+	/**
+	 * @param rule the rule to measure.
+	 * @param listener receives the metrics of the rule, on the thread evaluating it, before any violation is reported.
+	 * @return the given rule, measured.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static MeteredRule of(ArchRule rule, Consumer<? super RuleMetrics> listener) {
+		return new MeteredRule(rule, listener);
+	}
+
+	@Override
+	public void check(JavaClasses classes) {
+		Assertions.assertNoViolation(evaluate(classes));
+	}
+
+	@Override
+	public EvaluationResult evaluate(JavaClasses classes) {
+		RuleMeter.Measured measured = RuleMeter.measure(rule, () -> rule.evaluate(classes));
+		listener.accept(measured.metrics());
+		return measured.result();
+	}
+
+	@Override
+	public MeteredRule because(String reason) {
+		return new MeteredRule(rule.because(reason), listener);
+	}
+
+	@Override
+	public MeteredRule allowEmptyShould(boolean allowEmptyShould) {
+		return new MeteredRule(rule.allowEmptyShould(allowEmptyShould), listener);
+	}
+
+	@Override
+	public MeteredRule as(String newDescription) {
+		return new MeteredRule(rule.as(newDescription), listener);
+	}
+
+	@Override
+	public String getDescription() {
+		return rule.getDescription();
+	}
+
+	@Override
+	public String toString() {
+		return getDescription();
+	}
+}
@@ -0,0 +1,243 @@
+package io.github.cpetot.archunit;
+
+import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+import com.tngtech.archunit.PublicAPI;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.core.importer.Location;
+
+/**
+ * An importer of many class directories and jars, like the output directories of the modules of a build,
+ * evaluating its {@link ImportOption ImportOptions} in parallel before importing the locations together.
+ *
+ * <p>
+ * Only the filtering of the class files is parallel : the class files of the locations are listed and filtered
+ * by the import options in a dedicated pool, one location per task, so that the expensive options,
+ * like {@link ConstantPoolPrefilter}, run concurrently. The locations are then imported by a single {@link ClassFileImporter},
+ * giving one {@link JavaClasses} in which the classes of all the locations refer to each other : ArchUnit cannot merge
+ * several imports, so the class files are parsed by a single thread, as by a {@link ClassFileImporter}.
+ * Without import options, nothing is done in parallel.
+ * </p>
+ *
+ * <div>
+ * Example :
+ * <pre>{@code
+ * JavaClasses classes = new ParallelImporter()
+ * 	.withImportOptions(new ImportOption.DoNotIncludeTests())
+ * 	.importPaths(List.of(Path.of("orders/target/classes"), Path.of("billing/target/classes"), Path.of("libs/shared.jar")));
+ * }</pre>
+ * </div>
+ */
+public final class ParallelImporter {
+
+	private static final String CLASS_FILE_EXTENSION = ".class";
+	private static final String JAR_SEPARATOR = "!/";
+
+	private final int parallelism;
+	private final List<ImportOption> importOptions;
+
+	/**
+	 * Creates an importer using as many threads as available processors to evaluate the import options, without import options.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public ParallelImporter() {
+		this(Runtime.getRuntime().availableProcessors(), List.of());
+	}
+
+	private ParallelImporter(int parallelism, List<ImportOption> importOptions) {
+		this.parallelism = parallelism;
+		this.importOptions = List.copyOf(importOptions);
+	}
+
+	/**
+	 * @param parallelism the maximum number of locations filtered by the import options at the same time.
+	 * @return a new importer with the given parallelism.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public ParallelImporter withParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("The parallelism must be at least 1, got " + parallelism);
+		}
+		return new ParallelImporter(parallelism, importOptions);
+	}
+
+	/**
+	 * @param importOptions the options selecting the imported class files, evaluated in parallel.
+	 * @return a new importer, with the given options added to the options of this one.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public ParallelImporter withImportOptions(ImportOption... importOptions) {
+		List<ImportOption> newOptions = new ArrayList<>(this.importOptions);
+		newOptions.addAll(List.of(importOptions));
+		return new ParallelImporter(parallelism, newOptions);
+	}
+
+	/**
+	 * @param paths class directories and jars.
+	 * @return the classes of all the given locations, imported together.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public JavaClasses importPaths(Collection<Path> paths) {
+		List<Path> locations = paths.stream().map(path -> path.toAbsolutePath().normalize()).toList();
+		ClassFileImporter importer = new ClassFileImporter();
+		if (!importOptions.isEmpty()) {
+			Set<String> excludedClassFiles = scan(locations);
+			importer = importer.withImportOption(location -> !isClassFile(location.asURI()) || !excludedClassFiles.contains(keyOf(location.asURI())));
+		}
+		return importer.importLocations(locations.stream().map(ParallelImporter::locationOf).toList());
+	}
+
+	private static Location locationOf(Path path) {
+		if (Files.isDirectory(path)) {
+			return Location.of(path);
+		}
+		try (JarFile jar = new JarFile(path.toFile())) {
+			return Location.of(jar);
+		} catch (IOException e) {
+			throw new UncheckedIOException("The location " + path + " is neither a directory nor a jar", e);
+		}
+	}
+
+	/**
+	 * @return the keys of the class files excluded by the import options.
+	 */
+	private Set<String> scan(List<Path> locations) {
+		JfrEvents.ImportPhase event = new JfrEvents.ImportPhase();
+		event.begin();
+		Set<String> excludedClassFiles = ConcurrentHashMap.newKeySet();
+		AtomicInteger classFiles = new AtomicInteger();
+		ForkJoinPool pool = newPool(Math.min(parallelism, Math.max(locations.size(), 1)));
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (Path location : locations) {
+				futures.add(pool.submit(() -> scan(location, excludedClassFiles, classFiles)));
+			}
+			for (Future<?> future : futures) {
+				join(future);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		event.end();
+		if (event.shouldCommit()) {
+			event.phase = "class file scan";
+			event.classes = classFiles.get();
+			event.commit();
+		}
+		return excludedClassFiles;
+	}
+
+	private void scan(Path location, Set<String> excludedClassFiles, AtomicInteger classFiles) {
+		try {
+			if (Files.isDirectory(location)) {
+				try (Stream<Path> files = Files.walk(location)) {
+					files.filter(file -> file.getFileName().toString().endsWith(CLASS_FILE_EXTENSION)).forEach(file -> {
+						classFiles.incrementAndGet();
+						URI uri = file.toUri();
+						if (!isIncluded(uri)) {
+							excludedClassFiles.add(keyOf(uri));
+						}
+					});
+				}
+			} else if (Files.isRegularFile(location)) {
+				try (JarFile jar = new JarFile(location.toFile())) {
+					Enumeration<JarEntry> entries = jar.entries();
+					while (entries.hasMoreElements()) {
+						String entryName = entries.nextElement().getName();
+						if (entryName.endsWith(CLASS_FILE_EXTENSION)) {
+							classFiles.incrementAndGet();
+							URI uri = URI.create("jar:" + location.toUri() + JAR_SEPARATOR + entryName);
+							if (!isIncluded(uri)) {
+								excludedClassFiles.add(keyOf(uri));
+							}
+						}
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("The location " + location + " cannot be scanned", e);
+		}
+	}
+
+	private boolean isIncluded(URI classFile) {
+		Location location = Location.of(classFile);
+		return importOptions.stream().allMatch(option -> option.includes(location));
+	}
+
+	private static boolean isClassFile(URI uri) {
+		return uri.toString().endsWith(CLASS_FILE_EXTENSION);
+	}
+
+	/**
+	 * @return the same key for the different URIs of a class file, like {@code file:/a} and {@code file:///a}.
+	 */
+	static String keyOf(URI classFile) {
+		if ("jar".equals(classFile.getScheme())) {
+			String jarUri = classFile.getRawSchemeSpecificPart();
+			int separator = jarUri.indexOf(JAR_SEPARATOR);
+			return Path.of(URI.create(jarUri.substring(0, separator))) + JAR_SEPARATOR + jarUri.substring(separator + JAR_SEPARATOR.length());
+		}
+		if ("file".equals(classFile.getScheme())) {
+			return Path.of(classFile).toString();
+		}
+		return classFile.toString();
+	}
+
+	/**
+	 * The workers use the class loader of the calling thread, like {@link RuleSuite}.
+	 */
+	private static ForkJoinPool newPool(int parallelism) {
+		ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		return new ForkJoinPool(
+			parallelism,
+			pool -> {
+				ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+				worker.setName("archunit-importer-" + worker.getPoolIndex());
+				worker.setContextClassLoader(contextClassLoader);
+				return worker;
+			},
+			null,
+			false
+		);
+	}
+
+	private static void join(Future<?> future) {
+		try {
+			future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while scanning the locations", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (cause instanceof Error error) {
+				throw error;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package io.github.cpetot.archunit;
+
+import java.util.function.Supplier;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.EvaluationResult;
+
+/**
+ * A rule of this library, recording a {@link JfrEvents.RuleEvaluation} event for each of its evaluations,
+ * whatever evaluates it : {@link ArchRule#check(JavaClasses)}, an {@code @ArchTest} or a {@link MeteredRule}.
+ *
+ * <p>
+ * A rule evaluated by a {@link RuleSuite} is recorded by the suite instead, with the number of rules evaluated together.
+ * The rules derived from it, with {@link #because(String)} for instance, are recorded too.
+ * The event of an evaluation failing before its end is dropped.
+ * </p>
+ */
+final class RecordedRule implements ArchRule {
+
+	/**
+	 * Set while a {@link RuleSuite} evaluates the rules on the current thread, the suite recording them.
+	 */
+	private static final ThreadLocal<Boolean> EVALUATED_BY_A_SUITE = new ThreadLocal<>();
+
+	private final ArchRule rule;
+
+	private RecordedRule(ArchRule rule) {
+		this.rule = rule;
+	}
+
+	static ArchRule recorded(ArchRule rule) {
+		return new RecordedRule(rule);
+	}
+
+	/**
+	 * Runs the evaluation of rules by a {@link RuleSuite}, the rules of this library not recording themselves.
+	 */
+	static <T> T evaluatedByASuite(Supplier<T> evaluation) {
+		Boolean previous = EVALUATED_BY_A_SUITE.get();
+		EVALUATED_BY_A_SUITE.set(Boolean.TRUE);
+		try {
+			return evaluation.get();
+		} finally {
+			if (previous == null) {
+				EVALUATED_BY_A_SUITE.remove();
+			}
+		}
+	}
+
+	@Override
+	public void check(JavaClasses classes) {
+		Assertions.assertNoViolation(evaluate(classes));
+	}
+
+	@Override
+	public EvaluationResult evaluate(JavaClasses classes) {
+		if (EVALUATED_BY_A_SUITE.get() != null) {
+			return rule.evaluate(classes);
+		}
+		JfrEvents.RuleEvaluation event = new JfrEvents.RuleEvaluation();
+		event.begin();
+		EvaluationResult result = rule.evaluate(classes);
+		event.end();
+		if (event.shouldCommit()) {
+			event.rule = getDescription();
+			event.importedClasses = classes.size();
+			event.violations = result.getFailureReport().getDetails().size();
+			event.fusedRules = 1;
+			event.commit();
+		}
+		return result;
+	}
+
+	@Override
+	public ArchRule because(String reason) {
+		return new RecordedRule(rule.because(reason));
+	}
+
+	@Override
+	public ArchRule allowEmptyShould(boolean allowEmptyShould) {
+		return new RecordedRule(rule.allowEmptyShould(allowEmptyShould));
+	}
+
+	@Override
+	public ArchRule as(String newDescription) {
+		return new RecordedRule(rule.as(newDescription));
+	}
+
+	@Override
+	public String getDescription() {
+		return rule.getDescription();
+	}
+
+	@Override
+	public String toString() {
+		return getDescription();
+	}
+}
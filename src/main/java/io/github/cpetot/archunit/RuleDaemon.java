@@ -0,0 +1,356 @@
+package io.github.cpetot.archunit;
+
+import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.ref.SoftReference;
+import java.net.ConnectException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import jdk.net.ExtendedSocketOptions;
+
+import com.tngtech.archunit.PublicAPI;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.lang.EvaluationResult;
+
+/**
+ * A long-lived process checking rules on demand, keeping its JVM warm and the classes it imported, like the Gradle daemon.
+ *
+ * <p>
+ * The daemon listens on a Unix domain socket. Each request, sent by a {@link RuleDaemonClient} like the Maven plugin
+ * of this project, gives the classes declaring the rules, see {@link RuleSuite#ofRulesDeclaredIn(Class...)},
+ * and the class directories or jars to check. The locations are imported together, without import options,
+ * and the import is kept for the next requests on the same locations, until one of their class files changes
+ * or the memory is low. The classes declaring the rules, and the classes they need, like the Spring annotations,
+ * must be on the classpath of the daemon.
+ * </p>
+ *
+ * <p>
+ * A request makes the daemon initialize classes and read directories : the socket is only readable and writable
+ * by the user running the daemon, and the connections of the other users are refused when the platform gives their credentials.
+ * </p>
+ *
+ * <div>
+ * Example :
+ * <pre>{@code
+ * java -cp archunit-rules.jar:archunit.jar:spring-context.jar:spring-tx.jar:jakarta.persistence-api.jar \
+ * 	io.github.cpetot.archunit.RuleDaemon /tmp/archunit-rules.sock
+ * }</pre>
+ * </div>
+ */
+public final class RuleDaemon implements Closeable {
+
+	static final String CHECK = "CHECK";
+	static final String STOP = "STOP";
+	static final String RULES = "RULES ";
+	static final String LOCATION = "LOCATION ";
+	static final String PASSED = "PASSED";
+	static final String FAILED = "FAILED";
+	static final String ERROR = "ERROR ";
+	static final String END = "END";
+
+	/**
+	 * The maximum number of requests served at the same time, the next ones being served by the thread accepting the connections,
+	 * which stops accepting them meanwhile.
+	 */
+	private static final int MAX_CONCURRENT_REQUESTS = Runtime.getRuntime().availableProcessors();
+	/**
+	 * The maximum number of imports kept, the least recently used ones being released first.
+	 */
+	private static final int MAX_IMPORTS = 4;
+
+	private final Path socket;
+	private final Object socketKey;
+	private final UserPrincipal owner;
+	private final ServerSocketChannel server;
+	private final ExecutorService connections;
+	private final Map<List<Path>, ImportedLocations> imports = new LinkedHashMap<>(MAX_IMPORTS, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<List<Path>, ImportedLocations> eldest) {
+			return size() > MAX_IMPORTS;
+		}
+	};
+	private final AtomicInteger importCount = new AtomicInteger();
+
+	private RuleDaemon(Path socket, ServerSocketChannel server) throws IOException {
+		this.socket = socket;
+		this.socketKey = socketAttributes(socket).fileKey();
+		this.owner = Files.getOwner(socket, LinkOption.NOFOLLOW_LINKS);
+		this.server = server;
+		AtomicInteger threadCount = new AtomicInteger();
+		this.connections = new ThreadPoolExecutor(0, MAX_CONCURRENT_REQUESTS, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+			runnable -> {
+				Thread thread = new Thread(runnable, "archunit-rules-daemon-" + threadCount.getAndIncrement());
+				thread.setDaemon(true);
+				return thread;
+			},
+			new ThreadPoolExecutor.CallerRunsPolicy()
+		);
+	}
+
+	/**
+	 * Starts a daemon on the given socket, then serves the requests until it is stopped.
+	 *
+	 * @param args the path of the socket.
+	 * @throws IOException if the socket cannot be opened.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static void main(String[] args) throws IOException {
+		if (args.length != 1) {
+			throw new IllegalArgumentException("Usage : RuleDaemon <socket path>");
+		}
+		try (RuleDaemon daemon = listen(Path.of(args[0]))) {
+			daemon.run();
+		}
+	}
+
+	/**
+	 * @param socket the path of the socket, replaced if it is the socket of a daemon which is not running anymore.
+	 * @return a daemon listening on the given socket, serving the requests once {@link #run() run}.
+	 * @throws IOException if the socket cannot be opened, if the path is another kind of file, or if a daemon listens on it.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static RuleDaemon listen(Path socket) throws IOException {
+		deleteStaleSocket(socket);
+		ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+		try {
+			server.bind(UnixDomainSocketAddress.of(socket));
+			PosixFileAttributeView permissions = Files.getFileAttributeView(socket, PosixFileAttributeView.class);
+			if (permissions != null) {
+				permissions.setPermissions(PosixFilePermissions.fromString("rw-------"));
+			}
+			return new RuleDaemon(socket, server);
+		} catch (IOException | RuntimeException e) {
+			server.close();
+			throw e;
+		}
+	}
+
+	private static void deleteStaleSocket(Path socket) throws IOException {
+		BasicFileAttributes attributes;
+		try {
+			attributes = socketAttributes(socket);
+		} catch (NoSuchFileException e) {
+			return;
+		}
+		// A socket is neither a regular file, a directory nor a link
+		if (!attributes.isOther()) {
+			throw new IOException("The path " + socket + " exists and is not a socket");
+		}
+		try (SocketChannel connection = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+			connection.connect(UnixDomainSocketAddress.of(socket));
+			throw new IOException("A daemon already listens on " + socket);
+		} catch (ConnectException e) {
+			Files.delete(socket);
+		}
+	}
+
+	private static BasicFileAttributes socketAttributes(Path socket) throws IOException {
+		return Files.readAttributes(socket, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+	}
+
+	/**
+	 * Serves the requests, each connection on its own thread, until the daemon is stopped by a request or {@link #close() closed}.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public void run() {
+		while (server.isOpen()) {
+			SocketChannel connection;
+			try {
+				connection = server.accept();
+			} catch (AsynchronousCloseException e) {
+				return;
+			} catch (IOException e) {
+				throw new UncheckedIOException("The daemon cannot accept connections on " + socket, e);
+			}
+			connections.submit(() -> serve(connection));
+		}
+	}
+
+	private void serve(SocketChannel connection) {
+		try (connection;
+			BufferedReader reader = new BufferedReader(Channels.newReader(connection, StandardCharsets.UTF_8));
+			Writer writer = Channels.newWriter(connection, StandardCharsets.UTF_8)) {
+			if (!isFromOwner(connection)) {
+				writeLine(writer, ERROR + "The daemon only serves the user running it");
+				writeLine(writer, END);
+				return;
+			}
+			String command = reader.readLine();
+			if (STOP.equals(command)) {
+				writeLine(writer, PASSED);
+				writer.flush();
+				close();
+				return;
+			}
+			List<String> rulesHolders = new ArrayList<>();
+			List<Path> locations = new ArrayList<>();
+			for (String line = reader.readLine(); line != null && !line.isEmpty(); line = reader.readLine()) {
+				if (line.startsWith(RULES)) {
+					rulesHolders.add(line.substring(RULES.length()));
+				} else if (line.startsWith(LOCATION)) {
+					locations.add(Path.of(line.substring(LOCATION.length())).toAbsolutePath().normalize());
+				}
+			}
+			try {
+				if (!CHECK.equals(command)) {
+					throw new IllegalArgumentException("Unknown command " + command);
+				}
+				EvaluationResult result = check(rulesHolders, locations);
+				writeLine(writer, result.hasViolation() ? FAILED : PASSED);
+				if (result.hasViolation()) {
+					for (String reportLine : result.getFailureReport().toString().split("\\R")) {
+						writeLine(writer, reportLine);
+					}
+				}
+			} catch (RuntimeException | LinkageError | AssertionError e) {
+				// Reported to the client, the daemon serving the next requests
+				writeLine(writer, ERROR + String.valueOf(e).replaceAll("\\R", " "));
+			}
+			writeLine(writer, END);
+		} catch (IOException e) {
+			// The client is gone, nothing to report to
+		}
+	}
+
+	/**
+	 * @return {@code true} if the client is run by the same user as the daemon, or if the platform does not give its credentials.
+	 */
+	private boolean isFromOwner(SocketChannel connection) throws IOException {
+		if (!connection.supportedOptions().contains(ExtendedSocketOptions.SO_PEERCRED)) {
+			return true;
+		}
+		return connection.getOption(ExtendedSocketOptions.SO_PEERCRED).user().equals(owner);
+	}
+
+	private static void writeLine(Writer writer, String line) throws IOException {
+		writer.write(line);
+		writer.write('\n');
+	}
+
+	private EvaluationResult check(List<String> rulesHolders, List<Path> locations) {
+		if (rulesHolders.isEmpty() || locations.isEmpty()) {
+			throw new IllegalArgumentException("A check needs the classes declaring the rules and the locations to check");
+		}
+		Class<?>[] holders = new Class<?>[rulesHolders.size()];
+		for (int i = 0; i < holders.length; i++) {
+			try {
+				holders[i] = Class.forName(rulesHolders.get(i));
+			} catch (ClassNotFoundException e) {
+				throw new IllegalArgumentException("The class " + rulesHolders.get(i) + " is not on the classpath of the daemon", e);
+			}
+		}
+		return RuleSuite.ofRulesDeclaredIn(holders).evaluate(classesOf(locations));
+	}
+
+	/**
+	 * @return the classes of the given locations, imported again only if one of their class files has changed.
+	 */
+	private JavaClasses classesOf(List<Path> locations) {
+		String state = stateOf(locations);
+		ImportedLocations imported;
+		synchronized (imports) {
+			imported = imports.get(locations);
+		}
+		JavaClasses classes = imported == null || !imported.state().equals(state) ? null : imported.classes().get();
+		if (classes == null) {
+			classes = new ParallelImporter().importPaths(locations);
+			importCount.incrementAndGet();
+			synchronized (imports) {
+				// Replaces an outdated or released import
+				imports.put(locations, new ImportedLocations(state, new SoftReference<>(classes)));
+			}
+		}
+		return classes;
+	}
+
+	/**
+	 * @return the number, the total size and the last modification time of the class files of the locations.
+	 */
+	private static String stateOf(List<Path> locations) {
+		StringBuilder state = new StringBuilder();
+		for (Path location : locations) {
+			long[] files = new long[3];
+			try (Stream<Path> paths = Files.isDirectory(location) ? Files.walk(location) : Stream.of(location)) {
+				paths.filter(Files::isRegularFile).forEach(path -> {
+					try {
+						files[0]++;
+						files[1] += Files.size(path);
+						files[2] = Math.max(files[2], Files.getLastModifiedTime(path).toMillis());
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			} catch (IOException e) {
+				throw new UncheckedIOException("The location " + location + " cannot be read", e);
+			}
+			state.append(files[0]).append(':').append(files[1]).append(':').append(files[2]).append(';');
+		}
+		return state.toString();
+	}
+
+	/**
+	 * @return the number of imports done since the daemon was started.
+	 */
+	int importCount() {
+		return importCount.get();
+	}
+
+	/**
+	 * @return the number of imports kept.
+	 */
+	int keptImportCount() {
+		synchronized (imports) {
+			return imports.size();
+		}
+	}
+
+	/**
+	 * Stops the daemon, the requests being served completing normally.
+	 */
+	@Override
+	public void close() throws IOException {
+		server.close();
+		connections.shutdown();
+		try {
+			// The path may have been replaced since, by another daemon for instance
+			if (Objects.equals(socketAttributes(socket).fileKey(), socketKey)) {
+				Files.delete(socket);
+			}
+		} catch (NoSuchFileException e) {
+			// Already deleted
+		}
+	}
+
+	private record ImportedLocations(String state, SoftReference<JavaClasses> classes) {
+	}
+}
@@ -0,0 +1,89 @@
+package io.github.cpetot.archunit;
+
+import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.tngtech.archunit.PublicAPI;
+
+/**
+ * The client of a {@link RuleDaemon}, sending it the rules and the locations to check.
+ *
+ * <p>
+ * It only uses the JDK, so that the clients, like the Maven plugin of this project, do not need ArchUnit on their classpath.
+ * </p>
+ */
+public final class RuleDaemonClient {
+
+	private final Path socket;
+
+	/**
+	 * @param socket the path of the socket the daemon listens on.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public RuleDaemonClient(Path socket) {
+		this.socket = socket;
+	}
+
+	/**
+	 * @param rulesHolders the names of the classes declaring the rules, on the classpath of the daemon.
+	 * @param locations the class directories and jars to check.
+	 * @return the lines of the failure report, empty if there is no violation.
+	 * @throws IOException if the daemon cannot be reached.
+	 * @throws IllegalStateException if the daemon could not check the rules.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public List<String> check(List<String> rulesHolders, List<Path> locations) throws IOException {
+		List<String> request = new ArrayList<>();
+		request.add(RuleDaemon.CHECK);
+		rulesHolders.forEach(rulesHolder -> request.add(RuleDaemon.RULES + rulesHolder));
+		locations.forEach(location -> request.add(RuleDaemon.LOCATION + location.toAbsolutePath()));
+		request.add("");
+		return send(request);
+	}
+
+	/**
+	 * Stops the daemon.
+	 *
+	 * @throws IOException if the daemon cannot be reached.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public void stop() throws IOException {
+		send(List.of(RuleDaemon.STOP));
+	}
+
+	private List<String> send(List<String> request) throws IOException {
+		try (SocketChannel connection = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+			connection.connect(UnixDomainSocketAddress.of(socket));
+			Writer writer = Channels.newWriter(connection, StandardCharsets.UTF_8);
+			for (String line : request) {
+				writer.write(line);
+				writer.write('\n');
+			}
+			writer.flush();
+			BufferedReader reader = new BufferedReader(Channels.newReader(connection, StandardCharsets.UTF_8));
+			String status = reader.readLine();
+			if (status == null) {
+				throw new IOException("The daemon on " + socket + " closed the connection without answering");
+			}
+			if (status.startsWith(RuleDaemon.ERROR)) {
+				throw new IllegalStateException("The daemon could not check the rules : " + status.substring(RuleDaemon.ERROR.length()));
+			}
+			List<String> report = new ArrayList<>();
+			for (String line = reader.readLine(); line != null && !line.equals(RuleDaemon.END); line = reader.readLine()) {
+				report.add(line);
+			}
+			return report;
+		}
+	}
+}
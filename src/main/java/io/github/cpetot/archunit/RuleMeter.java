@@ -0,0 +1,120 @@
+package io.github.cpetot.archunit;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvent;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.EvaluationResult;
+
+/**
+ * Measures the evaluation of a rule on the current thread.
+ *
+ * <p>
+ * Any rule is measured : its times, its allocations, and its violations, read from its result.
+ * While a rule is measured, the {@link MeteredCondition conditions of this library} also count
+ * the objects they check and the events they add in the {@link #current() current meter}.
+ * </p>
+ */
+final class RuleMeter {
+
+	private static final ThreadLocal<RuleMeter> CURRENT = new ThreadLocal<>();
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+	private long checkedObjects;
+	private long satisfiedEvents;
+	private long violatedEvents;
+	private boolean instrumented;
+
+	private RuleMeter() {
+	}
+
+	/**
+	 * @return the meter of the rule evaluated by the current thread, or {@code null} if it is not measured.
+	 */
+	static RuleMeter current() {
+		return CURRENT.get();
+	}
+
+	static Measured measure(ArchRule rule, Supplier<EvaluationResult> evaluation) {
+		RuleMeter meter = new RuleMeter();
+		RuleMeter previous = CURRENT.get();
+		CURRENT.set(meter);
+		long cpuTimeBefore = cpuTime();
+		long allocatedBytesBefore = allocatedBytes();
+		long wallTimeBefore = System.nanoTime();
+		EvaluationResult result;
+		try {
+			result = evaluation.get();
+		} finally {
+			CURRENT.set(previous);
+		}
+		long wallTime = System.nanoTime() - wallTimeBefore;
+		long allocatedBytesAfter = allocatedBytes();
+		long cpuTimeAfter = cpuTime();
+
+		long violations = meter.instrumented ? meter.violatedEvents : violatedEventsOf(result);
+		RuleMetrics metrics = new RuleMetrics(
+			rule.getDescription(),
+			Duration.ofNanos(wallTime),
+			cpuTimeBefore < 0 || cpuTimeAfter < 0 ? null : Duration.ofNanos(cpuTimeAfter - cpuTimeBefore),
+			allocatedBytesBefore < 0 || allocatedBytesAfter < 0 ? -1 : allocatedBytesAfter - allocatedBytesBefore,
+			meter.instrumented ? meter.checkedObjects : -1,
+			meter.instrumented ? meter.satisfiedEvents : -1,
+			violations
+		);
+		return new Measured(result, metrics);
+	}
+
+	/**
+	 * Counts the violations of any rule, as given to a {@link com.tngtech.archunit.lang.ViolationHandler ViolationHandler}.
+	 */
+	private static long violatedEventsOf(EvaluationResult result) {
+		long[] violations = {0};
+		result.handleViolations((Collection<Object> violatingObjects, String message) -> violations[0]++);
+		return violations[0];
+	}
+
+	private static long cpuTime() {
+		return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+	}
+
+	private static long allocatedBytes() {
+		if (THREADS instanceof com.sun.management.ThreadMXBean threads && threads.isThreadAllocatedMemoryEnabled()) {
+			return threads.getCurrentThreadAllocatedBytes();
+		}
+		return -1;
+	}
+
+	void instrumented() {
+		instrumented = true;
+	}
+
+	void checked() {
+		checkedObjects++;
+	}
+
+	/**
+	 * @return events counting the events added to the given ones.
+	 */
+	ConditionEvents counting(ConditionEvents events) {
+		return new ForwardingConditionEvents(events) {
+			@Override
+			public void add(ConditionEvent event) {
+				if (event.isViolation()) {
+					violatedEvents++;
+				} else {
+					satisfiedEvents++;
+				}
+				super.add(event);
+			}
+		};
+	}
+
+	record Measured(EvaluationResult result, RuleMetrics metrics) {
+	}
+}
@@ -0,0 +1,107 @@
+package io.github.cpetot.archunit;
+
+import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import com.tngtech.archunit.PublicAPI;
+
+/**
+ * The cost of the evaluation of a rule by a {@link RuleSuite} or a {@link MeteredRule}, and the number of objects and events it has checked.
+ *
+ * <p>
+ * The times and the allocated bytes are measured on the thread evaluating the rule, if the JVM supports it,
+ * and the violations are counted for any rule. The number of checked objects and of satisfied events are only known
+ * for the rules of this library counting them, the rules declared with {@code noClasses()} inverting the events of their condition.
+ * </p>
+ *
+ * @see RuleSuite#withMetricsListener(RuleMetricsListener)
+ * @see MeteredRule
+ */
+@PublicAPI(usage = ACCESS)
+public final class RuleMetrics {
+
+	private final String ruleDescription;
+	private final Duration wallTime;
+	private final Duration cpuTime;
+	private final long allocatedBytes;
+	private final long checkedObjects;
+	private final long satisfiedEvents;
+	private final long violatedEvents;
+
+	RuleMetrics(String ruleDescription, Duration wallTime, Duration cpuTime, long allocatedBytes,
+		long checkedObjects, long satisfiedEvents, long violatedEvents) {
+		this.ruleDescription = ruleDescription;
+		this.wallTime = wallTime;
+		this.cpuTime = cpuTime;
+		this.allocatedBytes = allocatedBytes;
+		this.checkedObjects = checkedObjects;
+		this.satisfiedEvents = satisfiedEvents;
+		this.violatedEvents = violatedEvents;
+	}
+
+	/**
+	 * @return the description of the evaluated rule.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public String getRuleDescription() {
+		return ruleDescription;
+	}
+
+	/**
+	 * @return the elapsed time of the evaluation.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public Duration getWallTime() {
+		return wallTime;
+	}
+
+	/**
+	 * @return the CPU time of the evaluation, if the JVM measures the CPU time of the threads.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public Optional<Duration> getCpuTime() {
+		return Optional.ofNullable(cpuTime);
+	}
+
+	/**
+	 * @return the bytes allocated by the evaluation, if the JVM measures the memory allocated by the threads.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public OptionalLong getAllocatedBytes() {
+		return allocatedBytes < 0 ? OptionalLong.empty() : OptionalLong.of(allocatedBytes);
+	}
+
+	/**
+	 * @return the number of objects given to the condition of the rule, if the rule counts them.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public OptionalLong getCheckedObjects() {
+		return checkedObjects < 0 ? OptionalLong.empty() : OptionalLong.of(checkedObjects);
+	}
+
+	/**
+	 * @return the number of satisfied events, if the rule counts them.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public OptionalLong getSatisfiedEvents() {
+		return satisfiedEvents < 0 ? OptionalLong.empty() : OptionalLong.of(satisfiedEvents);
+	}
+
+	/**
+	 * @return the number of violations.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public long getViolatedEvents() {
+		return violatedEvents;
+	}
+
+	@Override
+	public String toString() {
+		return "RuleMetrics{rule='" + ruleDescription + "', wallTime=" + wallTime + ", cpuTime=" + cpuTime
+			+ ", allocatedBytes=" + allocatedBytes + ", checkedObjects=" + checkedObjects
+			+ ", satisfiedEvents=" + satisfiedEvents + ", violatedEvents=" + violatedEvents + "}";
+	}
+}
@@ -0,0 +1,25 @@
+package io.github.cpetot.archunit;
+
+import static com.tngtech.archunit.PublicAPI.Usage.INHERITANCE;
+
+import java.util.List;
+
+import com.tngtech.archunit.PublicAPI;
+
+/**
+ * Receives the {@link RuleMetrics} of the rules of a {@link RuleSuite}, each time the suite is evaluated.
+ *
+ * @see RuleSuite#withMetricsListener(RuleMetricsListener)
+ */
+@PublicAPI(usage = INHERITANCE)
+@FunctionalInterface
+public interface RuleMetricsListener {
+
+	/**
+	 * Called on the thread evaluating the suite, once all its rules are evaluated, and before any violation is reported.
+	 *
+	 * @param suite the evaluated suite.
+	 * @param metrics the metrics of the rules, in the order of the rules.
+	 */
+	void onRulesEvaluated(RuleSuite suite, List<RuleMetrics> metrics);
+}
@@ -0,0 +1,92 @@
+package io.github.cpetot.archunit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Writes the {@link RuleMetrics} of a suite as a JSON file, one file per suite.
+ *
+ * <p>
+ * It is enabled for every {@link RuleSuite} by the system property {@value #REPORTS_DIRECTORY_PROPERTY},
+ * giving the directory of the reports, like the Surefire reports directory.
+ * </p>
+ */
+final class RuleMetricsReport implements RuleMetricsListener {
+
+	static final String REPORTS_DIRECTORY_PROPERTY = "archunit-rules.metrics.reportsDirectory";
+
+	private final Path reportsDirectory;
+
+	RuleMetricsReport(Path reportsDirectory) {
+		this.reportsDirectory = reportsDirectory;
+	}
+
+	/**
+	 * @return the report configured by the system property, if any.
+	 */
+	static Optional<RuleMetricsListener> fromSystemProperty() {
+		return Optional.ofNullable(System.getProperty(REPORTS_DIRECTORY_PROPERTY))
+			.filter(directory -> !directory.isBlank())
+			.map(directory -> new RuleMetricsReport(Path.of(directory)));
+	}
+
+	@Override
+	public void onRulesEvaluated(RuleSuite suite, List<RuleMetrics> metrics) {
+		String fileName = "archunit-rules-metrics-" + Integer.toHexString(suite.getDescription().hashCode()) + ".json";
+		try {
+			Files.createDirectories(reportsDirectory);
+			Files.writeString(reportsDirectory.resolve(fileName), toJson(suite, metrics), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot write the metrics report in " + reportsDirectory, e);
+		}
+	}
+
+	static String toJson(RuleSuite suite, List<RuleMetrics> metrics) {
+		StringBuilder json = new StringBuilder();
+		json.append("{\n  \"suite\": ").append(quote(suite.getDescription())).append(",\n  \"rules\": [");
+		for (int i = 0; i < metrics.size(); i++) {
+			RuleMetrics rule = metrics.get(i);
+			json.append(i == 0 ? "\n" : ",\n")
+				.append("    {\"rule\": ").append(quote(rule.getRuleDescription()))
+				.append(", \"wallTimeNanos\": ").append(rule.getWallTime().toNanos())
+				.append(", \"cpuTimeNanos\": ").append(rule.getCpuTime().map(cpuTime -> String.valueOf(cpuTime.toNanos())).orElse("null"))
+				.append(", \"allocatedBytes\": ").append(toJson(rule.getAllocatedBytes()))
+				.append(", \"checkedObjects\": ").append(toJson(rule.getCheckedObjects()))
+				.append(", \"satisfiedEvents\": ").append(toJson(rule.getSatisfiedEvents()))
+				.append(", \"violatedEvents\": ").append(rule.getViolatedEvents())
+				.append('}');
+		}
+		return json.append("\n  ]\n}\n").toString();
+	}
+
+	private static String toJson(OptionalLong value) {
+		return value.isPresent() ? String.valueOf(value.getAsLong()) : "null";
+	}
+
+	private static String quote(String value) {
+		StringBuilder quoted = new StringBuilder("\"");
+		for (char character : value.toCharArray()) {
+			switch (character) {
+				case '"' -> quoted.append("\\\"");
+				case '\\' -> quoted.append("\\\\");
+				case '\n' -> quoted.append("\\n");
+				case '\r' -> quoted.append("\\r");
+				case '\t' -> quoted.append("\\t");
+				default -> {
+					if (character < 0x20) {
+						quoted.append(String.format("\\u%04x", (int) character));
+					} else {
+						quoted.append(character);
+					}
+				}
+			}
+		}
+		return quoted.append('"').toString();
+	}
+}
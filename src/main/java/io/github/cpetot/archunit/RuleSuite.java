@@ -0,0 +1,491 @@
+package io.github.cpetot.archunit;
+
+import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.tngtech.archunit.PublicAPI;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.EvaluationResult;
+import com.tngtech.archunit.lang.Priority;
+
+/**
+ * A suite of {@link ArchRule ArchRules}, evaluated at the same time on one import of classes.
+ *
+ * <p>
+ * Like {@link com.tngtech.archunit.lang.CompositeArchRule CompositeArchRule}, the suite is a rule itself
+ * and gives one aggregated {@link EvaluationResult}, the violations being reported in the order of the rules.
+ * But the rules are evaluated in parallel, on a dedicated {@link ForkJoinPool}.
+ * The rules of this library checking the same classes, like the rules on the accesses to the repositories,
+ * are evaluated together, in a single pass over these classes.
+ * </p>
+ *
+ * <div>
+ * Example :
+ * <pre>{@code
+ * &#64;AnalyzeClasses(packages = "org.example")
+ * class MyCodingRulesTest {
+ *
+ * 	&#64;ArchTest
+ * 	private ArchRule coding_rules = RuleSuite.of(
+ * 		NO_CLASSES_SHOULD_USE_JUNIT_4,
+ * 		NO_CLASSES_SHOULD_USE_JAVA_UTIL_DATE,
+ * 		JPA_ENTITIES_HAVE_PUBLIC_EMPTY_CONSTRUCTOR,
+ * 		REPOSITORIES_ARE_ACCESSED_ONLY_BY_TRANSACTIONAL_METHODS_OR_CLASSES
+ * 	);
+ * }
+ * }</pre>
+ * </div>
+ *
+ * <p>
+ * The rules must be safe to evaluate concurrently, which is the case of the rules of this library
+ * and of the rules built with the ArchUnit API.
+ * </p>
+ */
+public final class RuleSuite implements ArchRule {
+
+	private final List<ArchRule> rules;
+	private final String description;
+	private final int parallelism;
+	private final Path incrementalCacheFile;
+	private final List<RuleMetricsListener> metricsListeners;
+	private final ViolationBudget violationBudget;
+
+	private RuleSuite(List<ArchRule> rules, String description, int parallelism, Path incrementalCacheFile,
+		List<RuleMetricsListener> metricsListeners, ViolationBudget violationBudget) {
+		this.rules = List.copyOf(rules);
+		this.description = description;
+		this.parallelism = parallelism;
+		this.incrementalCacheFile = incrementalCacheFile;
+		this.metricsListeners = List.copyOf(metricsListeners);
+		this.violationBudget = violationBudget;
+	}
+
+	/**
+	 * @param rules the rules of the suite.
+	 * @return a suite evaluating the given rules with as many threads as available processors.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static RuleSuite of(ArchRule... rules) {
+		return of(Arrays.asList(rules));
+	}
+
+	/**
+	 * @param rules the rules of the suite.
+	 * @return a suite evaluating the given rules with as many threads as available processors.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static RuleSuite of(Iterable<? extends ArchRule> rules) {
+		List<ArchRule> ruleList = new ArrayList<>();
+		rules.forEach(ruleList::add);
+		if (ruleList.isEmpty()) {
+			throw new IllegalArgumentException("A rule suite needs at least one rule");
+		}
+		return new RuleSuite(ruleList, describe(ruleList), Runtime.getRuntime().availableProcessors(), null, List.of(),
+			ViolationBudget.UNLIMITED);
+	}
+
+	/**
+	 * Creates a suite of all the public rules declared as constants in the given classes, like
+	 * {@code RuleSuite.ofRulesDeclaredIn(StandardCodingRules.class, SpringCodingRules.class, JpaCodingRules.class)}.
+	 *
+	 * @param rulesHolders the classes declaring the rules.
+	 * @return a suite evaluating the found rules with as many threads as available processors.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static RuleSuite ofRulesDeclaredIn(Class<?>... rulesHolders) {
+		List<ArchRule> rules = new ArrayList<>();
+		for (Class<?> rulesHolder : rulesHolders) {
+			for (Field field : rulesHolder.getFields()) {
+				if (Modifier.isStatic(field.getModifiers()) && ArchRule.class.isAssignableFrom(field.getType())) {
+					rules.add(readRule(field));
+				}
+			}
+		}
+		return of(rules);
+	}
+
+	private static ArchRule readRule(Field field) {
+		try {
+			return (ArchRule) field.get(null);
+		} catch (IllegalAccessException e) {
+			throw new IllegalArgumentException("The rule " + field + " cannot be read", e);
+		}
+	}
+
+	/**
+	 * @param rule the rule to add.
+	 * @return a new suite, with the given rule evaluated after the rules of this one.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public RuleSuite and(ArchRule rule) {
+		List<ArchRule> newRules = new ArrayList<>(rules);
+		newRules.add(rule);
+		return new RuleSuite(newRules, describe(newRules), parallelism, incrementalCacheFile, metricsListeners, violationBudget);
+	}
+
+	/**
+	 * @param parallelism the maximum number of rules evaluated at the same time, 1 to evaluate them one after another.
+	 * @return a new suite with the given parallelism.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public RuleSuite withParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("The parallelism must be at least 1, got " + parallelism);
+		}
+		return new RuleSuite(rules, description, parallelism, incrementalCacheFile, metricsListeners, violationBudget);
+	}
+
+	/**
+	 * Enables the incremental evaluation, meant for local development.
+	 *
+	 * <p>
+	 * The hash of each class file, and the violations found in each class, are saved in the given cache file.
+	 * At the next evaluation, the rules are only evaluated on the classes that have changed and on their direct dependents,
+	 * the violations of the other classes being read from the cache.
+	 * </p>
+	 *
+	 * <p>
+	 * It relies on the violations of a class only depending on this class and on the classes it directly depends on,
+	 * which is the case of most rules of this library. A rule following the calls through the whole import,
+	 * like {@link SpringCodingRules#REPOSITORIES_ARE_ACCESSED_ONLY_BY_TRANSACTIONAL_METHODS_OR_CLASSES_TRANSITIVELY}
+	 * or {@link JpaCodingRules#LIFE_CYCLE_CALLBACKS_DO_NOT_ACCESS_THE_DATABASE},
+	 * is always fully evaluated when some classes have changed or have been removed. So is a rule found to report violations that cannot be attributed to
+	 * a class. Since the rules are only evaluated on some classes, a rule that should not be empty
+	 * is not checked again once evaluated.
+	 * Delete the cache file to force a full evaluation, e.g. after upgrading this library.
+	 * </p>
+	 *
+	 * @param cacheFile the cache file, created if it does not exist, like {@code target/archunit-rules.cache}.
+	 * @return a new suite, evaluated incrementally.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public RuleSuite withIncrementalCache(Path cacheFile) {
+		return new RuleSuite(rules, description, parallelism, cacheFile, metricsListeners, violationBudget);
+	}
+
+	/**
+	 * Measures the evaluation of each rule, and gives the {@link RuleMetrics} of the rules to the given listener
+	 * each time the suite is evaluated.
+	 *
+	 * <p>
+	 * The measured rules are evaluated one by one, even the rules which are otherwise evaluated together.
+	 * The metrics can also be written as a JSON report, in the directory given by the system property
+	 * {@code archunit-rules.metrics.reportsDirectory}, like {@code target/surefire-reports}.
+	 * A single rule can also be measured on its own, with {@link MeteredRule}.
+	 * </p>
+	 *
+	 * @param listener the listener of the metrics.
+	 * @return a new suite, measuring its rules.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public RuleSuite withMetricsListener(RuleMetricsListener listener) {
+		List<RuleMetricsListener> newListeners = new ArrayList<>(metricsListeners);
+		newListeners.add(listener);
+		return new RuleSuite(rules, description, parallelism, incrementalCacheFile, newListeners, violationBudget);
+	}
+
+	/**
+	 * Stops the evaluation of each rule once it has found the given number of violations, the report telling it was stopped.
+	 *
+	 * <p>
+	 * The rules of this library stop checking the classes once their budget is exhausted.
+	 * The other rules are always fully evaluated.
+	 * </p>
+	 *
+	 * @param maxViolationsPerRule the maximum number of violations reported by each rule.
+	 * @return a new suite, stopping its rules after the given number of violations.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public RuleSuite withMaxViolationsPerRule(int maxViolationsPerRule) {
+		return new RuleSuite(rules, description, parallelism, incrementalCacheFile, metricsListeners,
+			violationBudget.withMaxViolationsPerRule(maxViolationsPerRule));
+	}
+
+	/**
+	 * Stops the evaluation of the whole suite once its rules have found the given number of violations,
+	 * the report telling it was stopped.
+	 *
+	 * <p>
+	 * The rules of this library stop checking the classes once the budget is exhausted, even the rules evaluated in parallel,
+	 * and the rules not started yet are not evaluated anymore. The violations of the other rules are counted once they are evaluated.
+	 * A suite evaluated with a cache, see {@link #withIncrementalCache(Path)}, does not update its cache when it is stopped.
+	 * </p>
+	 *
+	 * @param maxViolations the maximum number of violations reported by the suite.
+	 * @return a new suite, stopping after the given number of violations.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public RuleSuite withMaxViolations(int maxViolations) {
+		return new RuleSuite(rules, description, parallelism, incrementalCacheFile, metricsListeners,
+			violationBudget.withMaxViolations(maxViolations));
+	}
+
+	@Override
+	public void check(JavaClasses classes) {
+		Assertions.assertNoViolation(evaluate(classes));
+	}
+
+	@Override
+	public RuleSuite because(String reason) {
+		return new RuleSuite(rules, description + ", because " + reason, parallelism, incrementalCacheFile, metricsListeners, violationBudget);
+	}
+
+	@Override
+	public RuleSuite allowEmptyShould(boolean allowEmptyShould) {
+		List<ArchRule> newRules = rules.stream()
+			.map(rule -> rule.allowEmptyShould(allowEmptyShould))
+			.collect(Collectors.toList());
+		return new RuleSuite(newRules, description, parallelism, incrementalCacheFile, metricsListeners, violationBudget);
+	}
+
+	@Override
+	public RuleSuite as(String newDescription) {
+		return new RuleSuite(rules, newDescription, parallelism, incrementalCacheFile, metricsListeners, violationBudget);
+	}
+
+	@Override
+	public String getDescription() {
+		return description;
+	}
+
+	@Override
+	public EvaluationResult evaluate(JavaClasses classes) {
+		ViolationBudget.Spending budget = violationBudget.isUnlimited() ? null : violationBudget.startSpending();
+		List<EvaluationResult> ruleResults;
+		// The values computed for the import are shared by the rules, and released once they are evaluated
+		ImportScope scope = ImportScope.open(classes);
+		try {
+			ruleResults = evaluateRules(classes, budget);
+		} finally {
+			scope.close();
+		}
+		EvaluationResult result;
+		if (budget != null && budget.isTruncated()) {
+			ConditionEvents events = ConditionEvents.Factory.create();
+			int violations = ruleResults.stream().mapToInt(ruleResult -> ruleResult.getFailureReport().getDetails().size()).sum();
+			events.setInformationAboutNumberOfViolations(ViolationBudget.describeTruncation(violations));
+			result = new EvaluationResult(this, events, Priority.MEDIUM);
+		} else {
+			result = new EvaluationResult(this, Priority.MEDIUM);
+		}
+		for (EvaluationResult ruleResult : ruleResults) {
+			result.add(ruleResult);
+		}
+		return result;
+	}
+
+	/**
+	 * Evaluates the suite on classpaths too large to be imported at once, by importing one package tree, a shard, at a time.
+	 *
+	 * <p>
+	 * Each shard is imported, checked by every rule, then released, so that the memory needed is bounded by the largest shard.
+	 * The dependencies and the method calls between the shards are kept in a compact index, with the annotations of their origins,
+	 * so that the access rules of this library also check the accesses from the other shards, with the same violations
+	 * as if the classes were imported together. The classes outside of the shards are not checked.
+	 * </p>
+	 *
+	 * <p>
+	 * The other rules are evaluated on each shard on its own, so they should only read the checked classes and what these classes
+	 * depend on, and a rule that should not be empty is not checked. The conditions of this library needing the whole import,
+	 * like {@link SpringCodingRules#BE_ACCESSED_BY_TRANSACTIONAL_CLASSES_OR_METHODS_TRANSITIVELY} or {@link JpaCodingRules#NOT_ACCESS_THE_DATABASE},
+	 * are rejected whatever the rule using them, as are its access conditions used by other rules than its own,
+	 * since they would not check the accesses from the other shards.
+	 * The shards are evaluated one after another, without metrics, violation budget, or incremental cache.
+	 * </p>
+	 *
+	 * @param shardPackages the packages of the shards, like the modules of an application, none of them being in another one.
+	 * @param importOptions the options of the import of each shard.
+	 * @return the aggregated result of the rules.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public EvaluationResult evaluateByShards(List<String> shardPackages, ImportOption... importOptions) {
+		List<EvaluationResult> ruleResults = RecordedRule.evaluatedByASuite(new ShardedEvaluation(rules, shardPackages, importOptions)::evaluate);
+		EvaluationResult result = new EvaluationResult(this, Priority.MEDIUM);
+		for (EvaluationResult ruleResult : ruleResults) {
+			result.add(ruleResult);
+		}
+		return result;
+	}
+
+	/**
+	 * Same as {@link #evaluateByShards(List, ImportOption...)}, but fails with an {@link AssertionError} if there is any violation.
+	 *
+	 * @param shardPackages the packages of the shards, none of them being in another one.
+	 * @param importOptions the options of the import of each shard.
+	 */
+	@PublicAPI(usage = ACCESS)
+	public void checkByShards(List<String> shardPackages, ImportOption... importOptions) {
+		Assertions.assertNoViolation(evaluateByShards(shardPackages, importOptions));
+	}
+
+	private List<EvaluationResult> evaluateRules(JavaClasses classes, ViolationBudget.Spending budget) {
+		List<RuleMetricsListener> listeners = new ArrayList<>(metricsListeners);
+		RuleMetricsReport.fromSystemProperty().ifPresent(listeners::add);
+		if (incrementalCacheFile == null && listeners.isEmpty()) {
+			return evaluateAll(FusedRules.group(rules),
+				group -> recorded(group, classes, () -> FusedRules.evaluate(rulesAt(group), classes, budget)));
+		}
+
+		IncrementalCache cache = incrementalCacheFile == null ? null : IncrementalCache.load(incrementalCacheFile);
+		IncrementalCache.Changes changes = cache == null ? null : cache.detectChanges(classes);
+		Function<ArchRule, EvaluationResult> fullEvaluation = cache == null
+			? rule -> rule.evaluate(classes)
+			: rule -> cache.evaluate(rule, classes, changes);
+		Function<ArchRule, EvaluationResult> evaluation = budget == null
+			? fullEvaluation
+			: rule -> budget.evaluate(rule, () -> fullEvaluation.apply(rule));
+		// The rules evaluated incrementally are evaluated on different classes, and the measured rules are measured alone,
+		// so they are not fused
+		List<List<Integer>> singleRules = IntStream.range(0, rules.size())
+			.mapToObj(List::of)
+			.collect(Collectors.toList());
+		List<EvaluationResult> results;
+		if (listeners.isEmpty()) {
+			results = evaluateAll(singleRules, group -> recorded(group, classes, () -> List.of(evaluation.apply(rules.get(group.get(0))))));
+		} else {
+			RuleMetrics[] metrics = new RuleMetrics[rules.size()];
+			results = evaluateAll(singleRules, group -> {
+				ArchRule rule = rules.get(group.get(0));
+				return recorded(group, classes, () -> {
+					RuleMeter.Measured measured = RuleMeter.measure(rule, () -> evaluation.apply(rule));
+					metrics[group.get(0)] = measured.metrics();
+					return List.of(measured.result());
+				});
+			});
+			listeners.forEach(listener -> listener.onRulesEvaluated(this, List.of(metrics)));
+		}
+		if (cache != null && (budget == null || !budget.isTruncated())) {
+			cache.save(changes);
+		}
+		return results;
+	}
+
+	/**
+	 * Records a {@link JfrEvents.RuleEvaluation} event for each rule of a group, the rules evaluated together sharing the same duration.
+	 */
+	private List<EvaluationResult> recorded(List<Integer> group, JavaClasses classes, Supplier<List<EvaluationResult>> evaluation) {
+		JfrEvents.RuleEvaluation[] events = new JfrEvents.RuleEvaluation[group.size()];
+		for (int i = 0; i < events.length; i++) {
+			events[i] = new JfrEvents.RuleEvaluation();
+			events[i].begin();
+		}
+		List<EvaluationResult> groupResults = RecordedRule.evaluatedByASuite(evaluation);
+		for (int i = 0; i < events.length; i++) {
+			events[i].end();
+			if (events[i].shouldCommit()) {
+				events[i].rule = rules.get(group.get(i)).getDescription();
+				events[i].importedClasses = classes.size();
+				events[i].violations = groupResults.get(i).getFailureReport().getDetails().size();
+				events[i].fusedRules = group.size();
+				events[i].commit();
+			}
+		}
+		return groupResults;
+	}
+
+	/**
+	 * @param groups the indexes of the rules evaluated together.
+	 * @param evaluation evaluates a group of rules, from their indexes.
+	 * @return the results of the rules, in the order of the rules.
+	 */
+	private List<EvaluationResult> evaluateAll(List<List<Integer>> groups, Function<List<Integer>, List<EvaluationResult>> evaluation) {
+		EvaluationResult[] results = new EvaluationResult[rules.size()];
+		if (parallelism == 1 || groups.size() == 1) {
+			for (List<Integer> group : groups) {
+				collect(group, evaluation.apply(group), results);
+			}
+			return Arrays.asList(results);
+		}
+		ForkJoinPool pool = newPool(Math.min(parallelism, groups.size()));
+		try {
+			List<Future<List<EvaluationResult>>> futures = new ArrayList<>();
+			for (List<Integer> group : groups) {
+				futures.add(pool.submit(() -> evaluation.apply(group)));
+			}
+			for (int i = 0; i < groups.size(); i++) {
+				collect(groups.get(i), join(futures.get(i)), results);
+			}
+			return Arrays.asList(results);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private List<ArchRule> rulesAt(List<Integer> indexes) {
+		return indexes.stream().map(rules::get).collect(Collectors.toList());
+	}
+
+	private static void collect(List<Integer> indexes, List<EvaluationResult> groupResults, EvaluationResult[] results) {
+		for (int i = 0; i < indexes.size(); i++) {
+			results[indexes.get(i)] = groupResults.get(i);
+		}
+	}
+
+	/**
+	 * The workers use the class loader of the calling thread, like the rules evaluated sequentially.
+	 */
+	private static ForkJoinPool newPool(int parallelism) {
+		ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		return new ForkJoinPool(
+			parallelism,
+			pool -> {
+				ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+				worker.setName("archunit-rule-suite-" + worker.getPoolIndex());
+				worker.setContextClassLoader(contextClassLoader);
+				return worker;
+			},
+			null,
+			false
+		);
+	}
+
+	/**
+	 * Rethrows what the rule has thrown, e.g. the {@link AssertionError} of a rule that should not be empty,
+	 * as if it had been evaluated on the calling thread.
+	 */
+	private static <T> T join(Future<T> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while evaluating the rules", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (cause instanceof Error error) {
+				throw error;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	private static String describe(List<ArchRule> rules) {
+		return rules.stream()
+			.map(ArchRule::getDescription)
+			.collect(Collectors.joining(" and "));
+	}
+
+	@Override
+	public String toString() {
+		return getDescription();
+	}
+}
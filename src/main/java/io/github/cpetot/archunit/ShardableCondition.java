@@ -0,0 +1,32 @@
+package io.github.cpetot.archunit;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+
+import com.tngtech.archunit.lang.ConditionEvents;
+
+/**
+ * An {@link IncomingEdgesCondition} which can also check the edges from the other shards of a sharded evaluation,
+ * from a {@link CrossShardIndex}, so that a fusable rule using it gives the same violations by shards as on the whole import.
+ *
+ * @see ShardedEvaluation
+ */
+abstract class ShardableCondition extends IncomingEdgesCondition {
+
+	ShardableCondition(String description, Object... args) {
+		super(description, args);
+	}
+
+	/**
+	 * @return the annotations read on the origins of the edges from the other shards.
+	 */
+	abstract List<Class<? extends Annotation>> crossShardAnnotations();
+
+	/**
+	 * Checks the edges from the other shards to a class of a shard, once every shard is evaluated.
+	 *
+	 * @param className the name of the class, selected in its shard.
+	 * @param edges the edges from the other shards to this class.
+	 */
+	abstract void checkFromOtherShards(String className, CrossShardIndex.Edges edges, ConditionEvents events);
+}
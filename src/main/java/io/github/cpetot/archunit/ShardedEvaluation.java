@@ -0,0 +1,169 @@
+package io.github.cpetot.archunit;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.tngtech.archunit.base.DescribedPredicate;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.EvaluationResult;
+import com.tngtech.archunit.lang.Priority;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+
+/**
+ * An evaluation of rules on several package trees, the shards, imported one after another
+ * so that only one shard is in memory at a time.
+ *
+ * <p>
+ * Each rule is evaluated on each shard, the violations being kept as lines of text, then the shard is released.
+ * The edges between the shards are recorded in a {@link CrossShardIndex}, and the {@link ShardableCondition conditions}
+ * of the fusable rules check the edges from the other shards to the classes they selected once every shard is evaluated.
+ * The other rules only see their shard, so they should only read the classes and what these classes depend on.
+ * </p>
+ *
+ * <p>
+ * The conditions of this library reading the classes depending on the checked ones, like the {@link IncomingEdgesCondition conditions}
+ * which are not shardable or not evaluated by a fusable rule, need the whole import : they fail when evaluated on a shard.
+ * </p>
+ */
+final class ShardedEvaluation {
+
+	/**
+	 * The evaluation of the shard in progress on the current thread.
+	 */
+	private static final ThreadLocal<ShardedEvaluation> CURRENT = new ThreadLocal<>();
+
+	private final List<ArchRule> rules;
+	private final List<String> shardPackages;
+	private final ImportOption[] importOptions;
+
+	/**
+	 * The conditions of the fusable rules, {@code null} for the other rules.
+	 */
+	private final List<ShardableCondition> conditions = new ArrayList<>();
+	private final List<List<String>> violations = new ArrayList<>();
+	private final List<Set<String>> selectedClassNames = new ArrayList<>();
+
+	ShardedEvaluation(List<ArchRule> rules, List<String> shardPackages, ImportOption... importOptions) {
+		this.rules = rules;
+		this.shardPackages = List.copyOf(shardPackages);
+		this.importOptions = importOptions;
+		checkShards();
+		for (ArchRule rule : rules) {
+			IncomingEdgesCondition condition = FusedRules.conditionOf(rule);
+			if (condition != null && !(condition instanceof ShardableCondition)) {
+				throw new IllegalArgumentException("The rule '" + rule.getDescription() + "' needs the whole import and cannot be evaluated by shards");
+			}
+			conditions.add((ShardableCondition) condition);
+			violations.add(new ArrayList<>());
+			selectedClassNames.add(new LinkedHashSet<>());
+		}
+	}
+
+	/**
+	 * Rejects a condition needing the whole import, if it is evaluated on a shard, by a rule which is not fusable for instance.
+	 *
+	 * @param condition a condition reading the classes depending on the checked ones.
+	 * @throws IllegalArgumentException if the condition is evaluated on a shard, and does not check the edges from the other shards.
+	 */
+	static void checkNotEvaluatedOnAShard(ArchCondition<?> condition) {
+		ShardedEvaluation evaluation = CURRENT.get();
+		if (evaluation != null && !evaluation.conditions.contains(condition)) {
+			throw new IllegalArgumentException("The condition '" + condition.getDescription() + "' needs the whole import and cannot be evaluated by shards");
+		}
+	}
+
+	private void checkShards() {
+		if (shardPackages.isEmpty()) {
+			throw new IllegalArgumentException("At least one shard is needed");
+		}
+		for (int i = 0; i < shardPackages.size(); i++) {
+			for (int j = 0; j < shardPackages.size(); j++) {
+				String shardPackage = shardPackages.get(i);
+				String otherPackage = shardPackages.get(j);
+				if (i != j && (otherPackage.equals(shardPackage) || shardPackage.isEmpty() || otherPackage.startsWith(shardPackage + "."))) {
+					throw new IllegalArgumentException("The shard " + otherPackage + " is in the shard " + shardPackage);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the results of the rules, in the same order.
+	 */
+	List<EvaluationResult> evaluate() {
+		Set<Class<? extends Annotation>> annotationTypes = new LinkedHashSet<>();
+		for (ShardableCondition condition : conditions) {
+			if (condition != null) {
+				annotationTypes.addAll(condition.crossShardAnnotations());
+			}
+		}
+		CrossShardIndex index = new CrossShardIndex(shardPackages, new ArrayList<>(annotationTypes));
+		ClassFileImporter importer = new ClassFileImporter().withImportOptions(List.of(importOptions));
+		for (int shard = 0; shard < shardPackages.size(); shard++) {
+			JavaClasses shardClasses = importer.importPackages(shardPackages.get(shard));
+			// The values computed for the shard, like its meta-annotation index, are released with it
+			ImportScope scope = ImportScope.open(shardClasses);
+			CURRENT.set(this);
+			try {
+				evaluateShard(shardClasses);
+				index.record(shard, shardClasses);
+			} finally {
+				CURRENT.remove();
+				scope.close();
+			}
+		}
+
+		List<EvaluationResult> results = new ArrayList<>();
+		for (int i = 0; i < rules.size(); i++) {
+			ConditionEvents events = ConditionEvents.Factory.create();
+			for (String violation : violations.get(i)) {
+				events.add(SimpleConditionEvent.violated(violation, violation));
+			}
+			ShardableCondition condition = conditions.get(i);
+			if (condition != null) {
+				for (String className : selectedClassNames.get(i)) {
+					condition.checkFromOtherShards(className, index.edgesTo(className), events);
+				}
+			}
+			results.add(new EvaluationResult(rules.get(i), events, Priority.MEDIUM));
+		}
+		return results;
+	}
+
+	private void evaluateShard(JavaClasses shardClasses) {
+		for (List<Integer> group : FusedRules.group(rules)) {
+			List<ArchRule> groupRules = group.stream().map(rules::get).toList();
+			List<EvaluationResult> groupResults;
+			if (conditions.get(group.get(0)) == null) {
+				// A shard may have none of the classes a rule checks
+				groupResults = List.of(groupRules.get(0).allowEmptyShould(true).evaluate(shardClasses));
+			} else {
+				DescribedPredicate<? super JavaClass> selection = FusedRules.selectionOf(groupRules.get(0));
+				List<String> selectedNames = new ArrayList<>();
+				for (JavaClass javaClass : shardClasses) {
+					if (selection.test(javaClass)) {
+						selectedNames.add(javaClass.getName());
+					}
+				}
+				if (selectedNames.isEmpty()) {
+					continue;
+				}
+				group.forEach(rule -> selectedClassNames.get(rule).addAll(selectedNames));
+				groupResults = FusedRules.evaluate(groupRules, shardClasses, null);
+			}
+			for (int i = 0; i < group.size(); i++) {
+				// Only the text of the violations is kept, so that the results do not retain the classes of the shard
+				violations.get(group.get(i)).addAll(groupResults.get(i).getFailureReport().getDetails());
+			}
+		}
+	}
+}
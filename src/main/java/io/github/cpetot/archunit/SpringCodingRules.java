@@ -1,9 +1,13 @@
 package io.github.cpetot.archunit;
 
 import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
-import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+import static com.tngtech.archunit.core.domain.JavaClass.Predicates.assignableTo;
+import static com.tngtech.archunit.core.domain.properties.CanBeAnnotated.Predicates.annotatedWith;
+import static com.tngtech.archunit.lang.conditions.ArchPredicates.are;
 
-import java.util.stream.Stream;
+import java.lang.annotation.Annotation;
+import java.util.Collection;
+import java.util.List;
 
 import org.springframework.stereotype.Controller;
 import org.springframework.stereotype.Repository;
@@ -11,12 +15,16 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.tngtech.archunit.PublicAPI;
+import com.tngtech.archunit.base.DescribedPredicate;
 import com.tngtech.archunit.core.domain.JavaClass;
 import com.tngtech.archunit.core.domain.JavaCodeUnit;
+import com.tngtech.archunit.core.domain.JavaAccess;
+import com.tngtech.archunit.core.domain.JavaMethodCall;
+import com.tngtech.archunit.core.domain.JavaMethodReference;
 import com.tngtech.archunit.lang.ArchCondition;
 import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvent;
 import com.tngtech.archunit.lang.ConditionEvents;
-import com.tngtech.archunit.lang.SimpleConditionEvent;
 
 /**
  * SpringCodingRules provides a set of general {@link ArchCondition ArchConditions}
@@ -24,6 +32,16 @@ import com.tngtech.archunit.lang.SimpleConditionEvent;
  */
 public final class SpringCodingRules {
 
+	/**
+	 * The selection of the repository rules, shared so that they are evaluated together by a {@link RuleSuite}.
+	 */
+	private static final DescribedPredicate<JavaClass> REPOSITORIES = are(annotatedWith(Repository.class));
+	/**
+	 * The repositories and the Spring Data repositories, named to be usable without Spring Data.
+	 */
+	private static final DescribedPredicate<JavaClass> REPOSITORIES_OR_SPRING_DATA_REPOSITORIES =
+		REPOSITORIES.or(are(assignableTo("org.springframework.data.repository.Repository")));
+
 	private SpringCodingRules() {
 	}
 
@@ -119,40 +137,152 @@ public final class SpringCodingRules {
 	@PublicAPI(usage = ACCESS)
 	public static final ArchCondition<JavaClass> BE_ACCESSED_BY_TRANSACTIONAL_CLASSES_OR_METHODS = beAccessedByTransactionalClassesOrMethods();
 
-	private static ArchCondition<JavaClass> beAccessedByTransactionalClassesOrMethods() {
-		return new ArchCondition<>("be accessed by @Transactional classes or methods") {
+	private static ShardableCondition beAccessedByTransactionalClassesOrMethods() {
+		return new ShardableCondition("be accessed by @Transactional classes or methods") {
+			@Override
+			void check(JavaClass javaClass, IncomingEdges edges, ConditionEvents events) {
+				for (JavaMethodCall methodCall : edges.methodCalls()) {
+					events.add(checkMethodCall(javaClass, methodCall));
+				}
+			}
+
+			@Override
+			List<Class<? extends Annotation>> crossShardAnnotations() {
+				return List.of(Transactional.class);
+			}
+
+			@Override
+			void checkFromOtherShards(String className, CrossShardIndex.Edges edges, ConditionEvents events) {
+				for (CrossShardIndex.Origin methodCall : edges.methodCalls()) {
+					events.add(checkMethodCall(methodCall));
+				}
+			}
+		};
+	}
+
+	private static ConditionEvent checkMethodCall(JavaClass javaClass, JavaMethodCall methodCall) {
+		JavaClass originClass = methodCall.getOriginOwner();
+		JavaCodeUnit originMethod = methodCall.getOrigin();
+		if (originClass.equals(javaClass)) {
+			return LazyConditionEvent.satisfied(methodCall, "Method %s is in the same class", originMethod);
+		}
+		if (originMethod.isAnnotatedWith(Transactional.class)) {
+			return LazyConditionEvent.satisfied(methodCall, "Method %s is @Transactional", originMethod);
+		} else if (originClass.isAnnotatedWith(Transactional.class)) {
+			return LazyConditionEvent.satisfied(methodCall, "Class %s is @Transactional", originClass);
+		} else {
+			return LazyConditionEvent.violated(
+				methodCall, "Neither Class %s or Method %s are annotated by @Transactional", originClass, originMethod);
+		}
+	}
+
+	/**
+	 * Same as {@link #checkMethodCall(JavaClass, JavaMethodCall)}, for a call from another shard.
+	 */
+	private static ConditionEvent checkMethodCall(CrossShardIndex.Origin methodCall) {
+		if (methodCall.isCodeUnitAnnotatedWith(Transactional.class)) {
+			return LazyConditionEvent.satisfied(methodCall, "Method %s is @Transactional", methodCall.getCodeUnitName());
+		} else if (methodCall.isClassAnnotatedWith(Transactional.class)) {
+			return LazyConditionEvent.satisfied(methodCall, "Class %s is @Transactional", methodCall.getClassName());
+		} else {
+			return LazyConditionEvent.violated(methodCall, "Neither Class %s or Method %s are annotated by @Transactional",
+				methodCall.getClassName(), methodCall.getCodeUnitName());
+		}
+	}
+
+	private static boolean isTransactional(JavaCodeUnit codeUnit) {
+		return codeUnit.isAnnotatedWith(Transactional.class) || codeUnit.getOwner().isAnnotatedWith(Transactional.class);
+	}
+
+	/**
+	 * A condition similar to {@link #BE_ACCESSED_BY_TRANSACTIONAL_CLASSES_OR_METHODS}, but also accepting the calls
+	 * from non transactional methods which are themselves only called, directly or not, by {@link Transactional} methods or classes.
+	 *
+	 * <p>
+	 * A call to a repository is accepted if every call path leading to it, from an entry point of the analyzed classes,
+	 * goes through a {@link Transactional} method or class. The entry points are the methods which are not called by any analyzed class,
+	 * like the methods of the controllers. A call to a method is considered as possibly running any override of this method.
+	 * </p>
+	 *
+	 * <p>
+	 * It avoids annotating, and so proxying, the helpers only used inside of transactions,
+	 * but it needs all the callers of these helpers to be analyzed together.
+	 * </p>
+	 *
+	 * <div>
+	 * Valid example :
+	 * <pre>{@code
+	 * // No annotation here
+	 * public class FooHelper {
+	 *
+	 * 	private final FooRepository repository;
+	 *
+	 * 	public FooHelper(FooRepository repository) {
+	 * 		this.repository = repository;
+	 * 	}
+	 *
+	 * 	// No annotation here neither, but only called by a @Transactional method
+	 * 	public void saveFoo(Foo foo) {
+	 * 		repository.saveFoo(foo);
+	 * 	}
+	 * }
+	 *
+	 * public class FooService {
+	 *
+	 * 	private final FooHelper helper;
+	 *
+	 * 	public FooService(FooHelper helper) {
+	 * 		this.helper = helper;
+	 * 	}
+	 *
+	 * 	&#64;Transactional
+	 * 	public void createFoo() {
+	 * 		helper.saveFoo(new Foo());
+	 * 	}
+	 * }
+	 *
+	 * }</pre>
+	 * </div>
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static final ArchCondition<JavaClass> BE_ACCESSED_BY_TRANSACTIONAL_CLASSES_OR_METHODS_TRANSITIVELY =
+		beAccessedByTransactionalClassesOrMethodsTransitively();
+
+	private static IncomingEdgesCondition beAccessedByTransactionalClassesOrMethodsTransitively() {
+		return new IncomingEdgesCondition("be accessed by @Transactional classes or methods, directly or not") {
+			private final ImportScopedCache<TransactionalReachability> reachabilities =
+				TransactionalReachability.cache(SpringCodingRules::isTransactional);
+
+			@Override
+			public void init(Collection<JavaClass> allObjectsToTest) {
+				// The calls are followed through the whole import
+				IncrementalCache.checkNotEvaluatedOnChangedClasses(this);
+				super.init(allObjectsToTest);
+			}
+
 			@Override
-			public void check(JavaClass javaClass, ConditionEvents events) {
-				Stream.concat(
-						javaClass.getMethodCallsFromSelf().stream(),
-						javaClass.getMethodCallsToSelf().stream()
-					)
-					.map(methodCall -> {
-						JavaClass originClass = methodCall.getOriginOwner();
-						JavaCodeUnit originMethod = methodCall.getOrigin();
-						if(originClass.equals(javaClass)) {
-							return SimpleConditionEvent.satisfied(
-									methodCall, String.format("Method %s is in the same class", originMethod.getFullName())
-							);
-						}
-						if (originMethod.isAnnotatedWith(Transactional.class)) {
-							return SimpleConditionEvent.satisfied(
-								methodCall, String.format("Method %s is @Transactional", originMethod.getFullName())
-							);
-						} else if (originClass.isAnnotatedWith(Transactional.class)) {
-							return SimpleConditionEvent.satisfied(
-								methodCall, String.format("Class %s is @Transactional", originClass.getFullName())
-							);
-						} else {
-							return SimpleConditionEvent.violated(
-								methodCall, String.format("Neither Class %s or Method %s are annotated by @Transactional", originClass.getFullName(), originMethod.getFullName()));
-						}
-					})
-					.forEach(events::add);
+			void check(JavaClass javaClass, IncomingEdges edges, ConditionEvents events) {
+				TransactionalReachability reachability = reachabilities.get(javaClass);
+				for (JavaMethodCall methodCall : edges.methodCalls()) {
+					ConditionEvent event = checkMethodCall(javaClass, methodCall);
+					if (event.isViolation()) {
+						event = checkReachability(reachability, methodCall);
+					}
+					events.add(event);
+				}
 			}
 		};
 	}
 
+	private static ConditionEvent checkReachability(TransactionalReachability reachability, JavaMethodCall methodCall) {
+		JavaCodeUnit originMethod = methodCall.getOrigin();
+		return reachability.findExposingEntryPoint(originMethod)
+			.map(entryPoint -> LazyConditionEvent.violated(
+				methodCall, "Method %s is called by %s without any @Transactional method or class", originMethod, entryPoint))
+			.orElseGet(() -> LazyConditionEvent.satisfied(
+				methodCall, "Method %s is only called by @Transactional methods or classes", originMethod));
+	}
+
 	/**
 	 * A rule that checks that all methods in a Spring {@link Repository}
 	 * are only called by methods annotated by {@link Transactional},
@@ -247,8 +377,17 @@ public final class SpringCodingRules {
 	 */
 	@PublicAPI(usage = ACCESS)
 	public static final ArchRule REPOSITORIES_ARE_ACCESSED_ONLY_BY_TRANSACTIONAL_METHODS_OR_CLASSES =
-		classes().that().areAnnotatedWith(Repository.class)
-			.should(BE_ACCESSED_BY_TRANSACTIONAL_CLASSES_OR_METHODS);
+		FusedRules.fusable(REPOSITORIES, beAccessedByTransactionalClassesOrMethods());
+
+	/**
+	 * A rule similar to {@link #REPOSITORIES_ARE_ACCESSED_ONLY_BY_TRANSACTIONAL_METHODS_OR_CLASSES}, but also accepting the calls
+	 * from non transactional methods which are themselves only called, directly or not, by {@link Transactional} methods or classes.
+	 *
+	 * @see SpringCodingRules#BE_ACCESSED_BY_TRANSACTIONAL_CLASSES_OR_METHODS_TRANSITIVELY
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static final ArchRule REPOSITORIES_ARE_ACCESSED_ONLY_BY_TRANSACTIONAL_METHODS_OR_CLASSES_TRANSITIVELY =
+		FusedRules.fusable(REPOSITORIES, beAccessedByTransactionalClassesOrMethodsTransitively());
 
 	/**
 	 * A rule that checks that all classes annotated by {@link Repository}
@@ -268,8 +407,7 @@ public final class SpringCodingRules {
 	 */
 	@PublicAPI(usage = ACCESS)
 	public static final ArchRule REPOSITORIES_ARE_ACCESSED_ONLY_BY_SERVICE_CLASSES =
-		classes().that().areAnnotatedWith(Repository.class)
-			.should(StandardCodingRules.beAccessedOnlyByClassesMetaAnnotatedBy(Service.class));
+		FusedRules.fusable(REPOSITORIES, StandardCodingRules.accessedOnlyByClassesMetaAnnotatedBy(Service.class));
 
 	/**
 	 * A rule that checks that all classes annotated by {@link Repository}
@@ -288,6 +426,95 @@ public final class SpringCodingRules {
 	 */
 	@PublicAPI(usage = ACCESS)
 	public static final ArchRule REPOSITORIES_ARE_ACCESSED_ONLY_BY_SERVICE_OR_CONTROLLER_CLASSES =
-		classes().that().areAnnotatedWith(Repository.class)
-			.should(StandardCodingRules.beAccessedOnlyByClassesMetaAnnotatedByAny(Service.class, Controller.class));
+		FusedRules.fusable(REPOSITORIES, StandardCodingRules.accessedOnlyByClassesMetaAnnotatedByAny(Service.class, Controller.class));
+
+	/**
+	 * A condition that checks that the methods of the Java class are not called for each element of a collection :
+	 * inside a loop, or inside a lambda, or as a method reference, passed to {@code forEach} or {@code map}
+	 * of a stream, a collection or a map, but not of an {@code Optional}.
+	 *
+	 * <p>
+	 * The loops are found in the bytecode of the calling classes, read again since ArchUnit does not keep it :
+	 * a call is in a loop if it is between a backward branch and its target.
+	 * The calls from a class file which cannot be read are reported too, since whether they are in a loop is unknown.
+	 * The bytecode of the other shards being released with them, it cannot be {@link RuleSuite#evaluateByShards evaluated by shards}.
+	 * </p>
+	 *
+	 * <div>
+	 * Not matching examples :
+	 * <pre>{@code
+	 * for (Long id : ids) {
+	 * 	orders.add(repository.findById(id));
+	 * }
+	 *
+	 * ids.stream().map(repository::findById).toList();
+	 * }</pre>
+	 * </div>
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static final ArchCondition<JavaClass> NOT_BE_CALLED_IN_LOOPS = notBeCalledInLoops();
+
+	private static IncomingEdgesCondition notBeCalledInLoops() {
+		return new IncomingEdgesCondition("not be called in loops") {
+			@Override
+			void check(JavaClass javaClass, IncomingEdges edges, ConditionEvents events) {
+				for (JavaMethodCall methodCall : edges.methodCalls()) {
+					if (methodCall.getTargetOwner().equals(javaClass)) {
+						checkNotInLoop(methodCall, events);
+					}
+				}
+				for (JavaMethodReference methodReference : javaClass.getMethodReferencesToSelf()) {
+					checkNotInLoop(methodReference, events);
+				}
+			}
+
+		};
+	}
+
+	private static void checkNotInLoop(JavaAccess<?> access, ConditionEvents events) {
+		LoopCallScanner.placeOf(access).ifPresent(place -> events.add(LazyConditionEvent.violated(
+			access, "Method %s calls %s in %s in %s", access.getOrigin(), access.getTarget(), place, access.getSourceCodeLocation()
+		)));
+	}
+
+	/**
+	 * A rule that checks that the methods of the classes annotated by {@link Repository}, and of the Spring Data repositories,
+	 * are not called inside a loop, or inside a lambda passed to {@code forEach} or {@code map}.
+	 *
+	 * <p>
+	 * Calling a repository for each element of a collection runs one query per element, the N+1 queries problem.
+	 * Load the elements with a single query instead, like {@code findAllById(ids)}.
+	 * </p>
+	 *
+	 * <div>
+	 * Valid examples :
+	 * <pre>{@code
+	 * public List<Order> findOrders(List<Long> ids) {
+	 * 	return repository.findAllById(ids);
+	 * }
+	 * }</pre>
+	 * </div>
+	 *
+	 * <div>
+	 * Invalid examples :
+	 * <pre>{@code
+	 * public List<Order> findOrders(List<Long> ids) {
+	 * 	List<Order> orders = new ArrayList<>();
+	 * 	for (Long id : ids) {
+	 * 		orders.add(repository.findById(id));
+	 * 	}
+	 * 	return orders;
+	 * }
+	 *
+	 * public void deleteOrders(List<Long> ids) {
+	 * 	ids.forEach(id -> repository.deleteById(id));
+	 * }
+	 * }</pre>
+	 * </div>
+	 *
+	 * @see SpringCodingRules#NOT_BE_CALLED_IN_LOOPS
+	 */
+	@PublicAPI(usage = ACCESS)
+	public static final ArchRule REPOSITORIES_ARE_NOT_CALLED_IN_LOOPS =
+		FusedRules.fusable(REPOSITORIES_OR_SPRING_DATA_REPOSITORIES, notBeCalledInLoops());
 }
@@ -5,16 +5,17 @@ import static com.tngtech.archunit.core.domain.JavaClass.Predicates.resideInAPac
 import static com.tngtech.archunit.core.domain.JavaClass.Predicates.type;
 import static com.tngtech.archunit.lang.conditions.ArchConditions.dependOnClassesThat;
 import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.noClasses;
+import static io.github.cpetot.archunit.RecordedRule.recorded;
 
 import java.lang.annotation.Annotation;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.tngtech.archunit.PublicAPI;
 import com.tngtech.archunit.base.DescribedPredicate;
-import com.tngtech.archunit.core.domain.Dependency;
 import com.tngtech.archunit.core.domain.JavaClass;
 import com.tngtech.archunit.core.domain.JavaCodeUnit;
 import com.tngtech.archunit.core.domain.JavaMethod;
@@ -22,7 +23,6 @@ import com.tngtech.archunit.core.domain.JavaModifier;
 import com.tngtech.archunit.lang.ArchCondition;
 import com.tngtech.archunit.lang.ArchRule;
 import com.tngtech.archunit.lang.ConditionEvents;
-import com.tngtech.archunit.lang.SimpleConditionEvent;
 
 /**
  * StandardCodingRules provides a set of general {@link ArchCondition ArchConditions}
@@ -56,9 +56,9 @@ public final class StandardCodingRules {
 	 */
 	@PublicAPI(usage = ACCESS)
 	public static final ArchRule NO_CLASSES_SHOULD_USE_JUNIT_4 =
-		noClasses()
+		recorded(noClasses()
 			.should(USE_JUNIT_4)
-			.because("Use JUnit 5 instead");
+			.because("Use JUnit 5 instead"));
 
 	/**
 	 * A condition that checks if the given class use {@link Date}
@@ -82,9 +82,9 @@ public final class StandardCodingRules {
 	 */
 	@PublicAPI(usage = ACCESS)
 	public static final ArchRule NO_CLASSES_SHOULD_USE_JAVA_UTIL_DATE =
-		noClasses()
+		recorded(noClasses()
 			.should(USE_JAVA_UTIL_DATE)
-			.because("Use dates API in java.time instead");
+			.because("Use dates API in java.time instead"));
 
 	/**
 	 * A condition that checks if the Java class has a public no-args constructor
@@ -131,9 +131,7 @@ public final class StandardCodingRules {
 					.filter(constructor -> constructor.getModifiers().contains(JavaModifier.PUBLIC))
 					.isPresent();
 				if (!hasPublicEmptyConstructor) {
-					events.add(SimpleConditionEvent.violated(
-						javaClass, String.format("Class %s has no public empty constructor", javaClass.getFullName()))
-					);
+					events.add(LazyConditionEvent.violated(javaClass, "Class %s has no public empty constructor", javaClass));
 				}
 			}
 		};
@@ -186,19 +184,19 @@ public final class StandardCodingRules {
 			@Override
 			public void check(JavaMethod method, ConditionEvents events) {
 				if (!"void".equals(method.getReturnType().getName())) {
-					events.add(SimpleConditionEvent.violated(
-						method, String.format("Method %s is not a void but returns a %s", method.getFullName(), method.getReturnType().getName()))
-					);
+					events.add(LazyConditionEvent.violated(method, "Method %s is not a void but returns a %s", method, method.getReturnType()));
 				}
 				if (!method.getParameters().isEmpty()) {
-					events.add(SimpleConditionEvent.violated(
-						method, String.format("Method %s should be without any parameter but has %d parameter(s)", method.getFullName(), method.getParameters().size()))
+					events.add(LazyConditionEvent.violated(
+						method, "Method %s should be without any parameter but has %d parameter(s)", method, method.getParameters().size())
 					);
 				}
 			}
 		};
 	}
 
+	@SafeVarargs
+	@SuppressWarnings("varargs") // The annotation classes are only read
 	public static DescribedPredicate<JavaCodeUnit> areAnnotatedByAny(Class<? extends Annotation>... annotationClasses) {
 		String annotationsDescription = Stream.of(annotationClasses)
 			.map(Class::getSimpleName)
@@ -206,7 +204,10 @@ public final class StandardCodingRules {
 		return new DescribedPredicate<>("methods that are annotated with " + annotationsDescription) {
 			@Override
 			public boolean test(JavaCodeUnit codeUnit) {
-				return Stream.of(annotationClasses).anyMatch(codeUnit::isMetaAnnotatedWith);
+				// Outside an evaluation sharing the index, building it for each code unit would cost more than walking the meta-annotations
+				return MetaAnnotationIndex.find(codeUnit.getOwner())
+					.map(index -> index.isMetaAnnotatedWithAny(codeUnit, annotationClasses))
+					.orElseGet(() -> Stream.of(annotationClasses).anyMatch(codeUnit::isMetaAnnotatedWith));
 			}
 		};
 	}
@@ -262,18 +263,33 @@ public final class StandardCodingRules {
 	 */
 	@PublicAPI(usage = ACCESS)
 	public static ArchCondition<JavaClass> beAccessedOnlyByClassesMetaAnnotatedBy(Class<? extends Annotation> annotationClass) {
-		return new ArchCondition<>("be called by @%s classes", annotationClass.getSimpleName()) {
+		return accessedOnlyByClassesMetaAnnotatedBy(annotationClass);
+	}
+
+	static ShardableCondition accessedOnlyByClassesMetaAnnotatedBy(Class<? extends Annotation> annotationClass) {
+		return new ShardableCondition("be called by @%s classes", annotationClass.getSimpleName()) {
 			@Override
-			public void check(JavaClass javaClass, ConditionEvents events) {
-				javaClass.getDirectDependenciesToSelf().stream()
-					.map(Dependency::getOriginClass)
-					.distinct()
-					.filter(originClass -> !originClass.isMetaAnnotatedWith(annotationClass))
-					.map(originClass -> SimpleConditionEvent.violated(originClass, String.format(
-							"Class %s is not annotated by @%s",
-							originClass.getFullName(),
-							annotationClass.getSimpleName()
-						))
+			void check(JavaClass javaClass, IncomingEdges edges, ConditionEvents events) {
+				MetaAnnotationIndex metaAnnotations = MetaAnnotationIndex.of(javaClass);
+				edges.originClasses().stream()
+					.filter(originClass -> !metaAnnotations.isMetaAnnotatedWith(originClass, annotationClass))
+					.map(originClass -> LazyConditionEvent.violated(
+						originClass, "Class %s is not annotated by @%s", originClass, annotationClass.getSimpleName())
+					)
+					.forEach(events::add);
+			}
+
+			@Override
+			List<Class<? extends Annotation>> crossShardAnnotations() {
+				return List.of(annotationClass);
+			}
+
+			@Override
+			void checkFromOtherShards(String className, CrossShardIndex.Edges edges, ConditionEvents events) {
+				edges.originClasses().stream()
+					.filter(origin -> !origin.isClassMetaAnnotatedWith(annotationClass))
+					.map(origin -> LazyConditionEvent.violated(
+						origin, "Class %s is not annotated by @%s", origin.getClassName(), annotationClass.getSimpleName())
 					)
 					.forEach(events::add);
 			}
@@ -287,22 +303,40 @@ public final class StandardCodingRules {
 	 * @return the condition.
 	 */
 	@PublicAPI(usage = ACCESS)
+	@SafeVarargs
 	public static ArchCondition<JavaClass> beAccessedOnlyByClassesMetaAnnotatedByAny(Class<? extends Annotation>... annotationsClasses) {
+		return accessedOnlyByClassesMetaAnnotatedByAny(annotationsClasses);
+	}
+
+	@SafeVarargs
+	@SuppressWarnings("varargs") // The annotation classes are only read
+	static ShardableCondition accessedOnlyByClassesMetaAnnotatedByAny(Class<? extends Annotation>... annotationsClasses) {
 		String annotationsDescription = Arrays.stream(annotationsClasses)
 			.map(annotationClass -> "@" + annotationClass.getSimpleName())
 			.collect(Collectors.joining(" or "));
-		return new ArchCondition<>("be called by %s classes", annotationsDescription) {
+		return new ShardableCondition("be called by %s classes", annotationsDescription) {
 			@Override
-			public void check(JavaClass javaClass, ConditionEvents events) {
-				javaClass.getDirectDependenciesToSelf().stream()
-					.map(Dependency::getOriginClass)
-					.distinct()
-					.filter(originClass -> Arrays.stream(annotationsClasses).noneMatch(originClass::isMetaAnnotatedWith))
-					.map(originClass -> SimpleConditionEvent.violated(originClass, String.format(
-							"Class %s is annotated neither by %s",
-							originClass.getFullName(),
-							annotationsDescription
-						))
+			void check(JavaClass javaClass, IncomingEdges edges, ConditionEvents events) {
+				MetaAnnotationIndex metaAnnotations = MetaAnnotationIndex.of(javaClass);
+				edges.originClasses().stream()
+					.filter(originClass -> !metaAnnotations.isMetaAnnotatedWithAny(originClass, annotationsClasses))
+					.map(originClass -> LazyConditionEvent.violated(
+						originClass, "Class %s is annotated neither by %s", originClass, annotationsDescription)
+					)
+					.forEach(events::add);
+			}
+
+			@Override
+			List<Class<? extends Annotation>> crossShardAnnotations() {
+				return List.of(annotationsClasses);
+			}
+
+			@Override
+			void checkFromOtherShards(String className, CrossShardIndex.Edges edges, ConditionEvents events) {
+				edges.originClasses().stream()
+					.filter(origin -> Arrays.stream(annotationsClasses).noneMatch(origin::isClassMetaAnnotatedWith))
+					.map(origin -> LazyConditionEvent.violated(
+						origin, "Class %s is annotated neither by %s", origin.getClassName(), annotationsDescription)
 					)
 					.forEach(events::add);
 			}
@@ -0,0 +1,294 @@
+package io.github.cpetot.archunit;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import com.tngtech.archunit.core.domain.JavaCall;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaCodeUnit;
+import com.tngtech.archunit.core.domain.JavaMethod;
+import com.tngtech.archunit.core.domain.JavaModifier;
+import com.tngtech.archunit.core.domain.JavaPackage;
+
+/**
+ * The code units of an import which can be reached from an entry point without going through a transactional code unit.
+ *
+ * <p>
+ * The call graph links each code unit to the code units it calls, and each method to the methods overriding it,
+ * since a call to a method may run any of its overrides. The entry points are the code units without any caller,
+ * or, for recursive code units, the cycles without any caller outside of them.
+ * A non transactional code unit is exposed if a path of non transactional code units leads to it from an entry point.
+ * </p>
+ *
+ * <p>
+ * The paths are never explored one by one : the strongly connected components of the non transactional code units are computed once,
+ * with Tarjan's algorithm, and the exposure is then propagated from component to component, in topological order.
+ * It is computed once per {@link ImportScope} of the import.
+ * </p>
+ */
+final class TransactionalReachability {
+
+	private static final int NONE = -1;
+
+	private final Map<JavaCodeUnit, Integer> ids = new IdentityHashMap<>();
+	private final JavaCodeUnit[] codeUnits;
+	private final boolean[] transactional;
+	private final int[] components;
+	/**
+	 * For each component, the entry point exposing it, or {@link #NONE}.
+	 */
+	private final int[] exposingEntryPoints;
+
+	private TransactionalReachability(JavaPackage defaultPackage, Predicate<JavaCodeUnit> isTransactional) {
+		codeUnits = defaultPackage.getClassesInPackageTree().stream()
+			.flatMap(javaClass -> javaClass.getCodeUnits().stream())
+			.toArray(JavaCodeUnit[]::new);
+		transactional = new boolean[codeUnits.length];
+		for (int i = 0; i < codeUnits.length; i++) {
+			ids.put(codeUnits[i], i);
+			transactional[i] = isTransactional.test(codeUnits[i]);
+		}
+		CallGraph graph = buildCallGraph();
+		components = new int[codeUnits.length];
+		int componentCount = findStrongComponents(graph);
+		exposingEntryPoints = propagateExposure(graph, componentCount);
+	}
+
+	/**
+	 * @param isTransactional tells if a code unit is transactional.
+	 * @return a cache of the reachability of the code units of each import.
+	 */
+	static ImportScopedCache<TransactionalReachability> cache(Predicate<JavaCodeUnit> isTransactional) {
+		return new ImportScopedCache<>("transactional reachability",
+			defaultPackage -> new TransactionalReachability(defaultPackage, isTransactional));
+	}
+
+	/**
+	 * @param codeUnit a code unit of the import.
+	 * @return an entry point from which the code unit can be reached without going through a transactional code unit,
+	 * or nothing if every path to it goes through a transactional code unit.
+	 */
+	Optional<JavaCodeUnit> findExposingEntryPoint(JavaCodeUnit codeUnit) {
+		Integer id = ids.get(codeUnit);
+		if (id == null || transactional[id]) {
+			return Optional.empty();
+		}
+		int entryPoint = exposingEntryPoints[components[id]];
+		return entryPoint == NONE ? Optional.empty() : Optional.of(codeUnits[entryPoint]);
+	}
+
+	private CallGraph buildCallGraph() {
+		CallGraph.Builder builder = new CallGraph.Builder(codeUnits.length);
+		for (int caller = 0; caller < codeUnits.length; caller++) {
+			for (JavaCall<?> call : codeUnits[caller].getCallsFromSelf()) {
+				Integer callee = call.getTarget().resolveMember().map(ids::get).orElse(null);
+				if (callee != null) {
+					builder.add(caller, callee);
+				}
+			}
+			if (codeUnits[caller] instanceof JavaMethod method && isOverridable(method)) {
+				addOverrides(builder, caller, method);
+			}
+		}
+		return builder.build();
+	}
+
+	private static boolean isOverridable(JavaMethod method) {
+		return !method.getModifiers().contains(JavaModifier.STATIC) && !method.getModifiers().contains(JavaModifier.PRIVATE);
+	}
+
+	private void addOverrides(CallGraph.Builder builder, int method, JavaMethod overridden) {
+		String[] parameterTypes = overridden.getRawParameterTypes().stream()
+			.map(JavaClass::getName)
+			.toArray(String[]::new);
+		for (JavaClass subclass : overridden.getOwner().getAllSubclasses()) {
+			subclass.tryGetMethod(overridden.getName(), parameterTypes)
+				.map(ids::get)
+				.ifPresent(override -> builder.add(method, override));
+		}
+	}
+
+	/**
+	 * Tarjan's algorithm on the non transactional code units, without recursion.
+	 * The components are numbered in reverse topological order : a call between two components goes to a lower number.
+	 *
+	 * @return the number of components.
+	 */
+	private int findStrongComponents(CallGraph graph) {
+		int size = codeUnits.length;
+		int[] index = new int[size];
+		int[] lowLink = new int[size];
+		int[] nextEdge = new int[size];
+		int[] componentStack = new int[size];
+		boolean[] onComponentStack = new boolean[size];
+		int[] callStack = new int[size];
+		Arrays.fill(index, NONE);
+		Arrays.fill(components, NONE);
+		int componentTop = 0;
+		int counter = 0;
+		int componentCount = 0;
+		for (int root = 0; root < size; root++) {
+			if (transactional[root] || index[root] != NONE) {
+				continue;
+			}
+			int callTop = 0;
+			callStack[callTop++] = root;
+			index[root] = lowLink[root] = counter++;
+			componentStack[componentTop++] = root;
+			onComponentStack[root] = true;
+			nextEdge[root] = graph.firstEdge(root);
+			while (callTop > 0) {
+				int node = callStack[callTop - 1];
+				if (nextEdge[node] < graph.endEdge(node)) {
+					int callee = graph.target(nextEdge[node]++);
+					if (transactional[callee]) {
+						continue;
+					}
+					if (index[callee] == NONE) {
+						index[callee] = lowLink[callee] = counter++;
+						componentStack[componentTop++] = callee;
+						onComponentStack[callee] = true;
+						nextEdge[callee] = graph.firstEdge(callee);
+						callStack[callTop++] = callee;
+					} else if (onComponentStack[callee]) {
+						lowLink[node] = Math.min(lowLink[node], index[callee]);
+					}
+				} else {
+					callTop--;
+					if (lowLink[node] == index[node]) {
+						int member;
+						do {
+							member = componentStack[--componentTop];
+							onComponentStack[member] = false;
+							components[member] = componentCount;
+						} while (member != node);
+						componentCount++;
+					}
+					if (callTop > 0) {
+						int caller = callStack[callTop - 1];
+						lowLink[caller] = Math.min(lowLink[caller], lowLink[node]);
+					}
+				}
+			}
+		}
+		return componentCount;
+	}
+
+	/**
+	 * @return for each component, an entry point exposing it, or {@link #NONE}.
+	 */
+	private int[] propagateExposure(CallGraph graph, int componentCount) {
+		boolean[] calledFromOutside = new boolean[componentCount];
+		for (int caller = 0; caller < codeUnits.length; caller++) {
+			for (int edge = graph.firstEdge(caller); edge < graph.endEdge(caller); edge++) {
+				int callee = graph.target(edge);
+				if (!transactional[callee] && (transactional[caller] || components[caller] != components[callee])) {
+					calledFromOutside[components[callee]] = true;
+				}
+			}
+		}
+
+		int[] exposingEntryPoints = new int[componentCount];
+		Arrays.fill(exposingEntryPoints, NONE);
+		for (int node : nodesInTopologicalOrder(componentCount)) {
+			int component = components[node];
+			if (exposingEntryPoints[component] == NONE && !calledFromOutside[component]) {
+				// Nothing calls this component : it is an entry point
+				exposingEntryPoints[component] = node;
+			}
+			if (exposingEntryPoints[component] == NONE) {
+				continue;
+			}
+			for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+				int callee = graph.target(edge);
+				if (!transactional[callee] && exposingEntryPoints[components[callee]] == NONE) {
+					exposingEntryPoints[components[callee]] = exposingEntryPoints[component];
+				}
+			}
+		}
+		return exposingEntryPoints;
+	}
+
+	/**
+	 * @return the non transactional code units, the members of a component following the members of the components calling it.
+	 */
+	private int[] nodesInTopologicalOrder(int componentCount) {
+		int[] componentStarts = new int[componentCount + 1];
+		for (int node = 0; node < codeUnits.length; node++) {
+			if (!transactional[node]) {
+				componentStarts[componentCount - components[node]]++;
+			}
+		}
+		for (int i = 0; i < componentCount; i++) {
+			componentStarts[i + 1] += componentStarts[i];
+		}
+		int[] nodes = new int[componentStarts[componentCount]];
+		for (int node = 0; node < codeUnits.length; node++) {
+			if (!transactional[node]) {
+				nodes[--componentStarts[componentCount - components[node]]] = node;
+			}
+		}
+		return nodes;
+	}
+
+	/**
+	 * A call graph in compressed sparse row format : the callees of the node {@code n}
+	 * are the targets of the edges from {@code firstEdge(n)} to {@code endEdge(n)}.
+	 */
+	private record CallGraph(int[] offsets, int[] targets) {
+
+		int firstEdge(int node) {
+			return offsets[node];
+		}
+
+		int endEdge(int node) {
+			return offsets[node + 1];
+		}
+
+		int target(int edge) {
+			return targets[edge];
+		}
+
+		private static final class Builder {
+
+			private final int nodeCount;
+			private int[] sources = new int[16];
+			private int[] targets = new int[16];
+			private int edgeCount;
+
+			Builder(int nodeCount) {
+				this.nodeCount = nodeCount;
+			}
+
+			void add(int source, int target) {
+				if (edgeCount == sources.length) {
+					sources = Arrays.copyOf(sources, edgeCount * 2);
+					targets = Arrays.copyOf(targets, edgeCount * 2);
+				}
+				sources[edgeCount] = source;
+				targets[edgeCount] = target;
+				edgeCount++;
+			}
+
+			CallGraph build() {
+				int[] offsets = new int[nodeCount + 1];
+				for (int edge = 0; edge < edgeCount; edge++) {
+					offsets[sources[edge] + 1]++;
+				}
+				for (int node = 0; node < nodeCount; node++) {
+					offsets[node + 1] += offsets[node];
+				}
+				int[] sortedTargets = new int[edgeCount];
+				int[] positions = Arrays.copyOf(offsets, nodeCount);
+				for (int edge = 0; edge < edgeCount; edge++) {
+					sortedTargets[positions[sources[edge]]++] = targets[edge];
+				}
+				return new CallGraph(offsets, sortedTargets);
+			}
+		}
+	}
+}
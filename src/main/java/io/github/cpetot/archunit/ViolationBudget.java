@@ -0,0 +1,219 @@
+package io.github.cpetot.archunit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvent;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.EvaluationResult;
+import com.tngtech.archunit.lang.Priority;
+
+/**
+ * The maximum number of violations of the evaluation of a {@link RuleSuite}, per rule and for the whole suite.
+ *
+ * <p>
+ * Once a budget is exhausted, the {@link MeteredCondition conditions of this library} stop checking objects,
+ * and the rules not started yet are not evaluated anymore, so that a broken build fails without collecting every violation.
+ * The violations above the budget are dropped, and the report tells that the evaluation was stopped.
+ * The other rules cannot be stopped while they are evaluated : their violations are only counted in the budget of the suite
+ * once they are evaluated.
+ * </p>
+ */
+final class ViolationBudget {
+
+	static final ViolationBudget UNLIMITED = new ViolationBudget(Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+	private static final ThreadLocal<RuleSpending> CURRENT = new ThreadLocal<>();
+
+	private final int maxViolationsPerRule;
+	private final int maxViolations;
+
+	private ViolationBudget(int maxViolationsPerRule, int maxViolations) {
+		this.maxViolationsPerRule = maxViolationsPerRule;
+		this.maxViolations = maxViolations;
+	}
+
+	ViolationBudget withMaxViolationsPerRule(int maxViolationsPerRule) {
+		return new ViolationBudget(checkPositive(maxViolationsPerRule), maxViolations);
+	}
+
+	ViolationBudget withMaxViolations(int maxViolations) {
+		return new ViolationBudget(maxViolationsPerRule, checkPositive(maxViolations));
+	}
+
+	private static int checkPositive(int maxViolations) {
+		if (maxViolations < 1) {
+			throw new IllegalArgumentException("The maximum number of violations must be at least 1, got " + maxViolations);
+		}
+		return maxViolations;
+	}
+
+	boolean isUnlimited() {
+		return maxViolationsPerRule == Integer.MAX_VALUE && maxViolations == Integer.MAX_VALUE;
+	}
+
+	/**
+	 * @return the spending of this budget by a new evaluation of a suite.
+	 */
+	Spending startSpending() {
+		return new Spending();
+	}
+
+	/**
+	 * @return the spending of the rule evaluated by the current thread, or {@code null} if its budget is unlimited.
+	 */
+	static RuleSpending current() {
+		return CURRENT.get();
+	}
+
+	static String describeTruncation(int violations) {
+		return "stopped after " + violations + " violations by the violation budget";
+	}
+
+	/**
+	 * The spending of the budget by an evaluation of a suite, shared by the threads evaluating its rules.
+	 */
+	final class Spending {
+
+		private final AtomicInteger violations = new AtomicInteger();
+		private volatile boolean exhausted;
+		private volatile boolean truncated;
+
+		private Spending() {
+		}
+
+		/**
+		 * @return true if the budget of the suite is exhausted, the remaining work being cancelled.
+		 */
+		boolean isExhausted() {
+			return exhausted;
+		}
+
+		/**
+		 * @return true if some violations were dropped, or some objects or rules were not checked, because of the budget.
+		 */
+		boolean isTruncated() {
+			return truncated;
+		}
+
+		/**
+		 * @return the result of the given evaluation of the rule, or an empty result if the budget is already exhausted.
+		 */
+		EvaluationResult evaluate(ArchRule rule, Supplier<EvaluationResult> evaluation) {
+			if (exhausted) {
+				truncated();
+				ConditionEvents events = ConditionEvents.Factory.create();
+				events.setInformationAboutNumberOfViolations("not evaluated, the violation budget being exhausted");
+				return new EvaluationResult(rule, events, Priority.MEDIUM);
+			}
+			return forRule().evaluate(evaluation);
+		}
+
+		/**
+		 * @return the spending of a new evaluation of a rule.
+		 */
+		RuleSpending forRule() {
+			return new RuleSpending(this);
+		}
+
+		/**
+		 * @return true if the violation can still be reported.
+		 */
+		private boolean spend() {
+			int total = violations.incrementAndGet();
+			if (total >= maxViolations) {
+				exhausted = true;
+			}
+			return total <= maxViolations;
+		}
+
+		/**
+		 * Counts violations already reported.
+		 */
+		private void spendReported(int count) {
+			if (violations.addAndGet(count) >= maxViolations) {
+				exhausted = true;
+			}
+		}
+
+		private void truncated() {
+			truncated = true;
+		}
+	}
+
+	/**
+	 * The spending of the budget by an evaluation of a rule, on a single thread.
+	 */
+	final class RuleSpending {
+
+		private final Spending suite;
+		private int violations;
+		private boolean instrumented;
+
+		private RuleSpending(Spending suite) {
+			this.suite = suite;
+		}
+
+		/**
+		 * @return the result of the given evaluation of the rule, during which this spending is the {@link #current() current one}.
+		 */
+		EvaluationResult evaluate(Supplier<EvaluationResult> evaluation) {
+			RuleSpending previous = CURRENT.get();
+			CURRENT.set(this);
+			EvaluationResult result;
+			try {
+				result = evaluation.get();
+			} finally {
+				CURRENT.set(previous);
+			}
+			if (!instrumented) {
+				// The violations of the rule were not counted while it was evaluated
+				suite.spendReported(result.getFailureReport().getDetails().size());
+			}
+			return result;
+		}
+
+		void instrumented() {
+			instrumented = true;
+		}
+
+		/**
+		 * @return true if the rule should stop checking objects.
+		 */
+		boolean isExhausted() {
+			return violations >= maxViolationsPerRule || suite.isExhausted();
+		}
+
+		/**
+		 * Records that an object is not checked, the budget being exhausted.
+		 */
+		void skip(ConditionEvents events) {
+			truncate(events);
+		}
+
+		/**
+		 * @return events dropping the violations above the budget.
+		 */
+		ConditionEvents counting(ConditionEvents events) {
+			return new ForwardingConditionEvents(events) {
+				@Override
+				public void add(ConditionEvent event) {
+					if (!event.isViolation()) {
+						super.add(event);
+					} else if (violations < maxViolationsPerRule && suite.spend()) {
+						violations++;
+						super.add(event);
+					} else {
+						truncate(events);
+					}
+				}
+			};
+		}
+
+		private void truncate(ConditionEvents events) {
+			suite.truncated();
+			events.setInformationAboutNumberOfViolations(describeTruncation(violations));
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package io.github.cpetot.archunit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.core.importer.Location;
+import io.github.cpetot.archunit.date.DateExample;
+import io.github.cpetot.archunit.date.LocalDateExample;
+import io.github.cpetot.archunit.junit4.JUnit4Test;
+
+class ConstantPoolPrefilterTest {
+
+	private static Location locationOf(Class<?> type) {
+		return Location.of(type.getResource(type.getSimpleName() + ".class"));
+	}
+
+	@Nested
+	@DisplayName("when looking for a type")
+	class TypeTest {
+
+		private final ImportOption prefilter = new ConstantPoolPrefilter.UsingJavaUtilDate();
+
+		@Test
+		void should_include_the_classes_using_the_type() {
+			Assertions.assertThat(prefilter.includes(locationOf(DateExample.class))).isTrue();
+		}
+
+		@Test
+		void should_exclude_the_classes_not_using_the_type() {
+			Assertions.assertThat(prefilter.includes(locationOf(LocalDateExample.class))).isFalse();
+			Assertions.assertThat(prefilter.includes(locationOf(JUnit4Test.class))).isFalse();
+		}
+
+		@Test
+		void should_find_the_same_violations_as_a_full_import() {
+			JavaClasses classes = new ClassFileImporter()
+				.withImportOption(prefilter)
+				.importPackages("io.github.cpetot.archunit");
+
+			Assertions.assertThat(classes.contain(DateExample.class)).isTrue();
+			Assertions.assertThat(classes.contain(LocalDateExample.class)).isFalse();
+			Assertions.assertThatThrownBy(() -> StandardCodingRules.NO_CLASSES_SHOULD_USE_JAVA_UTIL_DATE.check(classes))
+				.isInstanceOf(AssertionError.class)
+				.hasMessageContaining("Field <%s.A_DATE> has type <java.util.Date>", DateExample.class.getName());
+		}
+	}
+
+	@Nested
+	@DisplayName("when looking for a package")
+	class PackageTest {
+
+		private final ImportOption prefilter = new ConstantPoolPrefilter.UsingJunit4();
+
+		@Test
+		void should_include_the_classes_using_the_package() {
+			Assertions.assertThat(prefilter.includes(locationOf(JUnit4Test.class))).isTrue();
+		}
+
+		@Test
+		void should_exclude_the_classes_only_using_a_subpackage() {
+			Assertions.assertThat(prefilter.includes(locationOf(ConstantPoolPrefilterTest.class))).isFalse();
+			Assertions.assertThat(prefilter.includes(locationOf(DateExample.class))).isFalse();
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package io.github.cpetot.archunit;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.EvaluationResult;
+import com.tngtech.archunit.library.freeze.FreezingArchRule;
+import com.tngtech.archunit.library.freeze.ViolationLineMatcher;
+import io.github.cpetot.archunit.date.DateExample;
+import io.github.cpetot.archunit.shard.web.ShardController;
+
+class HashedViolationStoreTest {
+
+	private static final ArchRule RULE = StandardCodingRules.NO_CLASSES_SHOULD_USE_JAVA_UTIL_DATE;
+
+	@TempDir
+	Path storeDirectory;
+
+	private final JavaClasses frozenClasses = new ClassFileImporter().importClasses(DateExample.class);
+	private final JavaClasses newClasses = new ClassFileImporter().importClasses(DateExample.class, ShardController.class);
+
+	@Nested
+	@DisplayName("when freezing a rule")
+	class FreezeTest {
+
+		@Test
+		void should_store_the_violations_of_the_first_evaluation() {
+			HashedViolationStore store = new HashedViolationStore(storeDirectory);
+			ArchRule frozenRule = store.freeze(RULE);
+
+			EvaluationResult firstResult = frozenRule.evaluate(frozenClasses);
+			EvaluationResult secondResult = frozenRule.evaluate(frozenClasses);
+
+			Assertions.assertThat(firstResult.hasViolation()).isFalse();
+			Assertions.assertThat(secondResult.hasViolation()).isFalse();
+			Assertions.assertThat(store.getViolations(RULE)).hasSameSizeAs(RULE.evaluate(frozenClasses).getFailureReport().getDetails());
+		}
+
+		@Test
+		void should_only_report_the_new_violations() {
+			ArchRule frozenRule = new HashedViolationStore(storeDirectory).freeze(RULE);
+			frozenRule.evaluate(frozenClasses);
+
+			EvaluationResult result = frozenRule.evaluate(newClasses);
+
+			Assertions.assertThat(result.getFailureReport().getDetails())
+				.isNotEmpty()
+				.allMatch(violation -> violation.contains(ShardController.class.getName()));
+		}
+
+		@Test
+		void should_remove_the_solved_violations() {
+			HashedViolationStore store = new HashedViolationStore(storeDirectory);
+			ArchRule frozenRule = store.freeze(RULE);
+			frozenRule.evaluate(newClasses);
+
+			frozenRule.evaluate(frozenClasses);
+
+			Assertions.assertThat(store.getViolations(RULE)).hasSameSizeAs(RULE.evaluate(frozenClasses).getFailureReport().getDetails());
+		}
+	}
+
+	@Nested
+	@DisplayName("when used as a violation store")
+	class StoreTest {
+
+		@Test
+		void should_append_the_new_violations() throws Exception {
+			HashedViolationStore store = new HashedViolationStore(storeDirectory);
+			store.save(RULE, List.of("first violation"));
+			Path file;
+			try (Stream<Path> files = Files.list(storeDirectory)) {
+				file = files.findFirst().orElseThrow();
+			}
+			long firstSize = Files.size(file);
+
+			store.save(RULE, List.of("first violation", "second violation"));
+
+			Assertions.assertThat(Files.size(file)).isEqualTo(firstSize + Long.BYTES);
+			Assertions.assertThat(store.getViolations(RULE)).hasSize(2);
+		}
+
+		@Test
+		void should_ignore_the_line_numbers() {
+			Assertions.assertThat(HashedViolationStore.hashOf("Method <A.b()> calls method <C.d()> in (A.java:12)"))
+				.isEqualTo(HashedViolationStore.hashOf("Method <A.b()> calls method <C.d()> in (A.java:15)"))
+				.isNotEqualTo(HashedViolationStore.hashOf("Method <A.b()> calls method <C.e()> in (A.java:12)"));
+		}
+
+		@Test
+		void should_keep_its_directory_when_initialized_by_a_freezing_rule() throws Exception {
+			FreezingArchRule.freeze(RULE).persistIn(new HashedViolationStore(storeDirectory)).check(frozenClasses);
+
+			try (Stream<Path> files = Files.list(storeDirectory)) {
+				Assertions.assertThat(files).hasSize(1);
+			}
+		}
+
+		@Test
+		void should_match_the_violations_with_their_hash() {
+			ViolationLineMatcher matcher = HashedViolationStore.hashMatcher();
+			String violation = "Method <A.b()> calls method <C.d()> in (A.java:12)";
+			String otherViolation = "Method <A.b()> calls method <C.e()> in (A.java:12)";
+			String hash = HexFormat.of().toHexDigits(HashedViolationStore.hashOf(violation));
+
+			Assertions.assertThat(matcher.matches(violation, hash)).isTrue();
+			Assertions.assertThat(matcher.matches(otherViolation, hash)).isFalse();
+			Assertions.assertThat(matcher.matches("Method <A.b()> calls method <C.d()> in (A.java:15)", hash)).isTrue();
+		}
+
+		@Test
+		void should_be_usable_by_a_freezing_rule() {
+			HashedViolationStore store = new HashedViolationStore(storeDirectory);
+			ArchRule frozenRule = FreezingArchRule.freeze(RULE).persistIn(store).associateViolationLinesVia(HashedViolationStore.hashMatcher());
+			frozenRule.check(frozenClasses);
+
+			Assertions.assertThatCode(() -> frozenRule.check(frozenClasses)).doesNotThrowAnyException();
+			Assertions.assertThatThrownBy(() -> frozenRule.check(newClasses))
+				.isInstanceOf(AssertionError.class)
+				.hasMessageContaining(ShardController.class.getName())
+				.hasMessageNotContaining("A_DATE");
+		}
+	}
+}
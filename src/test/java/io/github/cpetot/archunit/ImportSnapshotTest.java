@@ -0,0 +1,74 @@
+package io.github.cpetot.archunit;
+
+import java.lang.annotation.Annotation;
+import java.nio.file.Path;
+import java.util.List;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.PrePersist;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Repository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.domain.JavaMember;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import io.github.cpetot.archunit.jpa.TestEntityCorrectLifeCycle;
+
+class ImportSnapshotTest {
+
+	private static final List<Class<? extends Annotation>> ANNOTATION_TYPES =
+		List.of(Component.class, Service.class, Repository.class, Transactional.class, Entity.class, PrePersist.class);
+
+	@TempDir
+	Path snapshotDirectory;
+
+	private final JavaClasses classes = new ClassFileImporter().importPackages("io.github.cpetot.archunit.spring", "io.github.cpetot.archunit.jpa");
+
+	@Test
+	void should_write_the_snapshot_then_load_it() {
+		ImportSnapshot written = ImportSnapshot.loadOrWrite(snapshotDirectory, classes.getDefaultPackage());
+		ImportSnapshot loaded = ImportSnapshot.loadOrWrite(snapshotDirectory, classes.getDefaultPackage());
+
+		Assertions.assertThat(written.isLoaded()).isFalse();
+		Assertions.assertThat(loaded.isLoaded()).isTrue();
+		Assertions.assertThat(snapshotDirectory).isDirectoryContaining("glob:**/import-*.snapshot");
+	}
+
+	@Test
+	void should_load_the_same_meta_annotations() {
+		ImportSnapshot.loadOrWrite(snapshotDirectory, classes.getDefaultPackage());
+		MetaAnnotationIndex loadedIndex = ImportSnapshot.loadOrWrite(snapshotDirectory, classes.getDefaultPackage()).metaAnnotationIndex();
+		MetaAnnotationIndex index = MetaAnnotationIndex.of(classes);
+
+		for (JavaClass javaClass : classes) {
+			for (Class<? extends Annotation> annotationType : ANNOTATION_TYPES) {
+				Assertions.assertThat(loadedIndex.isMetaAnnotatedWith(javaClass, annotationType))
+					.as("%s annotated with %s", javaClass.getName(), annotationType.getName())
+					.isEqualTo(index.isMetaAnnotatedWith(javaClass, annotationType));
+				for (JavaMember member : javaClass.getMembers()) {
+					Assertions.assertThat(loadedIndex.isMetaAnnotatedWith(member, annotationType))
+						.as("%s annotated with %s", member.getFullName(), annotationType.getName())
+						.isEqualTo(index.isMetaAnnotatedWith(member, annotationType));
+				}
+			}
+		}
+		Assertions.assertThat(loadedIndex.isMetaAnnotatedWith(classes.get(TestEntityCorrectLifeCycle.class), Entity.class)).isTrue();
+	}
+
+	@Test
+	void should_identify_the_snapshot_by_the_imported_class_files() {
+		JavaClasses otherClasses = new ClassFileImporter().importPackages("io.github.cpetot.archunit.spring");
+		JavaClasses sameClasses = new ClassFileImporter().importPackages("io.github.cpetot.archunit.spring", "io.github.cpetot.archunit.jpa");
+
+		Assertions.assertThat(ImportSnapshot.fingerprintOf(sameClasses.getDefaultPackage()))
+			.isEqualTo(ImportSnapshot.fingerprintOf(classes.getDefaultPackage()))
+			.isNotEqualTo(ImportSnapshot.fingerprintOf(otherClasses.getDefaultPackage()));
+	}
+}
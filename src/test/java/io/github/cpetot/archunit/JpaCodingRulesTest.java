@@ -7,11 +7,31 @@ import org.junit.jupiter.api.Test;
 
 import com.tngtech.archunit.core.domain.JavaClasses;
 import com.tngtech.archunit.core.importer.ClassFileImporter;
+import io.github.cpetot.archunit.jpa.TestCallbackAuditor;
+import io.github.cpetot.archunit.jpa.TestCallbackRepository;
+import io.github.cpetot.archunit.jpa.TestEntityExtendingEntityWithIdentityId;
+import io.github.cpetot.archunit.jpa.TestEntityExtendingMappedSuperclassWithIdentityId;
 import io.github.cpetot.archunit.jpa.TestEntityIncorrectLifeCycleArguments;
 import io.github.cpetot.archunit.jpa.TestEntityIncorrectLifeCycleReturnType;
+import io.github.cpetot.archunit.jpa.TestEntityLobContent;
+import io.github.cpetot.archunit.jpa.TestEntityWithAssociationsInEquals;
+import io.github.cpetot.archunit.jpa.TestEntityWithDatabaseCallbacks;
+import io.github.cpetot.archunit.jpa.TestEntityWithDefaultSingleAssociations;
+import io.github.cpetot.archunit.jpa.TestEntityWithEagerCollections;
+import io.github.cpetot.archunit.jpa.TestEntityWithEagerLobs;
 import io.github.cpetot.archunit.jpa.TestEntityWithExplicitPublicEmptyConstructor;
+import io.github.cpetot.archunit.jpa.TestEntityWithIdInEquals;
+import io.github.cpetot.archunit.jpa.TestEntityWithIdentityId;
 import io.github.cpetot.archunit.jpa.TestEntityWithImplicitPublicEmptyConstructor;
+import io.github.cpetot.archunit.jpa.TestEntityWithLazyCollections;
+import io.github.cpetot.archunit.jpa.TestEntityWithLazyLobContent;
+import io.github.cpetot.archunit.jpa.TestEntityWithLazyLobContentGetter;
+import io.github.cpetot.archunit.jpa.TestEntityWithLazySingleAssociations;
 import io.github.cpetot.archunit.jpa.TestEntityWithPublicArgedConstructor;
+import io.github.cpetot.archunit.jpa.TestEntityWithPureCallbacks;
+import io.github.cpetot.archunit.jpa.TestEntityWithSequenceId;
+import io.github.cpetot.archunit.jpa.TestLobContentView;
+import io.github.cpetot.archunit.jpa.TestMappedSuperclassWithIdentityId;
 
 class JpaCodingRulesTest {
 
@@ -41,6 +61,27 @@ class JpaCodingRulesTest {
 		}
 	}
 
+	@Nested
+	@DisplayName("when JPA_ENTITIES_FETCH_SINGLE_ASSOCIATIONS_LAZILY")
+	class JpaEntitiesFetchSingleAssociationsLazilyTest {
+
+		@Test
+		void should_raise_no_error_with_explicit_lazy_field_and_getter() {
+			JavaClasses classes = new ClassFileImporter().importClasses(TestEntityWithLazySingleAssociations.class);
+			JpaCodingRules.JPA_ENTITIES_FETCH_SINGLE_ASSOCIATIONS_LAZILY.allowEmptyShould(false).check(classes);
+		}
+
+		@Test
+		void should_raise_two_errors_with_default_and_eager_associations() {
+			JavaClasses classes = new ClassFileImporter().importClasses(TestEntityWithDefaultSingleAssociations.class);
+			Assertions.assertThatThrownBy(() -> JpaCodingRules.JPA_ENTITIES_FETCH_SINGLE_ASSOCIATIONS_LAZILY.allowEmptyShould(false).check(classes))
+				.isInstanceOf(AssertionError.class)
+				.hasMessageContaining("classes that are annotated with @Entity should fetch single associations lazily' was violated (2 times)")
+				.hasMessageContaining("Field parent of entity %s is annotated by @ManyToOne without fetch = LAZY", TestEntityWithDefaultSingleAssociations.class.getName())
+				.hasMessageContaining("Field details of entity %s is annotated by @OneToOne without fetch = LAZY", TestEntityWithDefaultSingleAssociations.class.getName());
+		}
+	}
+
 	@Nested
 	@DisplayName("when LIFE_CYCLE_ANNOTATIONS_CORRECTLY_DECLARED")
 	class LifeCycleAnnotationsCorrectlyDeclaredTest {
@@ -69,4 +110,178 @@ class JpaCodingRulesTest {
 				.hasMessageContaining("Method %s.prePersist(int) should be without any parameter but has 1 parameter(s)", TestEntityIncorrectLifeCycleArguments.class.getName());
 		}
 	}
+
+	@Nested
+	@DisplayName("when LIFE_CYCLE_CALLBACKS_DO_NOT_ACCESS_THE_DATABASE")
+	class LifeCycleCallbacksDoNotAccessTheDatabaseTest {
+
+		@Test
+		void should_raise_no_error_with_callbacks_not_reaching_the_database() {
+			JavaClasses classes = new ClassFileImporter().importClasses(TestEntityWithPureCallbacks.class);
+			JpaCodingRules.LIFE_CYCLE_CALLBACKS_DO_NOT_ACCESS_THE_DATABASE.allowEmptyShould(false).check(classes);
+		}
+
+		@Test
+		void should_raise_two_errors_with_callbacks_reaching_a_repository_and_an_entity_manager() {
+			JavaClasses classes = new ClassFileImporter()
+				.importClasses(TestEntityWithDatabaseCallbacks.class, TestCallbackAuditor.class, TestCallbackRepository.class);
+			Assertions.assertThatThrownBy(() -> JpaCodingRules.LIFE_CYCLE_CALLBACKS_DO_NOT_ACCESS_THE_DATABASE.allowEmptyShould(false).check(classes))
+				.isInstanceOf(AssertionError.class)
+				.hasMessageContaining("should not access the database, directly or not' was violated (2 times)")
+				.hasMessageContaining(
+					"Method %1$s.prePersist() accesses the database by calling %2$s.save(java.lang.Object), through %1$s.prePersist() -> %3$s.audit(java.lang.Object) -> %3$s.record(java.lang.Object)",
+					TestEntityWithDatabaseCallbacks.class.getName(), TestCallbackRepository.class.getName(), TestCallbackAuditor.class.getName()
+				)
+				.hasMessageContaining(
+					"Method %1$s.postUpdate() accesses the database by calling jakarta.persistence.EntityManager.detach(java.lang.Object), through %1$s.postUpdate()",
+					TestEntityWithDatabaseCallbacks.class.getName()
+				);
+		}
+
+		@Test
+		void should_raise_one_error_without_following_the_calls_to_classes_not_imported() {
+			JavaClasses classes = new ClassFileImporter().importClasses(TestEntityWithDatabaseCallbacks.class, TestCallbackRepository.class);
+			Assertions.assertThatThrownBy(() -> JpaCodingRules.LIFE_CYCLE_CALLBACKS_DO_NOT_ACCESS_THE_DATABASE.allowEmptyShould(false).check(classes))
+				.isInstanceOf(AssertionError.class)
+				.hasMessageContaining("was violated (1 times)")
+				.hasMessageNotContaining("prePersist");
+		}
+	}
+
+	@Nested
+	@DisplayName("when JPA_ENTITIES_DO_NOT_FETCH_COLLECTIONS_EAGERLY")
+	class JpaEntitiesDoNotFetchCollectionsEagerlyTest {
+
+		@Test
+		void should_raise_no_error_with_lazy_collections() {
+			JavaClasses classes = new ClassFileImporter().importClasses(TestEntityWithLazyCollections.class);
+			JpaCodingRules.JPA_ENTITIES_DO_NOT_FETCH_COLLECTIONS_EAGERLY.allowEmptyShould(false).check(classes);
+		}
+
+		@Test
+		void should_raise_two_errors_with_eager_field_and_getter() {
+			JavaClasses classes = new ClassFileImporter().importClasses(TestEntityWithEagerCollections.class);
+			Assertions.assertThatThrownBy(() -> JpaCodingRules.JPA_ENTITIES_DO_NOT_FETCH_COLLECTIONS_EAGERLY.allowEmptyShould(false).check(classes))
+				.isInstanceOf(AssertionError.class)
+				.hasMessageContaining("classes that are annotated with @Entity should not fetch collections eagerly' was violated (2 times)")
+				.hasMessageContaining("Field children of entity %s is annotated by @OneToMany with fetch = EAGER", TestEntityWithEagerCollections.class.getName())
+				.hasMessageContaining("Getter getTags() of entity %s is annotated by @ElementCollection with fetch = EAGER", TestEntityWithEagerCollections.class.getName());
+		}
+	}
+
+	@Nested
+	@DisplayName("when JPA_ENTITIES_DO_NOT_GENERATE_IDS_BY_IDENTITY")
+	class JpaEntitiesDoNotGenerateIdsByIdentityTest {
+
+		@Test
+		void should_raise_no_error_with_sequence_id_getter() {
+			JavaClasses classes = new ClassFileImporter().importClasses(TestEntityWithSequenceId.class);
+			JpaCodingRules.JPA_ENTITIES_DO_NOT_GENERATE_IDS_BY_IDENTITY.allowEmptyShould(false).check(classes);
+		}
+
+		@Test
+		void should_raise_one_error_with_identity_id() {
+			JavaClasses classes = new ClassFileImporter().importClasses(TestEntityWithIdentityId.class, TestEntityWithSequenceId.class);
+			Assertions.assertThatThrownBy(() -> JpaCodingRules.JPA_ENTITIES_DO_NOT_GENERATE_IDS_BY_IDENTITY.allowEmptyShould(false).check(classes))
+				.isInstanceOf(AssertionError.class)
+				.hasMessageContaining("classes that are annotated with @Entity should not generate ids by identity' was violated (1 times)")
+				.hasMessageContaining("Field id of entity %s is generated with strategy = IDENTITY", TestEntityWithIdentityId.class.getName());
+		}
+
+		@Test
+		void should_raise_one_error_with_identity_id_of_mapped_superclass() {
+			JavaClasses classes = new ClassFileImporter().importClasses(
+				TestEntityExtendingMappedSuperclassWithIdentityId.class, TestMappedSuperclassWithIdentityId.class
+			);
+			Assertions.assertThatThrownBy(() -> JpaCodingRules.JPA_ENTITIES_DO_NOT_GENERATE_IDS_BY_IDENTITY.allowEmptyShould(false).check(classes))
+				.isInstanceOf(AssertionError.class)
+				.hasMessageContaining("classes that are annotated with @Entity should not generate ids by identity' was violated (1 times)")
+				.hasMessageContaining("Field id of entity %s is generated with strategy = IDENTITY", TestEntityExtendingMappedSuperclassWithIdentityId.class.getName());
+		}
+
+		@Test
+		void should_raise_one_error_with_identity_id_of_entity_superclass() {
+			JavaClasses classes = new ClassFileImporter().importClasses(TestEntityExtendingEntityWithIdentityId.class, TestEntityWithIdentityId.class);
+			Assertions.assertThatThrownBy(() -> JpaCodingRules.JPA_ENTITIES_DO_NOT_GENERATE_IDS_BY_IDENTITY.allowEmptyShould(false).check(classes))
+				.isInstanceOf(AssertionError.class)
+				.hasMessageContaining("classes that are annotated with @Entity should not generate ids by identity' was violated (1 times)")
+				.hasMessageContaining("Field id of entity %s is generated with strategy = IDENTITY", TestEntityWithIdentityId.class.getName());
+		}
+
+		@Test
+		void should_raise_no_error_with_allowed_identity_id() {
+			JavaClasses classes = new ClassFileImporter().importClasses(TestEntityWithIdentityId.class, TestEntityWithSequenceId.class);
+			JpaCodingRules.jpaEntitiesDoNotGenerateIdsByIdentityExcept(TestEntityWithIdentityId.class).allowEmptyShould(false).check(classes);
+		}
+	}
+
+	@Nested
+	@DisplayName("when JPA_ENTITIES_FETCH_LOBS_LAZILY")
+	class JpaEntitiesFetchLobsLazilyTest {
+
+		@Test
+		void should_raise_no_error_with_lob_in_an_entity_referenced_by_lazy_one_to_one() {
+			JavaClasses classes = new ClassFileImporter().importClasses(TestEntityLobContent.class, TestEntityWithLazyLobContent.class);
+			JpaCodingRules.JPA_ENTITIES_FETCH_LOBS_LAZILY.allowEmptyShould(false).check(classes);
+		}
+
+		@Test
+		void should_raise_no_error_with_lob_in_an_entity_referenced_by_lazy_one_to_one_with_getter() {
+			JavaClasses classes = new ClassFileImporter().importClasses(TestEntityLobContent.class, TestEntityWithLazyLobContentGetter.class);
+			JpaCodingRules.JPA_ENTITIES_FETCH_LOBS_LAZILY.allowEmptyShould(false).check(classes);
+		}
+
+		@Test
+		void should_raise_no_error_with_lob_in_an_entity_also_referenced_outside_of_entities() {
+			JavaClasses classes = new ClassFileImporter().importClasses(
+				TestEntityLobContent.class, TestEntityWithLazyLobContent.class, TestLobContentView.class
+			);
+			JpaCodingRules.JPA_ENTITIES_FETCH_LOBS_LAZILY.allowEmptyShould(false).check(classes);
+		}
+
+		@Test
+		void should_raise_one_error_with_lob_in_an_entity_not_referenced() {
+			JavaClasses classes = new ClassFileImporter().importClasses(TestEntityLobContent.class);
+			Assertions.assertThatThrownBy(() -> JpaCodingRules.JPA_ENTITIES_FETCH_LOBS_LAZILY.allowEmptyShould(false).check(classes))
+				.isInstanceOf(AssertionError.class)
+				.hasMessageContaining("classes that are annotated with @Entity should fetch large objects lazily' was violated (1 times)")
+				.hasMessageContaining("Field content of type byte[] of entity %s is annotated by @Lob without @Basic(fetch = LAZY)", TestEntityLobContent.class.getName());
+		}
+
+		@Test
+		void should_raise_two_errors_with_default_and_eager_lobs() {
+			JavaClasses classes = new ClassFileImporter().importClasses(TestEntityWithEagerLobs.class);
+			Assertions.assertThatThrownBy(() -> JpaCodingRules.JPA_ENTITIES_FETCH_LOBS_LAZILY.allowEmptyShould(false).check(classes))
+				.isInstanceOf(AssertionError.class)
+				.hasMessageContaining("classes that are annotated with @Entity should fetch large objects lazily' was violated (2 times)")
+				.hasMessageContaining("Field picture of type byte[] of entity %s", TestEntityWithEagerLobs.class.getName())
+				.hasMessageContaining("Field description of type java.lang.String of entity %s", TestEntityWithEagerLobs.class.getName())
+				.hasMessageNotContaining("notes");
+		}
+	}
+
+	@Nested
+	@DisplayName("when JPA_ENTITIES_EQUALS_AND_HASH_CODE_DO_NOT_ACCESS_ASSOCIATIONS")
+	class JpaEntitiesEqualsAndHashCodeDoNotAccessAssociationsTest {
+
+		@Test
+		void should_raise_no_error_with_id_based_equals_and_hash_code() {
+			JavaClasses classes = new ClassFileImporter().importClasses(TestEntityWithIdInEquals.class);
+			JpaCodingRules.JPA_ENTITIES_EQUALS_AND_HASH_CODE_DO_NOT_ACCESS_ASSOCIATIONS.allowEmptyShould(false).check(classes);
+		}
+
+		@Test
+		void should_raise_three_errors_with_association_field_accesses_and_getter() {
+			JavaClasses classes = new ClassFileImporter().importClasses(TestEntityWithAssociationsInEquals.class);
+			String entity = TestEntityWithAssociationsInEquals.class.getName();
+			Assertions.assertThatThrownBy(() -> JpaCodingRules.JPA_ENTITIES_EQUALS_AND_HASH_CODE_DO_NOT_ACCESS_ASSOCIATIONS.allowEmptyShould(false).check(classes))
+				.isInstanceOf(AssertionError.class)
+				.hasMessageContaining("methods that are equals(Object) or hashCode() and are declared in classes that are annotated with @Entity should not access the associations' was violated (3 times)")
+				.hasMessageContaining("Method %1$s.equals(java.lang.Object) accesses the association %1$s.parent annotated by @ManyToOne in (TestEntityWithAssociationsInEquals.java:", entity)
+				.hasMessageContaining(
+					"Method %1$s.hashCode() calls %1$s.getChildren(), accessing the association %1$s.children annotated by @OneToMany, in (TestEntityWithAssociationsInEquals.java:",
+					entity
+				);
+		}
+	}
 }
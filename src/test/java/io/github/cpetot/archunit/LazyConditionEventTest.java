@@ -0,0 +1,54 @@
+package io.github.cpetot.archunit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.lang.ConditionEvent;
+import io.github.cpetot.archunit.spring.transaction.TestService;
+
+class LazyConditionEventTest {
+
+	private final JavaClass javaClass = new ClassFileImporter().importClasses(TestService.class).get(TestService.class);
+
+	@Test
+	void should_render_named_arguments_with_their_full_name() {
+		ConditionEvent event = LazyConditionEvent.violated(
+			javaClass, "Method %s of %s has %d parameter(s)", javaClass.getMethod("callRepositoryWithTransactional"), javaClass, 0);
+
+		Assertions.assertThat(event.isViolation()).isTrue();
+		Assertions.assertThat(event.getDescriptionLines()).containsExactly(
+			String.format("Method %s.callRepositoryWithTransactional() of %s has 0 parameter(s)", TestService.class.getName(), TestService.class.getName())
+		);
+	}
+
+	@Test
+	void should_keep_the_message_when_inverted() {
+		ConditionEvent event = LazyConditionEvent.satisfied(javaClass, "Class %s is @Transactional", javaClass);
+
+		ConditionEvent inverted = event.invert();
+
+		Assertions.assertThat(event.isViolation()).isFalse();
+		Assertions.assertThat(inverted.isViolation()).isTrue();
+		Assertions.assertThat(inverted.getDescriptionLines()).isEqualTo(event.getDescriptionLines());
+	}
+
+	@Test
+	void should_handle_the_corresponding_object_with_the_message() {
+		ConditionEvent event = LazyConditionEvent.violated(javaClass, "Class %s has no public empty constructor", javaClass);
+		List<Object> handledObjects = new ArrayList<>();
+		List<String> handledMessages = new ArrayList<>();
+
+		event.handleWith((correspondingObjects, message) -> {
+			handledObjects.addAll(correspondingObjects);
+			handledMessages.add(message);
+		});
+
+		Assertions.assertThat(handledObjects).containsExactly(javaClass);
+		Assertions.assertThat(handledMessages).containsExactly(String.format("Class %s has no public empty constructor", TestService.class.getName()));
+	}
+}
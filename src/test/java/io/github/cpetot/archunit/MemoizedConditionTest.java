@@ -0,0 +1,89 @@
+package io.github.cpetot.archunit;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.EvaluationResult;
+import io.github.cpetot.archunit.jpa.TestEntityWithExplicitPublicEmptyConstructor;
+import io.github.cpetot.archunit.jpa.TestEntityWithPrivateEmptyConstructor;
+import io.github.cpetot.archunit.jpa.TestEntityWithPublicArgedConstructor;
+
+class MemoizedConditionTest {
+
+	private final AtomicInteger checks = new AtomicInteger();
+
+	private final ArchCondition<JavaClass> countingCondition = new ArchCondition<>("have a public empty constructor") {
+		@Override
+		public void check(JavaClass javaClass, ConditionEvents events) {
+			checks.incrementAndGet();
+			StandardCodingRules.HAS_A_PUBLIC_EMPTY_CONSTRUCTOR.check(javaClass, events);
+		}
+	};
+
+	private final JavaClasses classes = new ClassFileImporter().importClasses(
+		TestEntityWithExplicitPublicEmptyConstructor.class, TestEntityWithPrivateEmptyConstructor.class, TestEntityWithPublicArgedConstructor.class
+	);
+
+	@Test
+	void should_check_each_object_once_for_all_the_rules() {
+		ArchCondition<JavaClass> condition = new MemoizedCondition<>(countingCondition, javaClass -> javaClass, 100);
+
+		EvaluationResult firstResult;
+		EvaluationResult secondResult;
+		try (ImportScope scope = ImportScope.open(classes)) {
+			firstResult = classes().should(condition).evaluate(classes);
+			secondResult = classes().that().areNotInterfaces().should(condition).evaluate(classes);
+		}
+
+		Assertions.assertThat(checks).hasValue(3);
+		Assertions.assertThat(secondResult.getFailureReport().getDetails())
+			.hasSize(2)
+			.isEqualTo(firstResult.getFailureReport().getDetails());
+	}
+
+	@Test
+	void should_check_the_objects_again_once_the_import_is_evaluated() {
+		ArchCondition<JavaClass> condition = new MemoizedCondition<>(countingCondition, javaClass -> javaClass, 100);
+
+		classes().should(condition).evaluate(classes);
+		classes().should(condition).evaluate(classes);
+
+		Assertions.assertThat(checks).hasValue(6);
+	}
+
+	@Test
+	void should_check_the_objects_of_another_import_again() {
+		ArchCondition<JavaClass> condition = new MemoizedCondition<>(countingCondition, javaClass -> javaClass, 100);
+		JavaClasses otherClasses = new ClassFileImporter().importClasses(TestEntityWithPublicArgedConstructor.class);
+
+		classes().should(condition).evaluate(classes);
+		EvaluationResult result = classes().should(condition).evaluate(otherClasses);
+
+		Assertions.assertThat(checks).hasValue(4);
+		Assertions.assertThat(result.getFailureReport().getDetails()).hasSize(1);
+	}
+
+	@Test
+	void should_not_remember_the_objects_beyond_its_capacity() {
+		ArchCondition<JavaClass> condition = new MemoizedCondition<>(countingCondition, javaClass -> javaClass, 2);
+
+		EvaluationResult result;
+		try (ImportScope scope = ImportScope.open(classes)) {
+			classes().should(condition).evaluate(classes);
+			result = classes().should(condition).evaluate(classes);
+		}
+
+		// The first 2 classes are remembered, the third one is checked again
+		Assertions.assertThat(checks).hasValue(4);
+		Assertions.assertThat(result.getFailureReport().getDetails()).hasSize(2);
+	}
+}
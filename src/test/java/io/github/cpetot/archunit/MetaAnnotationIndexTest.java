@@ -0,0 +1,80 @@
+package io.github.cpetot.archunit;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Controller;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import io.github.cpetot.archunit.jpa.TestEntityCorrectLifeCycle;
+import io.github.cpetot.archunit.spring.stereotypes.AValidTestRestController;
+
+class MetaAnnotationIndexTest {
+
+	private final JavaClasses classes = new ClassFileImporter().importClasses(AValidTestRestController.class, TestEntityCorrectLifeCycle.class);
+
+	@Test
+	void should_find_direct_and_meta_annotations_of_a_class() {
+		JavaClass restController = classes.get(AValidTestRestController.class);
+		MetaAnnotationIndex index = MetaAnnotationIndex.of(classes);
+
+		Assertions.assertThat(index.isMetaAnnotatedWith(restController, RestController.class)).isTrue();
+		Assertions.assertThat(index.isMetaAnnotatedWith(restController, Controller.class)).isTrue();
+		Assertions.assertThat(index.isMetaAnnotatedWith(restController, Component.class)).isTrue();
+		Assertions.assertThat(index.isMetaAnnotatedWith(restController, Service.class)).isFalse();
+		Assertions.assertThat(index.isMetaAnnotatedWith(restController, Entity.class)).isFalse();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	void should_find_annotations_of_members() {
+		JavaClass entity = classes.get(TestEntityCorrectLifeCycle.class);
+		MetaAnnotationIndex index = MetaAnnotationIndex.of(classes);
+
+		Assertions.assertThat(index.isMetaAnnotatedWith(entity.getMethod("prePersist"), PrePersist.class)).isTrue();
+		Assertions.assertThat(index.isMetaAnnotatedWithAny(entity.getMethod("preUpdate"), new Class[] {PrePersist.class, PreUpdate.class})).isTrue();
+		Assertions.assertThat(index.isMetaAnnotatedWith(entity.getMethod("postUpdate"), PrePersist.class)).isFalse();
+	}
+
+	@Test
+	void should_build_one_index_per_import() {
+		JavaClasses otherImport = new ClassFileImporter().importClasses(AValidTestRestController.class);
+
+		try (ImportScope scope = ImportScope.open(classes); ImportScope otherScope = ImportScope.open(otherImport)) {
+			Assertions.assertThat(MetaAnnotationIndex.of(classes.get(AValidTestRestController.class))).isSameAs(MetaAnnotationIndex.of(classes));
+			Assertions.assertThat(MetaAnnotationIndex.of(otherImport)).isNotSameAs(MetaAnnotationIndex.of(classes));
+		}
+	}
+
+	@Test
+	void should_release_the_index_with_the_scope_of_the_import() {
+		MetaAnnotationIndex index;
+		try (ImportScope scope = ImportScope.open(classes)) {
+			index = MetaAnnotationIndex.of(classes);
+			Assertions.assertThat(MetaAnnotationIndex.find(classes.get(AValidTestRestController.class))).containsSame(index);
+		}
+
+		Assertions.assertThat(MetaAnnotationIndex.find(classes.get(AValidTestRestController.class))).isEmpty();
+		Assertions.assertThat(MetaAnnotationIndex.of(classes)).isNotSameAs(index);
+	}
+
+	@Test
+	void should_share_the_index_until_the_outermost_scope_is_closed() {
+		try (ImportScope scope = ImportScope.open(classes)) {
+			MetaAnnotationIndex index = MetaAnnotationIndex.of(classes);
+			try (ImportScope nestedScope = ImportScope.open(classes)) {
+				Assertions.assertThat(MetaAnnotationIndex.of(classes)).isSameAs(index);
+			}
+
+			Assertions.assertThat(MetaAnnotationIndex.of(classes)).isSameAs(index);
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package io.github.cpetot.archunit;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.lang.EvaluationResult;
+import io.github.cpetot.archunit.date.DateExample;
+import io.github.cpetot.archunit.jpa.TestEntityWithPublicArgedConstructor;
+import io.github.cpetot.archunit.spring.transaction.TestRepository;
+import io.github.cpetot.archunit.spring.transaction.TestService;
+
+class MeteredRuleTest {
+
+	@Nested
+	@DisplayName("when measuring a rule")
+	class MeasureTest {
+
+		private final JavaClasses classes = new ClassFileImporter().importClasses(
+			TestRepository.class, TestService.class, TestEntityWithPublicArgedConstructor.class, DateExample.class
+		);
+
+		private final List<RuleMetrics> metrics = new ArrayList<>();
+
+		@Test
+		void should_measure_a_rule_of_the_library() {
+			MeteredRule rule = MeteredRule.of(JpaCodingRules.JPA_ENTITIES_HAVE_PUBLIC_EMPTY_CONSTRUCTOR, metrics::add);
+
+			EvaluationResult result = rule.evaluate(classes);
+
+			Assertions.assertThat(result.getFailureReport().getDetails())
+				.isEqualTo(JpaCodingRules.JPA_ENTITIES_HAVE_PUBLIC_EMPTY_CONSTRUCTOR.evaluate(classes).getFailureReport().getDetails());
+			Assertions.assertThat(metrics).singleElement().satisfies(ruleMetrics -> {
+				Assertions.assertThat(ruleMetrics.getRuleDescription()).isEqualTo(JpaCodingRules.JPA_ENTITIES_HAVE_PUBLIC_EMPTY_CONSTRUCTOR.getDescription());
+				Assertions.assertThat(ruleMetrics.getCheckedObjects()).hasValue(1);
+				Assertions.assertThat(ruleMetrics.getSatisfiedEvents()).hasValue(0);
+				Assertions.assertThat(ruleMetrics.getViolatedEvents()).isEqualTo(1);
+			});
+		}
+
+		@Test
+		void should_measure_any_rule() {
+			MeteredRule rule = MeteredRule.of(StandardCodingRules.NO_CLASSES_SHOULD_USE_JAVA_UTIL_DATE, metrics::add)
+				.because("it is an example");
+
+			Assertions.assertThatThrownBy(() -> rule.check(classes))
+				.isInstanceOf(AssertionError.class)
+				.hasMessageContaining("because it is an example");
+			Assertions.assertThat(metrics).singleElement().satisfies(ruleMetrics -> {
+				Assertions.assertThat(ruleMetrics.getRuleDescription()).endsWith("because it is an example");
+				Assertions.assertThat(ruleMetrics.getWallTime()).isPositive();
+				Assertions.assertThat(ruleMetrics.getCheckedObjects()).isEmpty();
+				Assertions.assertThat(ruleMetrics.getViolatedEvents()).isEqualTo(2);
+			});
+		}
+
+		@Test
+		void should_measure_a_rule_without_violation() {
+			MeteredRule.of(classes().should().haveNameNotMatching(".*Controller"), metrics::add).check(classes);
+
+			Assertions.assertThat(metrics).singleElement()
+				.extracting(RuleMetrics::getViolatedEvents)
+				.isEqualTo(0L);
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package io.github.cpetot.archunit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.JarFile;
+
+import jakarta.persistence.Entity;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.core.importer.Location;
+import io.github.cpetot.archunit.date.DateExample;
+import io.github.cpetot.archunit.date.LocalDateExample;
+import io.github.cpetot.archunit.jpa.TestEntityCorrectLifeCycle;
+
+class ParallelImporterTest {
+
+	private static Path locationOf(Class<?> type) {
+		try {
+			return Path.of(type.getProtectionDomain().getCodeSource().getLocation().toURI());
+		} catch (URISyntaxException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private final List<Path> locations = List.of(locationOf(DateExample.class), locationOf(Entity.class));
+
+	private List<String> importedClassNames(ClassFileImporter importer) {
+		try (JarFile jar = new JarFile(locations.get(1).toFile())) {
+			return importer.importLocations(List.of(Location.of(locations.get(0)), Location.of(jar))).stream().map(JavaClass::getName).toList();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Test
+	void should_import_the_same_classes_as_a_single_importer() {
+		JavaClasses classes = new ParallelImporter().withParallelism(2).importPaths(locations);
+
+		Assertions.assertThat(classes.stream().map(JavaClass::getName))
+			.containsExactlyInAnyOrderElementsOf(importedClassNames(new ClassFileImporter()))
+			.contains(DateExample.class.getName(), Entity.class.getName());
+	}
+
+	@Test
+	void should_resolve_the_classes_of_the_other_locations() {
+		JavaClasses classes = new ParallelImporter().importPaths(locations);
+
+		Assertions.assertThat(classes.get(TestEntityCorrectLifeCycle.class).getAnnotationOfType(Entity.class.getName()).getRawType())
+			.isSameAs(classes.get(Entity.class));
+	}
+
+	@Test
+	void should_apply_the_import_options() {
+		ImportOption prefilter = new ConstantPoolPrefilter.UsingJavaUtilDate();
+
+		JavaClasses classes = new ParallelImporter().withImportOptions(prefilter).importPaths(locations);
+
+		Assertions.assertThat(classes.stream().map(JavaClass::getName))
+			.containsExactlyInAnyOrderElementsOf(
+				importedClassNames(new ClassFileImporter().withImportOption(prefilter))
+			);
+		Assertions.assertThat(classes.contain(DateExample.class)).isTrue();
+		Assertions.assertThat(classes.contain(LocalDateExample.class)).isFalse();
+	}
+
+	@Test
+	void should_refuse_an_empty_parallelism() {
+		Assertions.assertThatThrownBy(() -> new ParallelImporter().withParallelism(0))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("The parallelism must be at least 1, got 0");
+	}
+}
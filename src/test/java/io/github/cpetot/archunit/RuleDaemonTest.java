@@ -0,0 +1,118 @@
+package io.github.cpetot.archunit;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.URISyntaxException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.cpetot.archunit.date.DateExample;
+
+class RuleDaemonTest {
+
+	@TempDir
+	Path socketDirectory;
+
+	private RuleDaemon daemon;
+	private Thread daemonThread;
+	private RuleDaemonClient client;
+
+	private final List<Path> locations = List.of(testClassesDirectory());
+
+	private static Path testClassesDirectory() {
+		try {
+			return Path.of(DateExample.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+		} catch (URISyntaxException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@BeforeEach
+	void startDaemon() throws Exception {
+		Path socket = socketDirectory.resolve("daemon.sock");
+		// A socket left by a daemon which was not closed
+		try (ServerSocketChannel stale = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+			stale.bind(UnixDomainSocketAddress.of(socket));
+		}
+		daemon = RuleDaemon.listen(socket);
+		daemonThread = new Thread(daemon::run);
+		daemonThread.start();
+		client = new RuleDaemonClient(socket);
+	}
+
+	@AfterEach
+	void stopDaemon() throws Exception {
+		client.stop();
+		daemonThread.join(10_000);
+		Assertions.assertThat(daemonThread.isAlive()).isFalse();
+	}
+
+	@Test
+	void should_report_the_violations_of_the_rules() throws Exception {
+		List<String> report = client.check(List.of(StandardCodingRules.class.getName()), locations);
+
+		Assertions.assertThat(report)
+			.anyMatch(line -> line.contains("Field <%s.A_DATE> has type <java.util.Date>".formatted(DateExample.class.getName())));
+	}
+
+	@Test
+	void should_keep_the_imported_classes_between_the_checks() throws Exception {
+		List<String> firstReport = client.check(List.of(StandardCodingRules.class.getName()), locations);
+		List<String> secondReport = client.check(List.of(StandardCodingRules.class.getName()), locations);
+
+		Assertions.assertThat(secondReport).isEqualTo(firstReport);
+		Assertions.assertThat(daemon.importCount()).isEqualTo(1);
+	}
+
+	@Test
+	void should_report_the_rules_it_cannot_find() {
+		Assertions.assertThatThrownBy(() -> client.check(List.of("org.example.UnknownRules"), locations))
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessageContaining("The class org.example.UnknownRules is not on the classpath of the daemon");
+	}
+
+	@Test
+	void should_release_the_least_recently_used_imports() throws Exception {
+		Path testClassesDirectory = testClassesDirectory();
+		for (String subpackage : List.of("date", "jpa", "junit4", "shard", "spring")) {
+			Path packageDirectory = testClassesDirectory.resolve(Path.of("io", "github", "cpetot", "archunit", subpackage));
+			client.check(List.of(StandardCodingRules.class.getName()), List.of(packageDirectory));
+		}
+
+		Assertions.assertThat(daemon.importCount()).isEqualTo(5);
+		Assertions.assertThat(daemon.keptImportCount()).isEqualTo(4);
+	}
+
+	@Test
+	void should_only_be_accessible_by_its_user() throws Exception {
+		Assertions.assertThat(Files.getPosixFilePermissions(socketDirectory.resolve("daemon.sock")))
+			.isEqualTo(PosixFilePermissions.fromString("rw-------"));
+	}
+
+	@Test
+	void should_refuse_to_replace_the_socket_of_a_running_daemon() {
+		Assertions.assertThatThrownBy(() -> RuleDaemon.listen(socketDirectory.resolve("daemon.sock")))
+			.isInstanceOf(IOException.class)
+			.hasMessageContaining("A daemon already listens on");
+	}
+
+	@Test
+	void should_refuse_to_replace_a_file_which_is_not_a_socket() throws Exception {
+		Path file = Files.writeString(socketDirectory.resolve("daemon.txt"), "not a socket");
+
+		Assertions.assertThatThrownBy(() -> RuleDaemon.listen(file))
+			.isInstanceOf(IOException.class)
+			.hasMessageContaining("exists and is not a socket");
+		Assertions.assertThat(file).hasContent("not a socket");
+	}
+}
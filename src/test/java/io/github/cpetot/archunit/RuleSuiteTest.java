@@ -0,0 +1,579 @@
+package io.github.cpetot.archunit;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.methods;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.EvaluationResult;
+import io.github.cpetot.archunit.date.DateExample;
+import io.github.cpetot.archunit.jpa.TestCallbackAuditor;
+import io.github.cpetot.archunit.jpa.TestCallbackRepository;
+import io.github.cpetot.archunit.jpa.TestEntityWithDatabaseCallbacks;
+import io.github.cpetot.archunit.jpa.TestEntityWithExplicitPublicEmptyConstructor;
+import io.github.cpetot.archunit.jpa.TestEntityWithPublicArgedConstructor;
+import io.github.cpetot.archunit.spring.stereotypes.AStandardClassWithRepository;
+import io.github.cpetot.archunit.spring.stereotypes.ATestControllerWithRepository;
+import io.github.cpetot.archunit.spring.stereotypes.ATestRestControllerWithRepository;
+import io.github.cpetot.archunit.spring.stereotypes.AValidTestRepository;
+import io.github.cpetot.archunit.spring.stereotypes.AnInvalidTestRepositoryContainingRepository;
+import io.github.cpetot.archunit.spring.transaction.TestRepository;
+import io.github.cpetot.archunit.spring.transaction.TestRepositoryHelper;
+import io.github.cpetot.archunit.spring.transaction.TestService;
+import io.github.cpetot.archunit.spring.transaction.TestServiceUsingHelperInTransaction;
+import io.github.cpetot.archunit.spring.transaction.TestServiceUsingHelperWithoutTransaction;
+import io.github.cpetot.archunit.spring.transaction.TestTransactionalService;
+
+class RuleSuiteTest {
+
+	@Nested
+	@DisplayName("when evaluating a suite")
+	class EvaluateTest {
+
+		@Test
+		void should_raise_no_error_when_no_rule_is_violated() {
+			JavaClasses classes = new ClassFileImporter().importClasses(
+				TestRepository.class, TestTransactionalService.class, TestEntityWithExplicitPublicEmptyConstructor.class
+			);
+			RuleSuite.of(
+				SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_TRANSACTIONAL_METHODS_OR_CLASSES,
+				JpaCodingRules.JPA_ENTITIES_HAVE_PUBLIC_EMPTY_CONSTRUCTOR,
+				StandardCodingRules.NO_CLASSES_SHOULD_USE_JAVA_UTIL_DATE
+			).allowEmptyShould(false).check(classes);
+		}
+
+		@Test
+		void should_aggregate_the_violations_of_all_rules() {
+			JavaClasses classes = new ClassFileImporter().importClasses(
+				TestRepository.class, TestService.class, TestEntityWithPublicArgedConstructor.class, DateExample.class
+			);
+			RuleSuite suite = RuleSuite.of(
+				SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_TRANSACTIONAL_METHODS_OR_CLASSES,
+				JpaCodingRules.JPA_ENTITIES_HAVE_PUBLIC_EMPTY_CONSTRUCTOR,
+				StandardCodingRules.NO_CLASSES_SHOULD_USE_JAVA_UTIL_DATE
+			);
+
+			EvaluationResult result = suite.evaluate(classes);
+
+			Assertions.assertThat(result.hasViolation()).isTrue();
+			Assertions.assertThat(result.getFailureReport().getDetails())
+				.hasSize(4)
+				.anyMatch(detail -> detail.contains("Neither Class " + TestService.class.getName()))
+				.anyMatch(detail -> detail.contains("Class " + TestEntityWithPublicArgedConstructor.class.getName() + " has no public empty constructor"))
+				.anyMatch(detail -> detail.contains("Field <" + DateExample.class.getName() + ".A_DATE> has type <java.util.Date>"));
+		}
+
+		@Test
+		void should_report_the_violations_in_the_order_of_the_rules_whatever_the_parallelism() {
+			JavaClasses classes = new ClassFileImporter().importClasses(
+				TestRepository.class, TestService.class, TestEntityWithPublicArgedConstructor.class, DateExample.class
+			);
+			RuleSuite suite = RuleSuite.of(
+				StandardCodingRules.NO_CLASSES_SHOULD_USE_JAVA_UTIL_DATE,
+				JpaCodingRules.JPA_ENTITIES_HAVE_PUBLIC_EMPTY_CONSTRUCTOR,
+				SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_TRANSACTIONAL_METHODS_OR_CLASSES
+			);
+
+			Assertions.assertThat(suite.withParallelism(4).evaluate(classes).getFailureReport().getDetails())
+				.isEqualTo(suite.withParallelism(1).evaluate(classes).getFailureReport().getDetails());
+		}
+
+		@Test
+		void should_report_the_rules_sharing_their_selection_as_if_evaluated_alone() {
+			JavaClasses classes = new ClassFileImporter().importClasses(
+				TestRepository.class, TestService.class, TestTransactionalService.class
+			);
+			ArchRule[] rules = {
+				SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_TRANSACTIONAL_METHODS_OR_CLASSES,
+				SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_SERVICE_CLASSES,
+				SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_SERVICE_OR_CONTROLLER_CLASSES
+			};
+
+			EvaluationResult result = RuleSuite.of(rules).withParallelism(1).evaluate(classes);
+
+			List<String> expectedDetails = new ArrayList<>();
+			for (ArchRule rule : rules) {
+				expectedDetails.addAll(rule.evaluate(classes).getFailureReport().getDetails());
+			}
+			Assertions.assertThat(result.getFailureReport().getDetails())
+				.isNotEmpty()
+				.containsExactlyInAnyOrderElementsOf(expectedDetails);
+		}
+
+		@Test
+		void should_fail_with_the_violations_of_all_rules() {
+			JavaClasses classes = new ClassFileImporter().importClasses(
+				TestRepository.class, TestService.class, TestEntityWithPublicArgedConstructor.class
+			);
+			RuleSuite suite = RuleSuite.of(
+				SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_TRANSACTIONAL_METHODS_OR_CLASSES,
+				JpaCodingRules.JPA_ENTITIES_HAVE_PUBLIC_EMPTY_CONSTRUCTOR
+			);
+
+			Assertions.assertThatThrownBy(() -> suite.check(classes))
+				.isInstanceOf(AssertionError.class)
+				.hasMessageContaining("Rule 'classes that are annotated with @Repository should be accessed by @Transactional classes or methods and classes that are annotated with @Entity should have a public empty constructor' was violated (2 times)")
+				.hasMessageContaining("Neither Class %s or Method %s.callRepositoryWithoutTransactional() are annotated by @Transactional", TestService.class.getName(), TestService.class.getName())
+				.hasMessageContaining("Class %s has no public empty constructor", TestEntityWithPublicArgedConstructor.class.getName());
+		}
+
+		@Test
+		void should_rethrow_the_error_of_an_empty_rule() {
+			JavaClasses classes = new ClassFileImporter().importClasses(DateExample.class);
+			RuleSuite suite = RuleSuite.of(
+				StandardCodingRules.NO_CLASSES_SHOULD_USE_JAVA_UTIL_DATE,
+				JpaCodingRules.JPA_ENTITIES_HAVE_PUBLIC_EMPTY_CONSTRUCTOR.allowEmptyShould(false)
+			);
+
+			Assertions.assertThatThrownBy(() -> suite.evaluate(classes))
+				.isInstanceOf(AssertionError.class)
+				.hasMessageContaining("failed to check any classes");
+		}
+	}
+
+	@Nested
+	@DisplayName("when evaluating a suite incrementally")
+	class IncrementalTest {
+
+		@TempDir
+		Path cacheDirectory;
+
+		private final RuleSuite suite = RuleSuite.of(
+			SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_TRANSACTIONAL_METHODS_OR_CLASSES,
+			JpaCodingRules.JPA_ENTITIES_HAVE_PUBLIC_EMPTY_CONSTRUCTOR,
+			StandardCodingRules.NO_CLASSES_SHOULD_USE_JAVA_UTIL_DATE
+		);
+
+		@Test
+		void should_report_the_same_violations_as_a_full_evaluation() {
+			JavaClasses classes = new ClassFileImporter().importClasses(
+				TestRepository.class, TestService.class, TestEntityWithPublicArgedConstructor.class, DateExample.class
+			);
+			RuleSuite incrementalSuite = suite.withIncrementalCache(cacheDirectory.resolve("archunit-rules.cache"));
+
+			EvaluationResult firstResult = incrementalSuite.evaluate(classes);
+			EvaluationResult secondResult = incrementalSuite.evaluate(classes);
+
+			Assertions.assertThat(cacheDirectory.resolve("archunit-rules.cache")).exists();
+			Assertions.assertThat(firstResult.getFailureReport().getDetails())
+				.containsExactlyInAnyOrderElementsOf(suite.evaluate(classes).getFailureReport().getDetails());
+			Assertions.assertThat(secondResult.getFailureReport().getDetails())
+				.isEqualTo(firstResult.getFailureReport().getDetails());
+		}
+
+		@Test
+		void should_evaluate_the_new_classes() {
+			RuleSuite incrementalSuite = suite.withIncrementalCache(cacheDirectory.resolve("archunit-rules.cache"));
+			incrementalSuite.evaluate(new ClassFileImporter().importClasses(TestRepository.class, TestTransactionalService.class, TestEntityWithExplicitPublicEmptyConstructor.class));
+
+			EvaluationResult result = incrementalSuite.evaluate(new ClassFileImporter().importClasses(
+				TestRepository.class, TestTransactionalService.class, TestEntityWithExplicitPublicEmptyConstructor.class, TestService.class, DateExample.class
+			));
+
+			Assertions.assertThat(result.getFailureReport().getDetails())
+				.hasSize(3)
+				.anyMatch(detail -> detail.contains("Neither Class " + TestService.class.getName()))
+				.anyMatch(detail -> detail.contains("Field <" + DateExample.class.getName() + ".A_DATE> has type <java.util.Date>"));
+		}
+
+		@Test
+		void should_forget_the_violations_of_the_removed_classes() {
+			RuleSuite incrementalSuite = suite.withIncrementalCache(cacheDirectory.resolve("archunit-rules.cache"));
+			incrementalSuite.evaluate(new ClassFileImporter().importClasses(TestRepository.class, TestService.class, TestEntityWithExplicitPublicEmptyConstructor.class, DateExample.class));
+
+			EvaluationResult result = incrementalSuite.evaluate(new ClassFileImporter().importClasses(TestRepository.class, TestTransactionalService.class, TestEntityWithExplicitPublicEmptyConstructor.class));
+
+			Assertions.assertThat(result.hasViolation()).isFalse();
+		}
+
+		@Test
+		void should_fully_evaluate_the_rules_following_the_calls_through_the_whole_import() {
+			RuleSuite transitiveSuite = RuleSuite.of(SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_TRANSACTIONAL_METHODS_OR_CLASSES_TRANSITIVELY);
+			RuleSuite incrementalSuite = transitiveSuite.withIncrementalCache(cacheDirectory.resolve("archunit-rules.cache"));
+			incrementalSuite.evaluate(new ClassFileImporter().importClasses(TestRepository.class, TestRepositoryHelper.class, TestServiceUsingHelperInTransaction.class));
+			// Only the service has changed, but the helper it calls is no longer called in a transaction
+			JavaClasses classes = new ClassFileImporter().importClasses(TestRepository.class, TestRepositoryHelper.class, TestServiceUsingHelperWithoutTransaction.class);
+
+			EvaluationResult result = incrementalSuite.evaluate(classes);
+
+			Assertions.assertThat(result.getFailureReport().getDetails())
+				.isNotEmpty()
+				.containsExactlyInAnyOrderElementsOf(transitiveSuite.evaluate(classes).getFailureReport().getDetails());
+		}
+
+		@Test
+		void should_fully_evaluate_the_rules_following_the_calls_to_the_database() {
+			RuleSuite databaseSuite = RuleSuite.of(JpaCodingRules.LIFE_CYCLE_CALLBACKS_DO_NOT_ACCESS_THE_DATABASE);
+			RuleSuite incrementalSuite = databaseSuite.withIncrementalCache(cacheDirectory.resolve("archunit-rules.cache"));
+			incrementalSuite.evaluate(new ClassFileImporter().importClasses(TestEntityWithDatabaseCallbacks.class, TestCallbackAuditor.class, TestCallbackRepository.class));
+			// No imported class has changed, but the calls of the auditor are no longer followed
+			JavaClasses classes = new ClassFileImporter().importClasses(TestEntityWithDatabaseCallbacks.class, TestCallbackRepository.class);
+
+			EvaluationResult result = incrementalSuite.evaluate(classes);
+
+			Assertions.assertThat(result.getFailureReport().getDetails())
+				.hasSize(1)
+				.containsExactlyInAnyOrderElementsOf(databaseSuite.evaluate(classes).getFailureReport().getDetails());
+		}
+	}
+
+	@Nested
+	@DisplayName("when measuring a suite")
+	class MetricsTest {
+
+		@TempDir
+		Path reportsDirectory;
+
+		private final JavaClasses classes = new ClassFileImporter().importClasses(
+			TestRepository.class, TestService.class, TestEntityWithPublicArgedConstructor.class, DateExample.class
+		);
+
+		@Test
+		void should_measure_each_rule() {
+			List<RuleMetrics> metrics = new ArrayList<>();
+			RuleSuite suite = RuleSuite.of(
+				SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_TRANSACTIONAL_METHODS_OR_CLASSES,
+				StandardCodingRules.NO_CLASSES_SHOULD_USE_JAVA_UTIL_DATE,
+				classes().should().bePublic()
+			).withMetricsListener((evaluatedSuite, suiteMetrics) -> metrics.addAll(suiteMetrics));
+
+			suite.evaluate(classes);
+
+			Assertions.assertThat(metrics)
+				.extracting(RuleMetrics::getRuleDescription)
+				.containsExactly(
+					SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_TRANSACTIONAL_METHODS_OR_CLASSES.getDescription(),
+					StandardCodingRules.NO_CLASSES_SHOULD_USE_JAVA_UTIL_DATE.getDescription(),
+					"classes should be public"
+				);
+			Assertions.assertThat(metrics.get(0).getCheckedObjects()).hasValue(1);
+			Assertions.assertThat(metrics.get(0).getViolatedEvents()).isEqualTo(1);
+			Assertions.assertThat(metrics.get(0).getSatisfiedEvents()).hasValue(3);
+			Assertions.assertThat(metrics.get(1).getCheckedObjects()).isEmpty();
+			Assertions.assertThat(metrics.get(1).getViolatedEvents()).isEqualTo(2);
+			Assertions.assertThat(metrics.get(2).getCheckedObjects()).isEmpty();
+			Assertions.assertThat(metrics.get(2).getViolatedEvents()).isZero();
+			Assertions.assertThat(metrics).allSatisfy(ruleMetrics -> Assertions.assertThat(ruleMetrics.getWallTime()).isPositive());
+		}
+
+		@Test
+		void should_write_the_metrics_as_json() throws Exception {
+			RuleSuite suite = RuleSuite.of(JpaCodingRules.JPA_ENTITIES_HAVE_PUBLIC_EMPTY_CONSTRUCTOR)
+				.withMetricsListener(new RuleMetricsReport(reportsDirectory));
+
+			suite.evaluate(classes);
+
+			Assertions.assertThat(reportsDirectory).isDirectoryContaining("glob:**/archunit-rules-metrics-*.json");
+			try (Stream<Path> reports = Files.list(reportsDirectory)) {
+				Assertions.assertThat(Files.readString(reports.findFirst().orElseThrow()))
+					.contains("\"rule\": \"classes that are annotated with @Entity should have a public empty constructor\"")
+					.contains("\"checkedObjects\": 1")
+					.contains("\"violatedEvents\": 1");
+			}
+		}
+	}
+
+	@Nested
+	@DisplayName("when evaluating a suite with a violation budget")
+	class ViolationBudgetTest {
+
+		private final JavaClasses classes = new ClassFileImporter().importClasses(
+			AValidTestRepository.class, AnInvalidTestRepositoryContainingRepository.class, ATestControllerWithRepository.class,
+			ATestRestControllerWithRepository.class, AStandardClassWithRepository.class, DateExample.class
+		);
+
+		@Test
+		void should_stop_each_rule_after_its_budget() {
+			RuleSuite suite = RuleSuite.of(
+				SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_SERVICE_CLASSES,
+				StandardCodingRules.NO_CLASSES_SHOULD_USE_JAVA_UTIL_DATE
+			).withMaxViolationsPerRule(2);
+
+			EvaluationResult result = suite.evaluate(classes);
+
+			Assertions.assertThat(result.getFailureReport().getDetails())
+				.filteredOn(detail -> detail.endsWith("is not annotated by @Service"))
+				.hasSize(2);
+			Assertions.assertThat(result.getFailureReport().getDetails())
+				.anyMatch(detail -> detail.contains("java.util.Date"));
+			Assertions.assertThat(result.getFailureReport().toString())
+				.contains("was violated (stopped after 4 violations by the violation budget)");
+		}
+
+		@Test
+		void should_stop_the_suite_after_its_budget() {
+			RuleSuite suite = RuleSuite.of(
+				SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_SERVICE_CLASSES,
+				StandardCodingRules.NO_CLASSES_SHOULD_USE_JAVA_UTIL_DATE
+			).withParallelism(1).withMaxViolations(3);
+
+			EvaluationResult result = suite.evaluate(classes);
+
+			Assertions.assertThat(result.getFailureReport().getDetails())
+				.hasSize(3)
+				.allMatch(detail -> detail.endsWith("is not annotated by @Service"));
+			Assertions.assertThat(result.getFailureReport().toString())
+				.contains("was violated (stopped after 3 violations by the violation budget)");
+		}
+
+		@Test
+		void should_report_every_violation_within_the_budget() {
+			RuleSuite suite = RuleSuite.of(SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_SERVICE_CLASSES)
+				.withMaxViolations(10);
+
+			EvaluationResult result = suite.evaluate(classes);
+
+			Assertions.assertThat(result.getFailureReport().getDetails()).hasSize(4);
+			Assertions.assertThat(result.getFailureReport().toString()).contains("was violated (4 times)");
+		}
+
+		@Test
+		void should_refuse_an_empty_budget() {
+			RuleSuite suite = RuleSuite.of(SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_SERVICE_CLASSES);
+
+			Assertions.assertThatThrownBy(() -> suite.withMaxViolations(0))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("The maximum number of violations must be at least 1, got 0");
+		}
+	}
+
+	@Nested
+	@DisplayName("when recording a suite with Java Flight Recorder")
+	class RecordingTest {
+
+		@TempDir
+		Path recordingDirectory;
+
+		@Test
+		void should_record_the_rules_the_conditions_and_the_import_phases() throws Exception {
+			JavaClasses classes = new ClassFileImporter().importClasses(
+				TestRepository.class, TestService.class, TestEntityWithPublicArgedConstructor.class, DateExample.class
+			);
+			RuleSuite suite = RuleSuite.of(
+				SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_SERVICE_CLASSES,
+				JpaCodingRules.JPA_ENTITIES_HAVE_PUBLIC_EMPTY_CONSTRUCTOR
+			);
+			Path recordingFile = recordingDirectory.resolve("rules.jfr");
+
+			try (Recording recording = new Recording()) {
+				recording.enable("io.github.cpetot.archunit.RuleEvaluation");
+				recording.enable("io.github.cpetot.archunit.ConditionEvaluation");
+				recording.enable("io.github.cpetot.archunit.ConditionCheck").withThreshold(Duration.ZERO);
+				recording.enable("io.github.cpetot.archunit.ImportPhase");
+				recording.start();
+				suite.evaluate(classes);
+				recording.stop();
+				recording.dump(recordingFile);
+			}
+
+			List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+			Assertions.assertThat(events)
+				.filteredOn(event -> event.getEventType().getName().equals("io.github.cpetot.archunit.RuleEvaluation"))
+				.extracting(event -> event.getString("rule"), event -> event.getInt("importedClasses"), event -> event.getInt("violations"))
+				.containsExactlyInAnyOrder(
+					Assertions.tuple(SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_SERVICE_CLASSES.getDescription(), 4, 1),
+					Assertions.tuple(JpaCodingRules.JPA_ENTITIES_HAVE_PUBLIC_EMPTY_CONSTRUCTOR.getDescription(), 4, 1)
+				);
+			Assertions.assertThat(events)
+				.filteredOn(event -> event.getEventType().getName().equals("io.github.cpetot.archunit.ConditionEvaluation"))
+				.extracting(event -> event.getInt("checkedObjects"))
+				.containsExactlyInAnyOrder(1, 1);
+			Assertions.assertThat(events)
+				.filteredOn(event -> event.getEventType().getName().equals("io.github.cpetot.archunit.ConditionCheck"))
+				.hasSize(2);
+			Assertions.assertThat(events)
+				.filteredOn(event -> event.getEventType().getName().equals("io.github.cpetot.archunit.ImportPhase"))
+				.extracting(event -> event.getString("phase"))
+				.contains("meta-annotation index");
+		}
+
+		@Test
+		void should_record_the_conditions_of_the_rules_evaluated_together() throws Exception {
+			JavaClasses classes = new ClassFileImporter().importClasses(
+				TestRepository.class, TestService.class, TestTransactionalService.class
+			);
+			RuleSuite suite = RuleSuite.of(
+				SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_TRANSACTIONAL_METHODS_OR_CLASSES,
+				SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_SERVICE_CLASSES
+			);
+			Path recordingFile = recordingDirectory.resolve("fused-rules.jfr");
+
+			try (Recording recording = new Recording()) {
+				recording.enable("io.github.cpetot.archunit.RuleEvaluation");
+				recording.enable("io.github.cpetot.archunit.ConditionEvaluation");
+				recording.enable("io.github.cpetot.archunit.ConditionCheck").withThreshold(Duration.ZERO);
+				recording.start();
+				suite.evaluate(classes);
+				recording.stop();
+				recording.dump(recordingFile);
+			}
+
+			List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+			Assertions.assertThat(events)
+				.filteredOn(event -> event.getEventType().getName().equals("io.github.cpetot.archunit.RuleEvaluation"))
+				.extracting(event -> event.getInt("fusedRules"))
+				.containsExactly(2, 2);
+			Assertions.assertThat(events)
+				.filteredOn(event -> event.getEventType().getName().equals("io.github.cpetot.archunit.ConditionEvaluation"))
+				.extracting(event -> event.getInt("checkedObjects"), event -> event.getInt("violations"))
+				.containsExactlyInAnyOrder(Assertions.tuple(1, 1), Assertions.tuple(1, 2));
+			Assertions.assertThat(events)
+				.filteredOn(event -> event.getEventType().getName().equals("io.github.cpetot.archunit.ConditionCheck"))
+				.hasSize(2);
+		}
+
+		@Test
+		void should_record_the_rules_of_the_library_evaluated_without_a_suite() throws Exception {
+			JavaClasses classes = new ClassFileImporter().importClasses(
+				TestRepository.class, TestService.class, TestEntityWithPublicArgedConstructor.class, DateExample.class
+			);
+			Path recordingFile = recordingDirectory.resolve("single-rules.jfr");
+
+			try (Recording recording = new Recording()) {
+				recording.enable("io.github.cpetot.archunit.RuleEvaluation");
+				recording.start();
+				StandardCodingRules.NO_CLASSES_SHOULD_USE_JAVA_UTIL_DATE.evaluate(classes);
+				SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_SERVICE_CLASSES.evaluate(classes);
+				recording.stop();
+				recording.dump(recordingFile);
+			}
+
+			Assertions.assertThat(RecordingFile.readAllEvents(recordingFile))
+				.filteredOn(event -> event.getEventType().getName().equals("io.github.cpetot.archunit.RuleEvaluation"))
+				.extracting(event -> event.getString("rule"), event -> event.getInt("importedClasses"), event -> event.getInt("fusedRules"))
+				.containsExactly(
+					Assertions.tuple(StandardCodingRules.NO_CLASSES_SHOULD_USE_JAVA_UTIL_DATE.getDescription(), 4, 1),
+					Assertions.tuple(SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_SERVICE_CLASSES.getDescription(), 4, 1)
+				);
+		}
+	}
+
+	@Nested
+	@DisplayName("when evaluating a suite by shards")
+	class ShardTest {
+
+		private static final List<String> SHARDS = List.of(
+			"io.github.cpetot.archunit.shard.repository", "io.github.cpetot.archunit.shard.service", "io.github.cpetot.archunit.shard.web"
+		);
+
+		@Test
+		void should_report_the_same_violations_as_the_whole_import() {
+			RuleSuite suite = RuleSuite.of(
+				SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_TRANSACTIONAL_METHODS_OR_CLASSES,
+				SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_SERVICE_CLASSES,
+				SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_SERVICE_OR_CONTROLLER_CLASSES,
+				StandardCodingRules.NO_CLASSES_SHOULD_USE_JAVA_UTIL_DATE
+			);
+			JavaClasses classes = new ClassFileImporter().importPackages("io.github.cpetot.archunit.shard");
+
+			EvaluationResult result = suite.evaluateByShards(SHARDS);
+
+			Assertions.assertThat(result.getFailureReport().getDetails())
+				.containsExactlyInAnyOrderElementsOf(suite.evaluate(classes).getFailureReport().getDetails())
+				.contains(
+					"Neither Class io.github.cpetot.archunit.shard.web.ShardController or Method "
+						+ "io.github.cpetot.archunit.shard.web.ShardController.save() are annotated by @Transactional",
+					"Class io.github.cpetot.archunit.shard.web.ShardController is not annotated by @Service"
+				);
+		}
+
+		@Test
+		void should_refuse_the_rules_needing_the_whole_import() {
+			RuleSuite suite = RuleSuite.of(SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_TRANSACTIONAL_METHODS_OR_CLASSES_TRANSITIVELY);
+
+			Assertions.assertThatThrownBy(() -> suite.evaluateByShards(SHARDS))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("cannot be evaluated by shards");
+		}
+
+		@Test
+		void should_refuse_the_other_rules_using_a_condition_needing_the_whole_import() {
+			RuleSuite transactionalSuite = RuleSuite.of(classes().that().haveSimpleNameEndingWith("Repository")
+				.should(SpringCodingRules.BE_ACCESSED_BY_TRANSACTIONAL_CLASSES_OR_METHODS_TRANSITIVELY));
+			RuleSuite databaseSuite = RuleSuite.of(methods().that().haveName("save")
+				.should(JpaCodingRules.NOT_ACCESS_THE_DATABASE));
+
+			Assertions.assertThatThrownBy(() -> transactionalSuite.evaluateByShards(SHARDS))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("The condition 'be accessed by @Transactional classes or methods, directly or not' needs the whole import and cannot be evaluated by shards");
+			Assertions.assertThatThrownBy(() -> databaseSuite.evaluateByShards(SHARDS))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("The condition 'not access the database, directly or not' needs the whole import and cannot be evaluated by shards");
+		}
+
+		@Test
+		void should_refuse_the_access_rules_derived_from_the_rules_of_the_library() {
+			RuleSuite suite = RuleSuite.of(SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_SERVICE_CLASSES.because("it is an example"));
+
+			Assertions.assertThatThrownBy(() -> suite.evaluateByShards(SHARDS))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("cannot be evaluated by shards");
+		}
+
+		@Test
+		void should_refuse_a_shard_in_another_one() {
+			RuleSuite suite = RuleSuite.of(StandardCodingRules.NO_CLASSES_SHOULD_USE_JAVA_UTIL_DATE);
+
+			Assertions.assertThatThrownBy(() -> suite.evaluateByShards(List.of("io.github.cpetot.archunit.shard", "io.github.cpetot.archunit.shard.web")))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("The shard io.github.cpetot.archunit.shard.web is in the shard io.github.cpetot.archunit.shard");
+		}
+	}
+
+	@Nested
+	@DisplayName("when creating a suite")
+	class CreateTest {
+
+		@Test
+		void should_find_the_public_rules_of_the_library() {
+			RuleSuite suite = RuleSuite.ofRulesDeclaredIn(StandardCodingRules.class, SpringCodingRules.class, JpaCodingRules.class);
+
+			Assertions.assertThat(suite.getDescription())
+				.contains(StandardCodingRules.NO_CLASSES_SHOULD_USE_JUNIT_4.getDescription())
+				.contains(SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_SERVICE_CLASSES.getDescription())
+				.contains(JpaCodingRules.LIFE_CYCLE_ANNOTATIONS_CORRECTLY_DECLARED.getDescription());
+		}
+
+		@Test
+		void should_describe_the_suite_with_its_rules() {
+			RuleSuite suite = RuleSuite.of(classes().should().bePublic())
+				.and(classes().should().notBeInterfaces())
+				.because("it is an example");
+
+			Assertions.assertThat(suite.getDescription())
+				.isEqualTo("classes should be public and classes should not be interfaces, because it is an example");
+		}
+
+		@Test
+		void should_refuse_an_empty_suite() {
+			Assertions.assertThatThrownBy(RuleSuite::of)
+				.isInstanceOf(IllegalArgumentException.class);
+		}
+
+		@Test
+		void should_refuse_a_parallelism_lower_than_1() {
+			RuleSuite suite = RuleSuite.of(classes().should().bePublic());
+
+			Assertions.assertThatThrownBy(() -> suite.withParallelism(0))
+				.isInstanceOf(IllegalArgumentException.class);
+		}
+	}
+}
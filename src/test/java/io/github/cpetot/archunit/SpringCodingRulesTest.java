@@ -1,12 +1,21 @@
 package io.github.cpetot.archunit;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import com.tngtech.archunit.core.domain.JavaClasses;
 import com.tngtech.archunit.core.importer.ClassFileImporter;
+import io.github.cpetot.archunit.spring.loop.TestLoopRepository;
+import io.github.cpetot.archunit.spring.loop.TestServiceCallingRepositoryInLoops;
+import io.github.cpetot.archunit.spring.loop.TestServiceCallingRepositoryOnce;
 import io.github.cpetot.archunit.spring.stereotypes.AStandardClassWithRepository;
 import io.github.cpetot.archunit.spring.stereotypes.ATestControllerWithRepository;
 import io.github.cpetot.archunit.spring.stereotypes.ATestRestControllerWithRepository;
@@ -14,7 +23,10 @@ import io.github.cpetot.archunit.spring.stereotypes.AValidTestRepository;
 import io.github.cpetot.archunit.spring.stereotypes.AValidTestService;
 import io.github.cpetot.archunit.spring.stereotypes.AnInvalidTestRepositoryContainingRepository;
 import io.github.cpetot.archunit.spring.transaction.TestRepository;
+import io.github.cpetot.archunit.spring.transaction.TestRepositoryHelper;
 import io.github.cpetot.archunit.spring.transaction.TestService;
+import io.github.cpetot.archunit.spring.transaction.TestServiceUsingHelperInTransaction;
+import io.github.cpetot.archunit.spring.transaction.TestServiceUsingHelperWithoutTransaction;
 import io.github.cpetot.archunit.spring.transaction.TestTransactionalService;
 
 class SpringCodingRulesTest {
@@ -40,6 +52,50 @@ class SpringCodingRulesTest {
 		}
 	}
 
+	@Nested
+	@DisplayName("when REPOSITORIES_ARE_ACCESSED_ONLY_BY_TRANSACTIONAL_METHODS_OR_CLASSES_TRANSITIVELY")
+	class RepositoriesAreAccessedOnlyByTransactionalMethodsOrClassesTransitively {
+
+		@Test
+		void should_raise_no_error_with_helper_only_called_in_transaction() {
+			JavaClasses classes = new ClassFileImporter().importClasses(
+				TestRepository.class, TestRepositoryHelper.class, TestServiceUsingHelperInTransaction.class
+			);
+			SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_TRANSACTIONAL_METHODS_OR_CLASSES_TRANSITIVELY.allowEmptyShould(false).check(classes);
+		}
+
+		@Test
+		void should_raise_errors_with_helper_called_without_transaction() {
+			JavaClasses classes = new ClassFileImporter().importClasses(
+				TestRepository.class, TestRepositoryHelper.class, TestServiceUsingHelperInTransaction.class, TestServiceUsingHelperWithoutTransaction.class
+			);
+			Assertions.assertThatThrownBy(() -> SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_TRANSACTIONAL_METHODS_OR_CLASSES_TRANSITIVELY.allowEmptyShould(false).check(classes))
+				.isInstanceOf(AssertionError.class)
+				.hasMessageContaining("Rule 'classes that are annotated with @Repository should be accessed by @Transactional classes or methods, directly or not' was violated (1 times)")
+				.hasMessageContaining("Method %s.save() is called by %s.process() without any @Transactional method or class",
+					TestRepositoryHelper.class.getName(), TestServiceUsingHelperWithoutTransaction.class.getName());
+		}
+
+		@Test
+		void should_raise_an_error_with_recursive_helper_never_called() {
+			JavaClasses classes = new ClassFileImporter().importClasses(TestRepository.class, TestRepositoryHelper.class);
+			Assertions.assertThatThrownBy(() -> SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_TRANSACTIONAL_METHODS_OR_CLASSES_TRANSITIVELY.allowEmptyShould(false).check(classes))
+				.isInstanceOf(AssertionError.class)
+				.hasMessageContaining("was violated (2 times)")
+				.hasMessageContaining("Method %s.saveRecursively(int) is called by", TestRepositoryHelper.class.getName());
+		}
+
+		@Test
+		void should_still_accept_the_direct_calls_from_transactional_methods_or_classes() {
+			JavaClasses classes = new ClassFileImporter().importClasses(TestRepository.class, TestService.class, TestTransactionalService.class);
+			Assertions.assertThatThrownBy(() -> SpringCodingRules.REPOSITORIES_ARE_ACCESSED_ONLY_BY_TRANSACTIONAL_METHODS_OR_CLASSES_TRANSITIVELY.allowEmptyShould(false).check(classes))
+				.isInstanceOf(AssertionError.class)
+				.hasMessageContaining("was violated (1 times)")
+				.hasMessageContaining("Method %s.callRepositoryWithoutTransactional() is called by %s.callRepositoryWithoutTransactional()",
+					TestService.class.getName(), TestService.class.getName());
+		}
+	}
+
 	@Nested
 	@DisplayName("when REPOSITORIES_ARE_ACCESSED_ONLY_BY_SERVICE_CLASSES")
 	class RepositoriesAreAccessedOnlyByServiceClasses {
@@ -119,4 +175,58 @@ class SpringCodingRulesTest {
 		}
 	}
 
+
+	@Nested
+	@DisplayName("when REPOSITORIES_ARE_NOT_CALLED_IN_LOOPS")
+	class RepositoriesAreNotCalledInLoops {
+
+		@TempDir
+		Path classesDirectory;
+
+		@Test
+		void should_raise_no_error_with_repository_called_before_loops() {
+			JavaClasses classes = new ClassFileImporter().importClasses(TestLoopRepository.class, TestServiceCallingRepositoryOnce.class);
+			SpringCodingRules.REPOSITORIES_ARE_NOT_CALLED_IN_LOOPS.allowEmptyShould(false).check(classes);
+		}
+
+		@Test
+		void should_raise_four_errors_with_repository_called_in_loops_and_lambdas() {
+			JavaClasses classes = new ClassFileImporter().importClasses(TestLoopRepository.class, TestServiceCallingRepositoryInLoops.class);
+			String service = TestServiceCallingRepositoryInLoops.class.getName();
+			String repository = TestLoopRepository.class.getName();
+			Assertions.assertThatThrownBy(() -> SpringCodingRules.REPOSITORIES_ARE_NOT_CALLED_IN_LOOPS.allowEmptyShould(false).check(classes))
+				.isInstanceOf(AssertionError.class)
+				.hasMessageContaining("should not be called in loops' was violated (4 times)")
+				.hasMessageContaining("calls %s.findName(java.lang.Long) in a loop in (TestServiceCallingRepositoryInLoops.java:18)", repository)
+				.hasMessageContaining("Method %s.deleteInWhileLoop(java.util.List) calls %s.deleteById(java.lang.Long) in a loop in (TestServiceCallingRepositoryInLoops.java:26)",
+					service, repository)
+				.hasMessageContaining("calls %s.findName(java.lang.Long) in a lambda passed to java.util.stream.Stream.map in (TestServiceCallingRepositoryInLoops.java:32)",
+					repository)
+				.hasMessageContaining("Method %s.deleteWithMethodReference(java.util.List) calls %s.deleteById(java.lang.Long) in a method reference passed to java.util.List.forEach",
+					service, repository);
+		}
+
+		@Test
+		void should_raise_an_error_for_each_call_from_a_class_file_which_cannot_be_scanned() throws IOException {
+			Path service = copyClassFile(TestServiceCallingRepositoryOnce.class);
+			copyClassFile(TestLoopRepository.class);
+			JavaClasses classes = new ClassFileImporter().importPath(classesDirectory);
+			Files.write(service, new byte[] {0, 1, 2, 3});
+
+			Assertions.assertThatThrownBy(() -> SpringCodingRules.REPOSITORIES_ARE_NOT_CALLED_IN_LOOPS.allowEmptyShould(false).check(classes))
+				.isInstanceOf(AssertionError.class)
+				.hasMessageContaining("should not be called in loops' was violated (4 times)")
+				.hasMessageContaining("Method %s.countLongNames(java.util.List) calls %s.findNames(java.util.List) in a class file which cannot be scanned "
+					+ "(java.lang.IllegalArgumentException: Not a class file)", TestServiceCallingRepositoryOnce.class.getName(), TestLoopRepository.class.getName());
+		}
+
+		private Path copyClassFile(Class<?> type) throws IOException {
+			Path classFile = classesDirectory.resolve(type.getName().replace('.', '/') + ".class");
+			Files.createDirectories(classFile.getParent());
+			try (InputStream input = type.getResourceAsStream(type.getSimpleName() + ".class")) {
+				Files.copy(input, classFile);
+			}
+			return classFile;
+		}
+	}
 }
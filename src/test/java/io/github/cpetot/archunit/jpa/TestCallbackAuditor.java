@@ -0,0 +1,14 @@
+package io.github.cpetot.archunit.jpa;
+
+public class TestCallbackAuditor {
+
+	private final TestCallbackRepository repository = new TestCallbackRepository();
+
+	public void audit(Object entity) {
+		record(entity);
+	}
+
+	private void record(Object entity) {
+		repository.save(entity);
+	}
+}
@@ -0,0 +1,11 @@
+package io.github.cpetot.archunit.jpa;
+
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class TestCallbackRepository {
+
+	public void save(Object entity) {
+		// Impl
+	}
+}
@@ -0,0 +1,9 @@
+package io.github.cpetot.archunit.jpa;
+
+import jakarta.persistence.Entity;
+
+@Entity
+public class TestEntityExtendingEntityWithIdentityId extends TestEntityWithIdentityId {
+
+	private String name;
+}
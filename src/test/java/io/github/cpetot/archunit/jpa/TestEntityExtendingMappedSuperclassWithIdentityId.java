@@ -0,0 +1,9 @@
+package io.github.cpetot.archunit.jpa;
+
+import jakarta.persistence.Entity;
+
+@Entity
+public class TestEntityExtendingMappedSuperclassWithIdentityId extends TestMappedSuperclassWithIdentityId {
+
+	private String name;
+}
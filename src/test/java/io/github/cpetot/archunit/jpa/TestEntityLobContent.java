@@ -0,0 +1,13 @@
+package io.github.cpetot.archunit.jpa;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Lob;
+
+@Entity
+public class TestEntityLobContent {
+
+	private Long id;
+
+	@Lob
+	private byte[] content;
+}
@@ -0,0 +1,35 @@
+package io.github.cpetot.archunit.jpa;
+
+import java.util.List;
+import java.util.Objects;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+
+@Entity
+public class TestEntityWithAssociationsInEquals {
+
+	private Long id;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	private TestEntityWithAssociationsInEquals parent;
+
+	@OneToMany(mappedBy = "parent")
+	private List<TestEntityWithAssociationsInEquals> children;
+
+	public List<TestEntityWithAssociationsInEquals> getChildren() {
+		return children;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof TestEntityWithAssociationsInEquals entity && Objects.equals(parent, entity.parent);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id, getChildren());
+	}
+}
@@ -0,0 +1,26 @@
+package io.github.cpetot.archunit.jpa;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PrePersist;
+
+@Entity
+public class TestEntityWithDatabaseCallbacks {
+
+	private Long id;
+
+	private TestCallbackAuditor auditor;
+
+	private EntityManager entityManager;
+
+	@PrePersist
+	public void prePersist() {
+		auditor.audit(this);
+	}
+
+	@PostUpdate
+	public void postUpdate() {
+		entityManager.detach(this);
+	}
+}
@@ -0,0 +1,18 @@
+package io.github.cpetot.archunit.jpa;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToOne;
+
+@Entity
+public class TestEntityWithDefaultSingleAssociations {
+
+	private Long id;
+
+	@ManyToOne
+	private TestEntityWithLazySingleAssociations parent;
+
+	@OneToOne(fetch = FetchType.EAGER)
+	private TestEntityWithLazySingleAssociations details;
+}
@@ -0,0 +1,24 @@
+package io.github.cpetot.archunit.jpa;
+
+import java.util.List;
+
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.OneToMany;
+
+@Entity
+public class TestEntityWithEagerCollections {
+
+	private Long id;
+
+	@OneToMany(fetch = FetchType.EAGER)
+	private List<TestEntityWithLazyCollections> children;
+
+	private List<String> tags;
+
+	@ElementCollection(fetch = FetchType.EAGER)
+	public List<String> getTags() {
+		return tags;
+	}
+}
@@ -0,0 +1,23 @@
+package io.github.cpetot.archunit.jpa;
+
+import jakarta.persistence.Basic;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Lob;
+
+@Entity
+public class TestEntityWithEagerLobs {
+
+	private Long id;
+
+	@Lob
+	private byte[] picture;
+
+	@Lob
+	@Basic(fetch = FetchType.EAGER)
+	private String description;
+
+	@Lob
+	@Basic(fetch = FetchType.LAZY)
+	private String notes;
+}
@@ -0,0 +1,29 @@
+package io.github.cpetot.archunit.jpa;
+
+import java.util.List;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.OneToMany;
+
+@Entity
+public class TestEntityWithIdInEquals {
+
+	private Long id;
+
+	@OneToMany
+	private List<TestEntityWithIdInEquals> children;
+
+	public Long getId() {
+		return id;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof TestEntityWithIdInEquals entity && id != null && id.equals(entity.getId());
+	}
+
+	@Override
+	public int hashCode() {
+		return getClass().hashCode();
+	}
+}
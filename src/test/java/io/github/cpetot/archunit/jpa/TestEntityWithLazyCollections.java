@@ -0,0 +1,25 @@
+package io.github.cpetot.archunit.jpa;
+
+import java.util.List;
+import java.util.Set;
+
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.OneToMany;
+
+@Entity
+public class TestEntityWithLazyCollections {
+
+	private Long id;
+
+	@OneToMany(fetch = FetchType.LAZY)
+	private List<TestEntityWithEagerCollections> children;
+
+	@ManyToMany
+	private Set<TestEntityWithEagerCollections> parents;
+
+	@ElementCollection
+	private List<String> tags;
+}
@@ -0,0 +1,18 @@
+package io.github.cpetot.archunit.jpa;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.OneToOne;
+
+@Entity
+public class TestEntityWithLazyLobContentGetter {
+
+	private Long id;
+
+	@OneToOne(fetch = FetchType.LAZY)
+	private TestEntityLobContent content;
+
+	public TestEntityLobContent getContent() {
+		return content;
+	}
+}
@@ -0,0 +1,22 @@
+package io.github.cpetot.archunit.jpa;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToOne;
+
+@Entity
+public class TestEntityWithLazySingleAssociations {
+
+	private Long id;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	private TestEntityWithDefaultSingleAssociations parent;
+
+	private TestEntityWithDefaultSingleAssociations details;
+
+	@OneToOne(fetch = FetchType.LAZY)
+	public TestEntityWithDefaultSingleAssociations getDetails() {
+		return details;
+	}
+}
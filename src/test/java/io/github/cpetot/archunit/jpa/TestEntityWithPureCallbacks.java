@@ -0,0 +1,26 @@
+package io.github.cpetot.archunit.jpa;
+
+import java.time.Instant;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.PrePersist;
+
+@Entity
+public class TestEntityWithPureCallbacks {
+
+	private Long id;
+
+	private String name;
+
+	private Instant createdAt;
+
+	@PrePersist
+	public void prePersist() {
+		createdAt = Instant.now();
+		normalize();
+	}
+
+	private void normalize() {
+		name = name.trim();
+	}
+}
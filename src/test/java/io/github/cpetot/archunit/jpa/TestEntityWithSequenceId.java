@@ -0,0 +1,18 @@
+package io.github.cpetot.archunit.jpa;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+
+@Entity
+public class TestEntityWithSequenceId {
+
+	private Long id;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE)
+	public Long getId() {
+		return id;
+	}
+}
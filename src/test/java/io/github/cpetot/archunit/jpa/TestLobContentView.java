@@ -0,0 +1,6 @@
+package io.github.cpetot.archunit.jpa;
+
+public class TestLobContentView {
+
+	private TestEntityLobContent content;
+}
@@ -0,0 +1,9 @@
+package io.github.cpetot.archunit.shard.repository;
+
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ShardRepository {
+
+	void save();
+}
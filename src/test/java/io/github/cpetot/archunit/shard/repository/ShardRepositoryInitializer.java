@@ -0,0 +1,14 @@
+package io.github.cpetot.archunit.shard.repository;
+
+public class ShardRepositoryInitializer {
+
+	private final ShardRepository repository;
+
+	public ShardRepositoryInitializer(ShardRepository repository) {
+		this.repository = repository;
+	}
+
+	public void initialize() {
+		repository.save();
+	}
+}
@@ -0,0 +1,25 @@
+package io.github.cpetot.archunit.shard.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.github.cpetot.archunit.shard.repository.ShardRepository;
+
+@Service
+public class ShardService {
+
+	private final ShardRepository repository;
+
+	public ShardService(ShardRepository repository) {
+		this.repository = repository;
+	}
+
+	@Transactional
+	public void saveWithTransactional() {
+		repository.save();
+	}
+
+	public void saveWithoutTransactional() {
+		repository.save();
+	}
+}
@@ -0,0 +1,22 @@
+package io.github.cpetot.archunit.shard.web;
+
+import java.util.Date;
+
+import org.springframework.stereotype.Controller;
+
+import io.github.cpetot.archunit.shard.repository.ShardRepository;
+
+@Controller
+public class ShardController {
+
+	private final ShardRepository repository;
+
+	public ShardController(ShardRepository repository) {
+		this.repository = repository;
+	}
+
+	public Date save() {
+		repository.save();
+		return new Date();
+	}
+}
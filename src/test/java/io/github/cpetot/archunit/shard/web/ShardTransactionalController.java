@@ -0,0 +1,21 @@
+package io.github.cpetot.archunit.shard.web;
+
+import org.springframework.stereotype.Controller;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.github.cpetot.archunit.shard.repository.ShardRepository;
+
+@Controller
+@Transactional
+public class ShardTransactionalController {
+
+	private final ShardRepository repository;
+
+	public ShardTransactionalController(ShardRepository repository) {
+		this.repository = repository;
+	}
+
+	public void save() {
+		repository.save();
+	}
+}
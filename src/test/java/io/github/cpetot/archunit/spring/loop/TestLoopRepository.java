@@ -0,0 +1,15 @@
+package io.github.cpetot.archunit.spring.loop;
+
+import java.util.List;
+
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TestLoopRepository {
+
+	String findName(Long id);
+
+	List<String> findNames(List<Long> ids);
+
+	void deleteById(Long id);
+}
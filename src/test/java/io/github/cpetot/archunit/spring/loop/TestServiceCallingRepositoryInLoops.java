@@ -0,0 +1,39 @@
+package io.github.cpetot.archunit.spring.loop;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+public class TestServiceCallingRepositoryInLoops {
+
+	private final TestLoopRepository repository;
+
+	public TestServiceCallingRepositoryInLoops(TestLoopRepository repository) {
+		this.repository = repository;
+	}
+
+	public List<String> findNamesInForLoop(List<Long> ids) {
+		List<String> names = new ArrayList<>();
+		for (Long id : ids) {
+			names.add(repository.findName(id));
+		}
+		return names;
+	}
+
+	public void deleteInWhileLoop(List<Long> ids) {
+		Iterator<Long> iterator = ids.iterator();
+		while (iterator.hasNext()) {
+			repository.deleteById(iterator.next());
+		}
+	}
+
+	public List<String> findNamesInStream(List<Long> ids) {
+		return ids.stream()
+			.map(id -> repository.findName(id))
+			.toList();
+	}
+
+	public void deleteWithMethodReference(List<Long> ids) {
+		ids.forEach(repository::deleteById);
+	}
+}
@@ -0,0 +1,38 @@
+package io.github.cpetot.archunit.spring.loop;
+
+import java.util.List;
+import java.util.Optional;
+
+public class TestServiceCallingRepositoryOnce {
+
+	private final TestLoopRepository repository;
+
+	public TestServiceCallingRepositoryOnce(TestLoopRepository repository) {
+		this.repository = repository;
+	}
+
+	public int countLongNames(List<Long> ids) {
+		List<String> names = repository.findNames(ids);
+		int count = 0;
+		for (String name : names) {
+			if (name.length() > 10) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	public List<String> findUpperCaseNames(List<Long> ids) {
+		return repository.findNames(ids).stream()
+			.map(String::toUpperCase)
+			.toList();
+	}
+
+	public Optional<String> findName(Optional<Long> id) {
+		return id.map(i -> repository.findName(i));
+	}
+
+	public Optional<String> findNameIfAny(Long id) {
+		return Optional.ofNullable(id).map(repository::findName);
+	}
+}
@@ -0,0 +1,25 @@
+package io.github.cpetot.archunit.spring.transaction;
+
+public class TestRepositoryHelper {
+
+	private final TestRepository repository;
+
+	public TestRepositoryHelper(TestRepository repository) {
+		this.repository = repository;
+	}
+
+	public void save() {
+		repository.doSomethingWithDatabase();
+	}
+
+	public void saveRecursively(int times) {
+		if (times > 0) {
+			repository.doSomethingWithDatabase();
+			saveAgain(times);
+		}
+	}
+
+	private void saveAgain(int times) {
+		saveRecursively(times - 1);
+	}
+}
@@ -0,0 +1,18 @@
+package io.github.cpetot.archunit.spring.transaction;
+
+import org.springframework.transaction.annotation.Transactional;
+
+public class TestServiceUsingHelperInTransaction {
+
+	private final TestRepositoryHelper helper;
+
+	public TestServiceUsingHelperInTransaction(TestRepositoryHelper helper) {
+		this.helper = helper;
+	}
+
+	@Transactional
+	public void process() {
+		helper.save();
+		helper.saveRecursively(2);
+	}
+}
@@ -0,0 +1,18 @@
+package io.github.cpetot.archunit.spring.transaction;
+
+public class TestServiceUsingHelperWithoutTransaction {
+
+	private final TestRepositoryHelper helper;
+
+	public TestServiceUsingHelperWithoutTransaction(TestRepositoryHelper helper) {
+		this.helper = helper;
+	}
+
+	public void process() {
+		prepare();
+	}
+
+	private void prepare() {
+		helper.save();
+	}
+}